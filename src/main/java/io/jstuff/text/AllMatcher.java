@@ -0,0 +1,144 @@
+/*
+ * @(#) AllMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link StringMatcher} that matches a target only if all of a set of matchers match it (the logical AND of the
+ * matchers).  The matchers are evaluated in the order given, stopping at the first that does not match; the
+ * {@link StringMatcher#and(StringMatcher...) and()} function creates an {@code AllMatcher} with the matchers in order
+ * of estimated cost, after simplifying the set.
+ *
+ * @author  Peter Wall
+ */
+public class AllMatcher implements StringMatcher {
+
+    private final StringMatcher[] matchers;
+
+    public AllMatcher(StringMatcher[] matchers) {
+        this.matchers = Objects.requireNonNull(matchers, "Matchers list must not be null");
+        for (StringMatcher matcher : matchers)
+            Objects.requireNonNull(matcher, "Matcher must not be null");
+    }
+
+    public List<StringMatcher> getMatchers() {
+        return Collections.unmodifiableList(Arrays.asList(matchers));
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        for (StringMatcher matcher : matchers)
+            if (!matcher.matches(target))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        for (StringMatcher matcher : matchers)
+            if (!matcher.matches(target, start, end))
+                return false;
+        return true;
+    }
+
+    @Override
+    public MatchResult matches(CharSequence target, MatchBudget budget) {
+        Objects.requireNonNull(target, "Target must not be null");
+        Objects.requireNonNull(budget, "Budget must not be null");
+        for (StringMatcher matcher : matchers) {
+            MatchResult result = matcher.matches(target, budget);
+            if (result != MatchResult.MATCH)
+                return result;
+        }
+        return MatchResult.MATCH;
+    }
+
+    /**
+     * Evaluate the matchers in turn, as {@link #matches(CharSequence)} does, stopping at the first that does not
+     * match.  The report includes a report for each matcher evaluated.
+     *
+     * @param   target      the target string
+     * @return              the {@link MatchReport}
+     */
+    @Override
+    public MatchReport explain(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        long start = System.nanoTime();
+        List<MatchReport> children = new ArrayList<>();
+        long charsExamined = 0;
+        boolean matched = true;
+        for (StringMatcher matcher : matchers) {
+            MatchReport report = matcher.explain(target);
+            children.add(report);
+            charsExamined += report.getCharsExamined();
+            if (!report.isMatched()) {
+                matched = false;
+                break;
+            }
+        }
+        return new MatchReport(this, matched, charsExamined, System.nanoTime() - start, children);
+    }
+
+    /**
+     * Get the range of strings that can be matched: the intersection of the ranges of the matchers.
+     *
+     * @return      the {@link KeyRange}
+     */
+    @Override
+    public KeyRange keyRange() {
+        KeyRange result = KeyRange.ALL;
+        for (StringMatcher matcher : matchers)
+            result = result.intersect(matcher.keyRange());
+        return result;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(Footprint.REFERENCE) + Footprint.matchers(matchers);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof AllMatcher))
+            return false;
+        return Arrays.equals(matchers, ((AllMatcher)obj).matchers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(matchers) ^ 0x414C4C;
+    }
+
+}
@@ -25,12 +25,16 @@
 
 package io.jstuff.text;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public class AlternateMatcher implements StringMatcher {
 
     private final StringMatcher[] matchers;
+    private volatile Locator locator;
 
     public AlternateMatcher(StringMatcher[] matchers) {
         this.matchers = Objects.requireNonNull(matchers, "Matchers list must not be null");
@@ -38,6 +42,38 @@ public class AlternateMatcher implements StringMatcher {
             Objects.requireNonNull(matcher, "Matcher must not be null");
     }
 
+    public List<StringMatcher> getMatchers() {
+        return Collections.unmodifiableList(Arrays.asList(matchers));
+    }
+
+    /**
+     * Create an equivalent matcher with a more compact representation.  The {@link SimpleMatcher},
+     * {@link StartsWithMatcher}, {@link EndsWithMatcher} and {@link ContainsMatcher} alternatives are replaced by a
+     * {@link CompiledSetMatcher} for each type, which holds all the strings of that type in a single array with a table
+     * of offsets (one byte per character if all the strings are Latin-1, two otherwise), instead of a {@link String}
+     * and a matcher object for each.  Other alternatives (including nested {@code AlternateMatcher}s) are retained as
+     * they are, and a type with only one alternative is not converted.
+     *
+     * @return      the compact matcher (this matcher if no alternatives could be combined)
+     */
+    public StringMatcher compact() {
+        MatcherGroups groups = new MatcherGroups(matchers);
+        List<StringMatcher> result = new ArrayList<>(groups.getOthers());
+        boolean changed = false;
+        for (CompiledSetMatcher.Type type : CompiledSetMatcher.Type.values()) {
+            List<StringMatcher> group = groups.get(type);
+            if (group.size() == 1)
+                result.add(group.get(0));
+            else if (group.size() > 1) {
+                result.add(CompiledSetMatcher.of(type, groups.strings(type)));
+                changed = true;
+            }
+        }
+        if (!changed)
+            return this;
+        return result.size() == 1 ? result.get(0) : new AlternateMatcher(result.toArray(new StringMatcher[0]));
+    }
+
     @Override
     public boolean matches(CharSequence target) {
         Objects.requireNonNull(target, "Target must not be null");
@@ -47,6 +83,102 @@ public class AlternateMatcher implements StringMatcher {
         return false;
     }
 
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        for (StringMatcher matcher : matchers)
+            if (matcher.matches(target, start, end))
+                return true;
+        return false;
+    }
+
+    @Override
+    public MatchResult matches(CharSequence target, MatchBudget budget) {
+        Objects.requireNonNull(target, "Target must not be null");
+        Objects.requireNonNull(budget, "Budget must not be null");
+        for (StringMatcher matcher : matchers) {
+            MatchResult result = matcher.matches(target, budget);
+            if (result != MatchResult.NO_MATCH)
+                return result;
+        }
+        return MatchResult.NO_MATCH;
+    }
+
+    /**
+     * Evaluate the alternatives in turn, as {@link #matches(CharSequence)} does, stopping at the first match.  The
+     * report includes a report for each alternative evaluated.
+     *
+     * @param   target      the target string
+     * @return              the {@link MatchReport}
+     */
+    @Override
+    public MatchReport explain(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        long start = System.nanoTime();
+        List<MatchReport> children = new ArrayList<>();
+        long charsExamined = 0;
+        boolean matched = false;
+        for (StringMatcher matcher : matchers) {
+            MatchReport report = matcher.explain(target);
+            children.add(report);
+            charsExamined += report.getCharsExamined();
+            if (report.isMatched()) {
+                matched = true;
+                break;
+            }
+        }
+        return new MatchReport(this, matched, charsExamined, System.nanoTime() - start, children);
+    }
+
+    /**
+     * Find the start of the first span matched by any of the alternatives.  String-based alternatives
+     * ({@link SimpleMatcher}, {@link ContainsMatcher}, {@link StartsWithMatcher} and {@link EndsWithMatcher}) are
+     * located together, using a single multi-string automaton for each type, built when this function or
+     * {@link #matchEnd(CharSequence, int) matchEnd()} is first called; other alternatives are evaluated in turn.
+     *
+     * @param   target  the target string
+     * @param   from    the index from which to search
+     * @return          the start index of the span, or -1 if there is none
+     */
+    @Override
+    public int find(CharSequence target, int from) {
+        StringMatcher.checkRegion(target, from, target.length());
+        return locator().find(target, from);
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        return locator().matchEnd(target, start);
+    }
+
+    private Locator locator() {
+        Locator result = locator;
+        if (result == null)
+            locator = result = new Locator(matchers); // a race may build it twice, but the results are the same
+        return result;
+    }
+
+    /**
+     * Get the range of strings that can be matched: the smallest range including the ranges of all the alternatives.
+     *
+     * @return      the {@link KeyRange}
+     */
+    @Override
+    public KeyRange keyRange() {
+        KeyRange result = KeyRange.EMPTY;
+        for (StringMatcher matcher : matchers)
+            result = result.span(matcher.keyRange());
+        return result;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        Locator result = locator;
+        return Footprint.object(2 * Footprint.REFERENCE) + Footprint.matchers(matchers) +
+                (result != null ? result.estimatedRetainedBytes() : 0);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
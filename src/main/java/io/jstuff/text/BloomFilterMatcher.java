@@ -0,0 +1,295 @@
+/*
+ * @(#) BloomFilterMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link StringMatcher} that uses a Bloom filter to reject most non-matching targets quickly, before delegating to
+ * another {@link StringMatcher} for the full comparison.  The Bloom filter is populated from the strings of the
+ * delegate matcher, and the false positive rate (the proportion of non-matching targets that will be passed to the
+ * delegate) may be specified.
+ *
+ * <p>In {@link Mode#EXACT} mode, the filter holds the complete strings; in {@link Mode#CONTAINS} mode, it holds the
+ * first few characters of each string, and each position in the target is checked.  Strings shorter than
+ * {@link #minGramLength} characters would make the filter pass almost every target, so in {@link Mode#CONTAINS} mode
+ * they are not added to the filter; instead, a target containing any of them is passed to the delegate.</p>
+ *
+ * @author  Peter Wall
+ */
+public class BloomFilterMatcher implements StringMatcher {
+
+    /**
+     * The type of comparison performed by the delegate matcher.
+     */
+    public enum Mode {
+        /** the delegate matches targets equal to one of the strings */
+        EXACT,
+        /** the delegate matches targets containing one of the strings */
+        CONTAINS
+    }
+
+    public static final double defaultFalsePositiveRate = 0.01;
+    public static final int minGramLength = 3;
+    public static final int maxGramLength = 8;
+
+    private static final int seed1 = 0x6A09E667;
+    private static final int seed2 = 0xBB67AE85;
+
+    private final StringMatcher matcher;
+    private final Mode mode;
+    private final int gramLength;
+    private final ContainsAnyMatcher shortStrings;
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+    private final int entryCount;
+
+    /**
+     * Construct a {@code BloomFilterMatcher}.
+     *
+     * @param   matcher             the delegate matcher, which must match only targets that equal (or, in
+     *                              {@link Mode#CONTAINS} mode, contain) one of the strings
+     * @param   strings             the strings
+     * @param   mode                the {@link Mode}
+     * @param   falsePositiveRate   the required false positive rate (between 0 and 1, exclusive)
+     */
+    public BloomFilterMatcher(StringMatcher matcher, Collection<String> strings, Mode mode,
+            double falsePositiveRate) {
+        this.matcher = Objects.requireNonNull(matcher, "Matcher must not be null");
+        this.mode = Objects.requireNonNull(mode, "Mode must not be null");
+        Objects.requireNonNull(strings, "Strings must not be null");
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0))
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        List<String> filtered = new ArrayList<>(strings.size());
+        List<String> shortList = new ArrayList<>();
+        int minLength = Integer.MAX_VALUE;
+        for (String string : strings) {
+            Objects.requireNonNull(string, "String must not be null");
+            if (mode == Mode.CONTAINS && string.length() < minGramLength)
+                shortList.add(string);
+            else {
+                filtered.add(string);
+                minLength = Math.min(minLength, string.length());
+            }
+        }
+        gramLength = mode == Mode.CONTAINS ? Math.min(minLength, maxGramLength) : 0;
+        shortStrings = shortList.isEmpty() ? null : new ContainsAnyMatcher(shortList);
+        entryCount = filtered.size();
+        int n = Math.max(entryCount, 1);
+        double m = Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bitCount = (int)Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        hashCount = Math.max(1, (int)Math.round((double)bitCount / n * Math.log(2)));
+        bits = new long[(bitCount + 63) >>> 6];
+        for (String string : filtered) {
+            if (mode == Mode.EXACT)
+                add(string, 0, string.length());
+            else
+                add(string, 0, gramLength);
+        }
+    }
+
+    /**
+     * Construct a {@code BloomFilterMatcher} with the default false positive rate.
+     *
+     * @param   matcher             the delegate matcher
+     * @param   strings             the strings
+     * @param   mode                the {@link Mode}
+     */
+    public BloomFilterMatcher(StringMatcher matcher, Collection<String> strings, Mode mode) {
+        this(matcher, strings, mode, defaultFalsePositiveRate);
+    }
+
+    /**
+     * Get the delegate matcher.
+     *
+     * @return      the delegate matcher
+     */
+    public StringMatcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Get the {@link Mode}.
+     *
+     * @return      the {@link Mode}
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Get the number of bits in the filter.
+     *
+     * @return      the number of bits
+     */
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Get the number of hash probes made for each lookup.
+     *
+     * @return      the number of hash probes
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Get the memory used by the filter, in bytes.
+     *
+     * @return      the memory used by the filter
+     */
+    public long getMemoryBytes() {
+        return bits.length * 8L;
+    }
+
+    /**
+     * Get the expected false positive rate of the filter, calculated from the actual number of bits and hash probes.
+     *
+     * @return      the expected false positive rate
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1.0 - Math.exp(-(double)hashCount * entryCount / bitCount), hashCount);
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return mightMatch(target, start, end) && matcher.matches(target, start, end);
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        return matcher.find(target, from);
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        return matcher.matchEnd(target, start);
+    }
+
+    /**
+     * Test whether a region of the target might match, using the Bloom filter alone.  A result of {@code false} means
+     * that the target will certainly not match.
+     *
+     * @param   target  the target string
+     * @param   start   the start index of the region
+     * @param   end     the end index of the region (exclusive)
+     * @return          {@code true} if the target might match
+     */
+    public boolean mightMatch(CharSequence target, int start, int end) {
+        if (mode == Mode.EXACT)
+            return contains(target, start, end);
+        if (shortStrings != null && shortStrings.matches(target, start, end))
+            return true;
+        if (entryCount == 0)
+            return false;
+        for (int i = start, last = end - gramLength; i <= last; i++)
+            if (contains(target, i, i + gramLength))
+                return true;
+        return false;
+    }
+
+    private void add(CharSequence cs, int start, int end) {
+        int h1 = Hashing.hash(cs, start, end, seed1);
+        int h2 = Hashing.hash(cs, start, end, seed2) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean contains(CharSequence cs, int start, int end) {
+        int h1 = Hashing.hash(cs, start, end, seed1);
+        int h2 = Hashing.hash(cs, start, end, seed2) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(4 * Footprint.REFERENCE + 4 * 4) + matcher.estimatedRetainedBytes() +
+                Footprint.array(bits.length, 8) + (shortStrings != null ? shortStrings.estimatedRetainedBytes() : 0);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof BloomFilterMatcher))
+            return false;
+        BloomFilterMatcher other = (BloomFilterMatcher)obj;
+        return matcher.equals(other.matcher) && mode == other.mode && bitCount == other.bitCount &&
+                hashCount == other.hashCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return matcher.hashCode() ^ mode.hashCode() ^ bitCount;
+    }
+
+    /**
+     * Create a {@code BloomFilterMatcher} for a set of strings, each of which is to be compared for equality.  Targets
+     * passed by the filter are looked up in a {@link PerfectHashMatcher}, so the cost of a full comparison does not
+     * depend on the number of strings.
+     *
+     * @param   strings             the strings
+     * @param   falsePositiveRate   the required false positive rate
+     * @return                      the {@code BloomFilterMatcher}
+     */
+    public static BloomFilterMatcher exact(Collection<String> strings, double falsePositiveRate) {
+        return new BloomFilterMatcher(new PerfectHashMatcher(strings), strings, Mode.EXACT, falsePositiveRate);
+    }
+
+    /**
+     * Create a {@code BloomFilterMatcher} for a set of strings, any of which may be contained in the target.  Targets
+     * passed by the filter are searched using a {@link ContainsAnyMatcher}, which examines the target in a single pass
+     * regardless of the number of strings.
+     *
+     * @param   strings             the strings
+     * @param   falsePositiveRate   the required false positive rate
+     * @return                      the {@code BloomFilterMatcher}
+     */
+    public static BloomFilterMatcher contains(Collection<String> strings, double falsePositiveRate) {
+        return new BloomFilterMatcher(new ContainsAnyMatcher(strings), strings, Mode.CONTAINS, falsePositiveRate);
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * @(#) BudgetExceededException.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+/**
+ * Exception thrown by {@link MatchBudget#step()} when the budget has been exhausted, the deadline has passed or the
+ * match has been cancelled.  It is used to unwind the matching operation, and is normally caught and converted to
+ * {@link MatchResult#BUDGET_EXCEEDED}; to keep that cheap, no stack trace is recorded.
+ *
+ * @author  Peter Wall
+ */
+public class BudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = -4721589635078815373L;
+
+    public BudgetExceededException(String message) {
+        super(message, null, false, false);
+    }
+
+}
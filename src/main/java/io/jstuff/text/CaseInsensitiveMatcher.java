@@ -35,14 +35,37 @@ public class CaseInsensitiveMatcher implements StringMatcher {
         this.string = Objects.requireNonNull(string, "String must not be null");
     }
 
+    /**
+     * Get the comparison string.
+     *
+     * @return      the comparison string
+     */
+    public String getString() {
+        return string;
+    }
+
     @Override
     public boolean matches(CharSequence target) {
         Objects.requireNonNull(target, "Target must not be null");
-        int n = target.length();
-        if (n != string.length())
-            return false;
-        for (int i = 0; i < n; i++) {
-            char targetChar = target.charAt(i);
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return end - start == string.length() && compareAt(target, start);
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        int end = start + string.length();
+        return end <= target.length() && compareAt(target, start) ? end : -1;
+    }
+
+    private boolean compareAt(CharSequence target, int offset) {
+        for (int i = 0, n = string.length(); i < n; i++) {
+            char targetChar = target.charAt(offset + i);
             char stringChar = string.charAt(i);
             if (targetChar != stringChar &&
                     !(Character.isLowerCase(stringChar) && stringChar == Character.toLowerCase(targetChar) ||
@@ -52,6 +75,11 @@ public class CaseInsensitiveMatcher implements StringMatcher {
         return true;
     }
 
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(Footprint.REFERENCE) + Footprint.string(string);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
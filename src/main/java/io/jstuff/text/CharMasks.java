@@ -0,0 +1,123 @@
+/*
+ * @(#) CharMasks.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Arrays;
+
+/**
+ * A table of bit masks indexed by character, as used by the bit-parallel string algorithms (Shift-Or, Myers): bit
+ * {@code i} of the mask for a character is set if the pattern has that character at index {@code i}.  The masks are
+ * held in a small open-addressed hash table sized to the distinct characters of the pattern (a slot with a zero mask is
+ * empty, since every character of the pattern has a non-zero mask), so the table occupies space in proportion to the
+ * pattern, not to the character set.
+ *
+ * @author  Peter Wall
+ */
+final class CharMasks {
+
+    private static final int HASH_MULTIPLIER = 0x9E3779B1;
+
+    private final char[] chars;
+    private final long[] masks;
+    private final int shift;
+
+    /**
+     * Create the masks for a pattern of up to 64 characters.
+     *
+     * @param   pattern     the pattern
+     */
+    CharMasks(CharSequence pattern) {
+        this(pattern.chars().toArray());
+    }
+
+    /**
+     * Create the masks for a pattern of up to 64 characters, supplied as an array of {@code char} values; negative
+     * values (representing wildcards or other tokens that do not match a specific character) are skipped.
+     *
+     * @param   pattern     the pattern
+     */
+    CharMasks(int[] pattern) {
+        int n = pattern.length;
+        int[] sorted = pattern.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < n; i++)
+            if (sorted[i] >= 0 && (i == 0 || sorted[i] != sorted[i - 1]))
+                count++;
+        // table size is a power of two at least twice the number of distinct characters, to keep probes short
+        int bits = 1;
+        while ((1 << bits) < count * 2)
+            bits++;
+        chars = new char[1 << bits];
+        masks = new long[1 << bits];
+        shift = 32 - bits;
+        for (int i = 0; i < n; i++) {
+            int ch = pattern[i];
+            if (ch >= 0)
+                masks[slot((char)ch)] |= 1L << i;
+        }
+    }
+
+    /*
+     * Find the slot for a character: the slot holding it, or the empty slot where it would be added.
+     */
+    private int slot(char ch) {
+        int tableMask = masks.length - 1;
+        int i = (ch * HASH_MULTIPLIER) >>> shift;
+        while (masks[i] != 0 && chars[i] != ch)
+            i = (i + 1) & tableMask;
+        chars[i] = ch;
+        return i;
+    }
+
+    /**
+     * Get the mask for a character.
+     *
+     * @param   ch      the character
+     * @return          the mask (zero if the character does not occur in the pattern)
+     */
+    long get(char ch) {
+        int tableMask = masks.length - 1;
+        int i = (ch * HASH_MULTIPLIER) >>> shift;
+        while (true) {
+            long mask = masks[i];
+            if (mask == 0 || chars[i] == ch)
+                return mask;
+            i = (i + 1) & tableMask;
+        }
+    }
+
+    /**
+     * Get an estimate of the heap memory occupied by the masks (see {@link StringMatcher#estimatedRetainedBytes()}).
+     *
+     * @return      the estimated size, in bytes
+     */
+    long estimatedRetainedBytes() {
+        return Footprint.object(2 * Footprint.REFERENCE + 4) + Footprint.array(chars.length, 2) +
+                Footprint.array(masks.length, 8);
+    }
+
+}
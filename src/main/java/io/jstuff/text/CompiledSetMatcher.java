@@ -0,0 +1,493 @@
+/*
+ * @(#) CompiledSetMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * A {@link StringMatcher} for a large set of strings, compiled into a compact binary form.  The binary form may be
+ * written to a file once, and subsequently loaded by memory-mapping the file; no objects are created for the individual
+ * entries, so the cost of loading the matcher (in both time and heap space) does not depend on the size of the set.
+ *
+ * <p>The entries are held in sorted order (except for {@link Type#WILDCARD} sets, which are held in the order supplied),
+ * and the prefix, suffix and exact searches walk the sorted entries as if they were a trie.  If all the characters in
+ * the set are in the Latin-1 range, the entries are stored as one byte per character; otherwise they are stored as
+ * UTF-16.</p>
+ *
+ * <p>The binary form may also be created in a direct {@link ByteBuffer} (see {@link #ofDirect(Type, Collection)}), in
+ * which case the entries are held off the Java heap.</p>
+ *
+ * @author  Peter Wall
+ */
+public class CompiledSetMatcher implements StringMatcher {
+
+    /**
+     * The type of comparison to be applied to each entry in the set.
+     */
+    public enum Type {
+        /** the target must be equal to an entry */
+        EXACT,
+        /** the target must start with an entry */
+        PREFIX,
+        /** the target must end with an entry */
+        SUFFIX,
+        /** the target must contain an entry */
+        CONTAINS,
+        /** the target must match an entry as a wildcard pattern (using the default wildcard characters) */
+        WILDCARD
+    }
+
+    public static final int MAGIC = 0x534D4353; // "SMCS"
+    public static final int VERSION = 1;
+    public static final int ENCODING_UTF16 = 0;
+    public static final int ENCODING_LATIN1 = 1;
+
+    private static final int HEADER_SIZE = 20;
+    private static final int EXACT = 0;
+    private static final int SHORTEST = 1;
+    private static final int LONGEST = 2;
+
+    private final ByteBuffer buffer;
+    private final Type type;
+    private final int count;
+    private final IntBuffer offsets;
+    private final ByteBuffer latin1Data;
+    private final CharBuffer utf16Data;
+
+    /**
+     * Construct a {@code CompiledSetMatcher} from a {@link ByteBuffer} containing the binary form (from the current
+     * position of the buffer to its limit).  Only the header is read; the entries are accessed in place as required.
+     *
+     * @param   buffer      the {@link ByteBuffer}
+     * @throws  IllegalArgumentException    if the buffer does not contain a compiled set
+     */
+    public CompiledSetMatcher(ByteBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer, "Buffer must not be null").slice();
+        if (this.buffer.remaining() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("Buffer does not contain a compiled set");
+        if (this.buffer.getInt(4) != VERSION)
+            throw new IllegalArgumentException("Unsupported compiled set version: " + this.buffer.getInt(4));
+        int typeOrdinal = this.buffer.getInt(8);
+        if (typeOrdinal < 0 || typeOrdinal >= Type.values().length)
+            throw new IllegalArgumentException("Unknown compiled set type: " + typeOrdinal);
+        type = Type.values()[typeOrdinal];
+        int encoding = this.buffer.getInt(12);
+        if (encoding != ENCODING_UTF16 && encoding != ENCODING_LATIN1)
+            throw new IllegalArgumentException("Unknown compiled set encoding: " + encoding);
+        count = this.buffer.getInt(16);
+        if (count < 0)
+            throw new IllegalArgumentException("Invalid compiled set count: " + count);
+        long tableEnd = HEADER_SIZE + (count + 1L) * 4;
+        if (tableEnd > this.buffer.remaining())
+            throw new IllegalArgumentException("Compiled set is truncated");
+        int dataStart = (int)tableEnd;
+        offsets = slice(this.buffer, HEADER_SIZE, dataStart).asIntBuffer();
+        ByteBuffer data = slice(this.buffer, dataStart, this.buffer.remaining());
+        if (encoding == ENCODING_LATIN1) {
+            latin1Data = data;
+            utf16Data = null;
+        }
+        else {
+            latin1Data = null;
+            utf16Data = data.asCharBuffer();
+        }
+        if (offsets.get(count) > (latin1Data != null ? latin1Data.limit() : utf16Data.limit()))
+            throw new IllegalArgumentException("Compiled set is truncated");
+    }
+
+    /**
+     * Get the {@link Type} of the set.
+     *
+     * @return      the {@link Type}
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the number of entries in the set.
+     *
+     * @return      the number of entries
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Test whether the entries are stored as Latin-1 (one byte per character).
+     *
+     * @return      {@code true} if the entries are stored as Latin-1
+     */
+    public boolean isLatin1() {
+        return latin1Data != null;
+    }
+
+    /**
+     * Test whether the binary form is held outside the Java heap (in a direct or a memory-mapped buffer).
+     *
+     * @return      {@code true} if the binary form is held outside the Java heap
+     */
+    public boolean isOffHeap() {
+        return buffer.isDirect();
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        switch (type) {
+            case EXACT:
+                return walk(target, start, end, false, EXACT) >= 0;
+            case PREFIX:
+                return walk(target, start, end, false, SHORTEST) >= 0;
+            case SUFFIX:
+                return walk(target, start, end, true, SHORTEST) >= 0;
+            case CONTAINS:
+                for (int i = start; i <= end; i++)
+                    if (walk(target, i, end, false, SHORTEST) >= 0)
+                        return true;
+                return false;
+            default:
+                for (int i = 0; i < count; i++)
+                    if (wildcardMatches(i, target, start, end))
+                        return true;
+                return false;
+        }
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        if (type != Type.CONTAINS)
+            return StringMatcher.super.find(target, from);
+        StringMatcher.checkRegion(target, from, target.length());
+        for (int i = from, n = target.length(); i <= n; i++)
+            if (walk(target, i, n, false, SHORTEST) >= 0)
+                return i;
+        return -1;
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        int n = target.length();
+        switch (type) {
+            case EXACT:
+            case CONTAINS:
+                int length = walk(target, start, n, false, LONGEST);
+                return length < 0 ? -1 : start + length;
+            case PREFIX:
+                return walk(target, start, n, false, SHORTEST) >= 0 ? n : -1;
+            case SUFFIX:
+                return walk(target, start, n, true, SHORTEST) >= 0 ? n : -1; // as EndsWithMatcher
+            default:
+                return StringMatcher.super.matchEnd(target, start);
+        }
+    }
+
+    /*
+     * Walk the sorted entries as if they were a trie, narrowing the range of candidate entries by one character of the
+     * target at a time (working backwards from the end of the target if reverse is set, for use with the reversed
+     * entries of a suffix set).  The result is the length of the shortest or the longest entry that is a prefix of the
+     * target, or (in the case of EXACT) of the entry equal to the target, or -1 if there is none.
+     */
+    private int walk(CharSequence target, int start, int end, boolean reverse, int mode) {
+        int n = end - start;
+        int lo = 0;
+        int hi = count;
+        int result = -1;
+        for (int k = 0; lo < hi; k++) {
+            if (entryLength(lo) == k) {
+                if (mode == LONGEST)
+                    result = k;
+                else if (mode == SHORTEST || k == n)
+                    return k;
+                lo++;
+            }
+            if (k == n)
+                break;
+            int ch = reverse ? target.charAt(end - 1 - k) : target.charAt(start + k);
+            lo = firstAtLeast(lo, hi, k, ch);
+            hi = firstAtLeast(lo, hi, k, ch + 1);
+        }
+        return result;
+    }
+
+    /*
+     * Binary search for the first entry in the range for which the character at the given depth is not less than the
+     * key.  All the entries in the range are longer than the depth.
+     */
+    private int firstAtLeast(int lo, int hi, int depth, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dataChar(offsets.get(mid) + depth) < key)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private char dataChar(int index) {
+        return latin1Data != null ? (char)(latin1Data.get(index) & 0xFF) : utf16Data.get(index);
+    }
+
+    private int entryLength(int entry) {
+        return offsets.get(entry + 1) - offsets.get(entry);
+    }
+
+    private boolean wildcardMatches(int entry, CharSequence target, int start, int end) {
+        int p = offsets.get(entry);
+        int patternEnd = offsets.get(entry + 1);
+        int t = start;
+        int starPattern = -1;
+        int starTarget = -1;
+        while (t < end) {
+            if (p < patternEnd) {
+                char patternChar = dataChar(p);
+                if (patternChar == WildcardMatcher.defaultMultiMatchChar) {
+                    starPattern = ++p;
+                    starTarget = t;
+                    continue;
+                }
+                char targetChar = target.charAt(t);
+                if (patternChar == WildcardMatcher.defaultSingleMatchChar) {
+                    p++;
+                    t++;
+                    if (Character.isHighSurrogate(targetChar) && t < end && Character.isLowSurrogate(target.charAt(t)))
+                        t++;
+                    continue;
+                }
+                if (patternChar == targetChar) {
+                    p++;
+                    t++;
+                    continue;
+                }
+            }
+            if (starPattern < 0)
+                return false;
+            p = starPattern;
+            t = ++starTarget;
+        }
+        while (p < patternEnd && dataChar(p) == WildcardMatcher.defaultMultiMatchChar)
+            p++;
+        return p == patternEnd;
+    }
+
+    /**
+     * Get an estimate of the heap memory retained by the matcher: the buffer objects and, if the binary form is held
+     * in the Java heap, the array containing it.
+     *
+     * @return      the estimated retained size, in bytes
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        long result = Footprint.object(5 * Footprint.REFERENCE + 2 * 4) + 3 * Footprint.BUFFER;
+        if (buffer.isDirect())
+            return result;
+        return result + Footprint.array(buffer.hasArray() ? buffer.array().length : buffer.capacity(), 1);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof CompiledSetMatcher))
+            return false;
+        return buffer.equals(((CompiledSetMatcher)obj).buffer);
+    }
+
+    @Override
+    public int hashCode() {
+        return buffer.hashCode();
+    }
+
+    /**
+     * Create a {@code CompiledSetMatcher} from a {@link Collection} of strings, held in a heap buffer.
+     *
+     * @param   type        the {@link Type} of comparison
+     * @param   strings     the strings
+     * @return              the {@code CompiledSetMatcher}
+     */
+    public static CompiledSetMatcher of(Type type, Collection<String> strings) {
+        return build(type, strings, false);
+    }
+
+    /**
+     * Create a {@code CompiledSetMatcher} from a {@link Collection} of strings, held in a direct buffer outside the
+     * Java heap.
+     *
+     * @param   type        the {@link Type} of comparison
+     * @param   strings     the strings
+     * @return              the {@code CompiledSetMatcher}
+     */
+    public static CompiledSetMatcher ofDirect(Type type, Collection<String> strings) {
+        return build(type, strings, true);
+    }
+
+    private static CompiledSetMatcher build(Type type, Collection<String> strings, boolean direct) {
+        List<String> entries = prepare(type, strings);
+        boolean latin1 = isLatin1(entries);
+        int length = binaryLength(entries, latin1);
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+        writeHeader(buffer, type, entries, latin1);
+        for (String entry : entries) {
+            for (int i = 0, n = entry.length(); i < n; i++) {
+                if (latin1)
+                    buffer.put((byte)entry.charAt(i));
+                else
+                    buffer.putChar(entry.charAt(i));
+            }
+        }
+        buffer.flip();
+        return new CompiledSetMatcher(buffer);
+    }
+
+    /**
+     * Load a {@code CompiledSetMatcher} by memory-mapping a file previously created by
+     * {@link #write(Type, Collection, Path)}.
+     *
+     * @param   path        the {@link Path} of the file
+     * @return              the {@code CompiledSetMatcher}
+     * @throws  IOException on any errors opening or mapping the file
+     */
+    public static CompiledSetMatcher load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CompiledSetMatcher(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write the binary form of a set of strings to a file.
+     *
+     * @param   type        the {@link Type} of comparison
+     * @param   strings     the strings
+     * @param   path        the {@link Path} of the file
+     * @throws  IOException on any errors writing the file
+     */
+    public static void write(Type type, Collection<String> strings, Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(type, strings, out);
+        }
+    }
+
+    /**
+     * Write the binary form of a set of strings to an {@link OutputStream}.
+     *
+     * @param   type        the {@link Type} of comparison
+     * @param   strings     the strings
+     * @param   out         the {@link OutputStream}
+     * @throws  IOException on any errors writing the data
+     */
+    public static void write(Type type, Collection<String> strings, OutputStream out) throws IOException {
+        List<String> entries = prepare(type, strings);
+        boolean latin1 = isLatin1(entries);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + (entries.size() + 1) * 4);
+        writeHeader(header, type, entries, latin1);
+        DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out));
+        dataOut.write(header.array());
+        for (String entry : entries) {
+            if (latin1)
+                dataOut.writeBytes(entry);
+            else
+                dataOut.writeChars(entry);
+        }
+        dataOut.flush();
+    }
+
+    private static List<String> prepare(Type type, Collection<String> strings) {
+        Objects.requireNonNull(type, "Type must not be null");
+        Collection<String> set = type == Type.WILDCARD ? new LinkedHashSet<>() : new TreeSet<>();
+        for (String string : Objects.requireNonNull(strings, "Strings must not be null")) {
+            Objects.requireNonNull(string, "String must not be null");
+            set.add(type == Type.SUFFIX ? new StringBuilder(string).reverse().toString() : string);
+        }
+        List<String> entries = new ArrayList<>(set);
+        if (type == Type.SUFFIX)
+            Collections.sort(entries);
+        return entries;
+    }
+
+    private static boolean isLatin1(List<String> entries) {
+        for (String entry : entries)
+            for (int i = 0, n = entry.length(); i < n; i++)
+                if (entry.charAt(i) > 0xFF)
+                    return false;
+        return true;
+    }
+
+    private static int binaryLength(List<String> entries, boolean latin1) {
+        long length = HEADER_SIZE + (entries.size() + 1) * 4L;
+        for (String entry : entries)
+            length += latin1 ? entry.length() : entry.length() * 2L;
+        if (length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Compiled set too large");
+        return (int)length;
+    }
+
+    private static void writeHeader(ByteBuffer buffer, Type type, List<String> entries, boolean latin1) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(type.ordinal());
+        buffer.putInt(latin1 ? ENCODING_LATIN1 : ENCODING_UTF16);
+        buffer.putInt(entries.size());
+        int offset = 0;
+        buffer.putInt(offset);
+        for (String entry : entries) {
+            offset += entry.length();
+            buffer.putInt(offset);
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int end) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.limit(end);
+        duplicate.position(start);
+        return duplicate.slice();
+    }
+
+}
@@ -0,0 +1,357 @@
+/*
+ * @(#) ConcurrentMatcherSet.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A mutable set of {@link StringMatcher}s, which matches a target if any of the members match.  Members may be added
+ * and removed while other threads are calling {@link #matches(CharSequence)}; readers take no locks, and always see a
+ * consistent snapshot of the set.
+ *
+ * <p>The set is held in persistent hash tries (hash array mapped tries, in which each level is indexed by five bits of
+ * the hash code), and an update copies only the nodes on the path to the member affected &ndash; at most seven, however
+ * large the set &ndash; before publishing the new snapshot.  {@link SimpleMatcher} members are placed in a trie keyed
+ * by the hash code of their string, so that an exact match need only follow a single path.</p>
+ *
+ * @author  Peter Wall
+ */
+public class ConcurrentMatcherSet implements StringMatcher {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Node EMPTY = new Node(0, new Object[0]);
+
+    private final Object updateLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(EMPTY, EMPTY, 0);
+
+    /**
+     * Add a {@link StringMatcher} to the set.
+     *
+     * @param   matcher     the {@link StringMatcher}
+     * @return              {@code true} if the set did not already contain the matcher
+     */
+    public boolean add(StringMatcher matcher) {
+        Objects.requireNonNull(matcher, "Matcher must not be null");
+        synchronized (updateLock) {
+            Snapshot current = snapshot;
+            boolean exact = matcher instanceof SimpleMatcher;
+            Node root = exact ? current.exactRoot : current.otherRoot;
+            Node newRoot = root.add(hash(matcher), 0, matcher);
+            if (newRoot == root)
+                return false;
+            publish(current, exact, newRoot, current.size + 1);
+            return true;
+        }
+    }
+
+    /**
+     * Remove a {@link StringMatcher} from the set.
+     *
+     * @param   matcher     the {@link StringMatcher}
+     * @return              {@code true} if the set contained the matcher
+     */
+    public boolean remove(StringMatcher matcher) {
+        Objects.requireNonNull(matcher, "Matcher must not be null");
+        synchronized (updateLock) {
+            Snapshot current = snapshot;
+            boolean exact = matcher instanceof SimpleMatcher;
+            Node root = exact ? current.exactRoot : current.otherRoot;
+            Node newRoot = root.remove(hash(matcher), 0, matcher);
+            if (newRoot == root)
+                return false;
+            publish(current, exact, newRoot, current.size - 1);
+            return true;
+        }
+    }
+
+    /**
+     * Test whether the set contains a given {@link StringMatcher}.
+     *
+     * @param   matcher     the {@link StringMatcher}
+     * @return              {@code true} if the set contains the matcher
+     */
+    public boolean contains(StringMatcher matcher) {
+        Objects.requireNonNull(matcher, "Matcher must not be null");
+        Snapshot current = snapshot;
+        Leaf leaf = (matcher instanceof SimpleMatcher ? current.exactRoot : current.otherRoot).find(hash(matcher));
+        return leaf != null && leaf.indexOf(matcher) >= 0;
+    }
+
+    /**
+     * Get the number of members of the set.
+     *
+     * @return      the number of members
+     */
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * Get an immutable snapshot of the set, which will not be affected by subsequent updates.
+     *
+     * @return      a {@link StringMatcher} for the current members of the set
+     */
+    public StringMatcher snapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return snapshot.matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        return snapshot.matches(target, start, end);
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(2 * Footprint.REFERENCE) + Footprint.object(0) + snapshot.estimatedRetainedBytes();
+    }
+
+    private void publish(Snapshot current, boolean exact, Node newRoot, int size) {
+        snapshot = exact ? new Snapshot(newRoot, current.otherRoot, size) :
+                new Snapshot(current.exactRoot, newRoot, size);
+    }
+
+    private static int hash(StringMatcher matcher) {
+        return matcher instanceof SimpleMatcher ? ((SimpleMatcher)matcher).getString().hashCode() : matcher.hashCode();
+    }
+
+    private static class Snapshot implements StringMatcher {
+
+        private final Node exactRoot;
+        private final Node otherRoot;
+        private final int size;
+
+        private Snapshot(Node exactRoot, Node otherRoot, int size) {
+            this.exactRoot = exactRoot;
+            this.otherRoot = otherRoot;
+            this.size = size;
+        }
+
+        @Override
+        public boolean matches(CharSequence target) {
+            Objects.requireNonNull(target, "Target must not be null");
+            return matches(target, 0, target.length());
+        }
+
+        @Override
+        public boolean matches(CharSequence target, int start, int end) {
+            StringMatcher.checkRegion(target, start, end);
+            int h = 0; // same as String.hashCode()
+            for (int i = start; i < end; i++)
+                h = 31 * h + target.charAt(i);
+            Leaf leaf = exactRoot.find(h);
+            if (leaf != null)
+                for (StringMatcher matcher : leaf.matchers)
+                    if (matcher.matches(target, start, end))
+                        return true;
+            return otherRoot.anyMatches(target, start, end);
+        }
+
+        @Override
+        public long estimatedRetainedBytes() {
+            return Footprint.object(2 * Footprint.REFERENCE + 4) + exactRoot.estimatedRetainedBytes() +
+                    otherRoot.estimatedRetainedBytes();
+        }
+
+    }
+
+    /**
+     * A node of a hash trie: the bitmap shows which of the 32 possible children (indexed by the next five bits of the
+     * hash code) are present, and the children array holds them in order, each being either a {@code Node} or a
+     * {@link Leaf}.  Nodes are never modified once published; an update returns a new node (or the same node, if
+     * nothing changed).
+     */
+    private static final class Node {
+
+        private final int bitmap;
+        private final Object[] children;
+
+        private Node(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private Node add(int hash, int shift, StringMatcher matcher) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] newChildren = new Object[children.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newChildren[index] = new Leaf(hash, new StringMatcher[] { matcher });
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                return new Node(bitmap | bit, newChildren);
+            }
+            Object child = children[index];
+            Object newChild;
+            if (child instanceof Node) {
+                newChild = ((Node)child).add(hash, shift + BITS, matcher);
+                if (newChild == child)
+                    return this;
+            }
+            else {
+                Leaf leaf = (Leaf)child;
+                if (leaf.hash == hash) {
+                    if (leaf.indexOf(matcher) >= 0)
+                        return this;
+                    StringMatcher[] matchers = Arrays.copyOf(leaf.matchers, leaf.matchers.length + 1);
+                    matchers[leaf.matchers.length] = matcher;
+                    newChild = new Leaf(hash, matchers);
+                }
+                else
+                    newChild = split(leaf, new Leaf(hash, new StringMatcher[] { matcher }), shift + BITS);
+            }
+            return replace(index, newChild);
+        }
+
+        private Node remove(int hash, int shift, StringMatcher matcher) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0)
+                return this;
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object child = children[index];
+            Object newChild;
+            if (child instanceof Node) {
+                Node node = ((Node)child).remove(hash, shift + BITS, matcher);
+                if (node == child)
+                    return this;
+                // a node left with a single leaf is replaced by the leaf (which holds its full hash code)
+                newChild = node.bitmap == 0 ? null : node.children.length == 1 && node.children[0] instanceof Leaf ?
+                        node.children[0] : node;
+            }
+            else {
+                Leaf leaf = (Leaf)child;
+                int i = leaf.hash == hash ? leaf.indexOf(matcher) : -1;
+                if (i < 0)
+                    return this;
+                int n = leaf.matchers.length - 1;
+                if (n == 0)
+                    newChild = null;
+                else {
+                    StringMatcher[] matchers = new StringMatcher[n];
+                    System.arraycopy(leaf.matchers, 0, matchers, 0, i);
+                    System.arraycopy(leaf.matchers, i + 1, matchers, i, n - i);
+                    newChild = new Leaf(hash, matchers);
+                }
+            }
+            if (newChild != null)
+                return replace(index, newChild);
+            Object[] newChildren = new Object[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+            return new Node(bitmap & ~bit, newChildren);
+        }
+
+        private Node replace(int index, Object child) {
+            Object[] newChildren = children.clone();
+            newChildren[index] = child;
+            return new Node(bitmap, newChildren);
+        }
+
+        /**
+         * Create a node holding two leaves with different hash codes (the hash codes must differ within the bits
+         * examined at or after the given shift, which they will, since they are equal in all the earlier bits).
+         */
+        private static Node split(Leaf leaf1, Leaf leaf2, int shift) {
+            int index1 = (leaf1.hash >>> shift) & MASK;
+            int index2 = (leaf2.hash >>> shift) & MASK;
+            if (index1 == index2)
+                return new Node(1 << index1, new Object[] { split(leaf1, leaf2, shift + BITS) });
+            return new Node((1 << index1) | (1 << index2),
+                    index1 < index2 ? new Object[] { leaf1, leaf2 } : new Object[] { leaf2, leaf1 });
+        }
+
+        private Leaf find(int hash) {
+            Node node = this;
+            for (int shift = 0; ; shift += BITS) {
+                int bit = 1 << ((hash >>> shift) & MASK);
+                if ((node.bitmap & bit) == 0)
+                    return null;
+                Object child = node.children[Integer.bitCount(node.bitmap & (bit - 1))];
+                if (child instanceof Leaf)
+                    return ((Leaf)child).hash == hash ? (Leaf)child : null;
+                node = (Node)child;
+            }
+        }
+
+        private boolean anyMatches(CharSequence target, int start, int end) {
+            for (Object child : children) {
+                if (child instanceof Node) {
+                    if (((Node)child).anyMatches(target, start, end))
+                        return true;
+                }
+                else {
+                    for (StringMatcher matcher : ((Leaf)child).matchers)
+                        if (matcher.matches(target, start, end))
+                            return true;
+                }
+            }
+            return false;
+        }
+
+        private long estimatedRetainedBytes() {
+            long result = Footprint.object(Footprint.REFERENCE + 4) + Footprint.array(children.length,
+                    Footprint.REFERENCE);
+            for (Object child : children) {
+                if (child instanceof Node)
+                    result += ((Node)child).estimatedRetainedBytes();
+                else
+                    result += Footprint.object(Footprint.REFERENCE + 4) + Footprint.matchers(((Leaf)child).matchers);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * A leaf of a hash trie: the members with a given hash code.
+     */
+    private static final class Leaf {
+
+        private final int hash;
+        private final StringMatcher[] matchers;
+
+        private Leaf(int hash, StringMatcher[] matchers) {
+            this.hash = hash;
+            this.matchers = matchers;
+        }
+
+        private int indexOf(StringMatcher matcher) {
+            for (int i = 0, n = matchers.length; i < n; i++)
+                if (matchers[i].equals(matcher))
+                    return i;
+            return -1;
+        }
+
+    }
+
+}
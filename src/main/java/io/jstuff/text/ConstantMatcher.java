@@ -0,0 +1,98 @@
+/*
+ * @(#) ConstantMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Objects;
+
+/**
+ * A {@link StringMatcher} that always returns the same result, regardless of the target.  The constants result from
+ * the simplification performed by {@link StringMatcher#and(StringMatcher...) and()},
+ * {@link StringMatcher#or(StringMatcher...) or()} and {@link StringMatcher#not(StringMatcher) not()}, and may also
+ * be used directly.
+ *
+ * @author  Peter Wall
+ */
+public enum ConstantMatcher implements StringMatcher {
+
+    /** Matches every target. */
+    TRUE,
+    /** Matches no target. */
+    FALSE;
+
+    public boolean getValue() {
+        return this == TRUE;
+    }
+
+    /**
+     * Get the {@code ConstantMatcher} for a given value.
+     *
+     * @param   value   the value
+     * @return          {@link #TRUE} or {@link #FALSE}
+     */
+    public static ConstantMatcher of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return getValue();
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return getValue();
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        StringMatcher.checkRegion(target, from, target.length());
+        return getValue() ? from : -1;
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        return getValue() ? target.length() : -1;
+    }
+
+    @Override
+    public KeyRange keyRange() {
+        return getValue() ? KeyRange.ALL : KeyRange.EMPTY;
+    }
+
+    /**
+     * Get the estimated retained size of the matcher: zero, since the constants are shared.
+     *
+     * @return      zero
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        return 0;
+    }
+
+}
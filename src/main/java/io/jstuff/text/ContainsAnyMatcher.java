@@ -0,0 +1,314 @@
+/*
+ * @(#) ContainsAnyMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * A {@link StringMatcher} to test whether the target contains any of a set of strings.  The strings are compiled into
+ * an Aho-Corasick automaton, so that the target is examined in a single pass, regardless of the number of strings.
+ *
+ * @author  Peter Wall
+ */
+public class ContainsAnyMatcher implements StringMatcher {
+
+    private static final int ROOT = 0;
+    private static final char[] NO_KEYS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final List<String> strings;
+    private final int maxLength;
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    private final int[] outputLength;
+    private final int[] terminalIndex;
+    private final int[] outputLink;
+
+    /**
+     * Construct a {@code ContainsAnyMatcher} for the specified strings.
+     *
+     * @param   strings     the strings (duplicates are ignored)
+     */
+    public ContainsAnyMatcher(Collection<String> strings) {
+        Objects.requireNonNull(strings, "Strings must not be null");
+        Set<String> set = new LinkedHashSet<>();
+        for (String string : strings)
+            set.add(Objects.requireNonNull(string, "String must not be null"));
+        this.strings = Collections.unmodifiableList(new ArrayList<>(set));
+        // build the trie
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        children.add(new TreeMap<>());
+        depths.add(0);
+        List<Integer> terminals = new ArrayList<>(); // the state for each string, in order
+        int longest = 0;
+        for (String string : set) {
+            int state = ROOT;
+            for (int i = 0, n = string.length(); i < n; i++) {
+                Integer next = children.get(state).get(string.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(string.charAt(i), next);
+                    children.add(new TreeMap<>());
+                    depths.add(i + 1);
+                }
+                state = next;
+            }
+            terminals.add(state);
+            longest = Math.max(longest, string.length());
+        }
+        maxLength = longest;
+        int n = children.size();
+        keys = new char[n][];
+        targets = new int[n][];
+        for (int i = 0; i < n; i++) {
+            TreeMap<Character, Integer> map = children.get(i);
+            keys[i] = map.isEmpty() ? NO_KEYS : new char[map.size()];
+            targets[i] = map.isEmpty() ? NO_TARGETS : new int[map.size()];
+            int j = 0;
+            for (Map.Entry<Character, Integer> entry : map.entrySet()) {
+                keys[i][j] = entry.getKey();
+                targets[i][j++] = entry.getValue();
+            }
+        }
+        terminalIndex = new int[n];
+        Arrays.fill(terminalIndex, -1);
+        outputLength = new int[n];
+        for (int i = 0, m = terminals.size(); i < m; i++) {
+            int state = terminals.get(i);
+            terminalIndex[state] = i;
+            outputLength[state] = depths.get(state);
+        }
+        // compute the failure links, breadth first, so that the link for each state is known before its children
+        fail = new int[n];
+        outputLink = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int child : targets[ROOT])
+            queue[tail++] = child;
+        while (head < tail) {
+            int state = queue[head++];
+            outputLength[state] = Math.max(outputLength[state], outputLength[fail[state]]);
+            for (int i = 0; i < keys[state].length; i++) {
+                int child = targets[state][i];
+                fail[child] = state == ROOT ? ROOT : next(fail[state], keys[state][i]);
+                outputLink[child] = terminalIndex[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * Get the strings (without duplicates).
+     *
+     * @return      the strings
+     */
+    public List<String> getStrings() {
+        return strings;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        if (terminalIndex[ROOT] >= 0)
+            return true;
+        int state = ROOT;
+        for (int i = start; i < end; i++) {
+            state = next(state, target.charAt(i));
+            if (outputLength[state] > 0)
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        StringMatcher.checkRegion(target, from, target.length());
+        if (terminalIndex[ROOT] >= 0)
+            return from;
+        int best = -1;
+        int state = ROOT;
+        for (int i = from, n = target.length(); i < n; i++) {
+            state = next(state, target.charAt(i));
+            int length = outputLength[state];
+            if (length > 0) {
+                int start = i + 1 - length;
+                if (best < 0 || start < best)
+                    best = start;
+            }
+            if (best >= 0 && i + 1 - best >= maxLength)
+                break; // any later match must start after the best found so far
+        }
+        return best;
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        int index = longestMatch(target, start, target.length());
+        return index < 0 ? -1 : start + strings.get(index).length();
+    }
+
+    /**
+     * Find the longest of the strings occurring at the specified position, returning its index in the list of strings,
+     * or -1 if none of the strings occurs at that position.
+     */
+    int longestMatch(CharSequence target, int start, int end) {
+        int result = terminalIndex[ROOT];
+        int state = ROOT;
+        for (int i = start; i < end; i++) {
+            state = child(state, target.charAt(i));
+            if (state < 0)
+                break;
+            if (terminalIndex[state] >= 0)
+                result = terminalIndex[state];
+        }
+        return result;
+    }
+
+    /**
+     * Report every occurrence of any of the (non-empty) strings within a region of the target, passing the index of the
+     * string in the list of strings to the consumer as the end of each occurrence is reached.  The scan stops if the
+     * consumer returns {@code false}.
+     */
+    void forEachOccurrence(CharSequence target, int start, int end, IntPredicate consumer) {
+        int state = ROOT;
+        for (int i = start; i < end; i++) {
+            state = next(state, target.charAt(i));
+            if (outputLength[state] > 0) {
+                // follow the output links to report all strings ending here, not only the longest
+                for (int s = terminalIndex[state] >= 0 ? state : outputLink[state]; s != ROOT; s = outputLink[s])
+                    if (!consumer.test(terminalIndex[s]))
+                        return;
+            }
+        }
+    }
+
+    /**
+     * Create a {@link StreamingMatcher} to test whether text supplied in a number of chunks contains any of the
+     * strings.  Only the current state of the automaton is held between chunks.
+     *
+     * @return      the {@link StreamingMatcher}
+     */
+    public StreamingMatcher streaming() {
+        return new Stream();
+    }
+
+    private int next(int state, char ch) {
+        while (true) {
+            int next = child(state, ch);
+            if (next >= 0)
+                return next;
+            if (state == ROOT)
+                return ROOT;
+            state = fail[state];
+        }
+    }
+
+    private int child(int state, char ch) {
+        char[] stateKeys = keys[state];
+        int i = Arrays.binarySearch(stateKeys, ch);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        int n = fail.length;
+        long result = Footprint.object(7 * Footprint.REFERENCE + 4) + Footprint.object(2 * Footprint.REFERENCE) +
+                Footprint.object(Footprint.REFERENCE + 2 * 4) + Footprint.array(strings.size(), Footprint.REFERENCE) +
+                2 * Footprint.array(n, Footprint.REFERENCE) + 4 * Footprint.array(n, 4);
+        for (String string : strings)
+            result += Footprint.string(string);
+        for (int i = 0; i < n; i++)
+            if (keys[i] != NO_KEYS)
+                result += Footprint.array(keys[i].length, 2) + Footprint.array(targets[i].length, 4);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ContainsAnyMatcher))
+            return false;
+        return new LinkedHashSet<>(strings).equals(new LinkedHashSet<>(((ContainsAnyMatcher)obj).strings));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (String string : strings)
+            result += string.hashCode();
+        return result;
+    }
+
+    private final class Stream implements StreamingMatcher {
+
+        private int state = ROOT;
+        private boolean matched = terminalIndex[ROOT] >= 0;
+
+        @Override
+        public boolean feed(CharSequence chunk) {
+            Objects.requireNonNull(chunk, "Chunk must not be null");
+            for (int i = 0, n = chunk.length(); i < n && !matched; i++) {
+                state = next(state, chunk.charAt(i));
+                matched = outputLength[state] > 0;
+            }
+            return matched;
+        }
+
+        @Override
+        public boolean isMatched() {
+            return matched;
+        }
+
+        @Override
+        public void reset() {
+            state = ROOT;
+            matched = terminalIndex[ROOT] >= 0;
+        }
+
+    }
+
+}
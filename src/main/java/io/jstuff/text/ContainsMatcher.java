@@ -25,35 +25,105 @@
 
 package io.jstuff.text;
 
+import java.util.Collections;
 import java.util.Objects;
 
 public class ContainsMatcher implements StringMatcher {
 
+    private static final int MAX_BIT_PARALLEL = 64;
+
     private final String string;
+    private final CharMasks masks;
 
     public ContainsMatcher(String string) {
         this.string = Objects.requireNonNull(string, "String must not be null");
+        int length = string.length();
+        masks = length > 1 && length <= MAX_BIT_PARALLEL ? new CharMasks(string) : null;
+    }
+
+    /**
+     * Get the comparison string.
+     *
+     * @return      the comparison string
+     */
+    public String getString() {
+        return string;
     }
 
     @Override
     public boolean matches(CharSequence target) {
-        int count = string.length() - 1;
-        if (count < 0)
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        if (string.isEmpty())
             return true; // degenerate case; empty string
-        int lastIndex = target.length() - string.length();
-        if (lastIndex < 0)
-            return false;
-        int i = 0;
+        return indexOf(target, start, end - string.length()) >= 0;
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        StringMatcher.checkRegion(target, from, target.length());
+        if (string.isEmpty())
+            return from;
+        return indexOf(target, from, target.length() - string.length());
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        int end = start + string.length();
+        return end <= target.length() && StringMatcher.compareCS(target, start, string, 0, string.length()) ? end : -1;
+    }
+
+    /**
+     * Create a {@link StreamingMatcher} to test whether text supplied in a number of chunks contains the comparison
+     * string, including occurrences that straddle the boundary between chunks.  For strings of 2 to 64 characters the
+     * state held between chunks is a single bit-parallel state word; for other strings it is the state of a
+     * {@link ContainsAnyMatcher} automaton.
+     *
+     * @return      the {@link StreamingMatcher}
+     */
+    public StreamingMatcher streaming() {
+        if (masks == null)
+            return new ContainsAnyMatcher(Collections.singletonList(string)).streaming();
+        return new BitParallelStream();
+    }
+
+    private int indexOf(CharSequence target, int fromIndex, int lastIndex) {
+        if (masks != null)
+            return bitParallelIndexOf(target, fromIndex, lastIndex);
+        int count = string.length() - 1;
+        int i = fromIndex;
         char firstChar = string.charAt(0);
         while (i <= lastIndex) {
             int j = indexOf(target, firstChar, i, lastIndex);
             if (j < 0)
-                return false;
+                return -1;
             i = j + 1;
             if (StringMatcher.compareCS(target, i, string, 1, count))
-                return true;
+                return j;
         }
-        return false;
+        return -1;
+    }
+
+    /*
+     * Bit-parallel (Shift-And, or "bitap") search: bit i of the state is set if the last i + 1 characters examined
+     * match the first i + 1 characters of the string, so each character of the target costs a shift, an OR and an AND.
+     */
+    private int bitParallelIndexOf(CharSequence target, int fromIndex, int lastIndex) {
+        int length = string.length();
+        long found = 1L << (length - 1);
+        long state = 0;
+        for (int i = fromIndex, end = lastIndex + length; i < end; i++) {
+            state = ((state << 1) | 1) & masks.get(target.charAt(i));
+            if ((state & found) != 0)
+                return i - length + 1;
+        }
+        return -1;
     }
 
     private static int indexOf(CharSequence cs, char ch, int fromIndex, int lastIndex) {
@@ -63,6 +133,41 @@ public class ContainsMatcher implements StringMatcher {
         return -1;
     }
 
+    private final class BitParallelStream implements StreamingMatcher {
+
+        private final long found = 1L << (string.length() - 1);
+        private long state;
+        private boolean matched;
+
+        @Override
+        public boolean feed(CharSequence chunk) {
+            Objects.requireNonNull(chunk, "Chunk must not be null");
+            for (int i = 0, n = chunk.length(); i < n && !matched; i++) {
+                state = ((state << 1) | 1) & masks.get(chunk.charAt(i));
+                matched = (state & found) != 0;
+            }
+            return matched;
+        }
+
+        @Override
+        public boolean isMatched() {
+            return matched;
+        }
+
+        @Override
+        public void reset() {
+            state = 0;
+            matched = false;
+        }
+
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(2 * Footprint.REFERENCE) + Footprint.string(string) +
+                (masks != null ? masks.estimatedRetainedBytes() : 0);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
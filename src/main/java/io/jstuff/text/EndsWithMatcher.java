@@ -35,13 +35,39 @@ public class EndsWithMatcher implements StringMatcher {
         this.string = Objects.requireNonNull(string, "String must not be null");
     }
 
+    /**
+     * Get the comparison string.
+     *
+     * @return      the comparison string
+     */
+    public String getString() {
+        return string;
+    }
+
     @Override
     public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
         int stringLength = string.length();
-        int targetLength = target.length();
-        if (targetLength < stringLength)
+        if (end - start < stringLength)
             return false;
-        return StringMatcher.compareCS(target, targetLength - stringLength, string, 0, stringLength);
+        return StringMatcher.compareCS(target, end - stringLength, string, 0, stringLength);
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        int end = target.length();
+        return matches(target, start, end) ? end : -1;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(Footprint.REFERENCE) + Footprint.string(string);
     }
 
     @Override
@@ -0,0 +1,134 @@
+/*
+ * @(#) Footprint.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.nio.Buffer;
+
+/**
+ * Functions to estimate the heap memory occupied by objects, for use in implementations of
+ * {@link StringMatcher#estimatedRetainedBytes()}.  The estimates assume a 64-bit JVM with compressed object pointers
+ * (12-byte object headers, 16-byte array headers, 4-byte references and 8-byte alignment) and compact strings (Latin-1
+ * strings stored as one byte per character).
+ *
+ * @author  Peter Wall
+ */
+final class Footprint {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    static final int ALIGNMENT = 8;
+
+    /** The size of a {@link Buffer} object (excluding its backing array), or of a view of another buffer. */
+    static final long BUFFER = object(6 * 4 + 8 + 4 * REFERENCE);
+
+    private Footprint() {
+    }
+
+    /**
+     * Round a size up to the object alignment.
+     *
+     * @param   size    the size
+     * @return          the aligned size
+     */
+    static long align(long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Estimate the size of an object, given the total size of its fields.
+     *
+     * @param   fieldBytes  the total size of the fields
+     * @return              the size of the object
+     */
+    static long object(int fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    /**
+     * Estimate the size of an array.
+     *
+     * @param   length      the number of elements
+     * @param   elementSize the size of each element
+     * @return              the size of the array
+     */
+    static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long)length * elementSize);
+    }
+
+    /**
+     * Estimate the size of a {@link String}, including its backing array.
+     *
+     * @param   string  the {@link String} (may be {@code null})
+     * @return          the size of the {@link String}
+     */
+    static long string(String string) {
+        if (string == null)
+            return 0;
+        return object(REFERENCE + 4 + 2) + array(string.length(), isLatin1(string) ? 1 : 2);
+    }
+
+    /**
+     * Estimate the size of an array of {@link String}s, including the strings.
+     *
+     * @param   strings the strings
+     * @return          the size of the array and the strings
+     */
+    static long strings(String[] strings) {
+        long result = array(strings.length, REFERENCE);
+        for (String string : strings)
+            result += string(string);
+        return result;
+    }
+
+    /**
+     * Estimate the size of an array of {@link StringMatcher}s, including the retained size of each matcher.
+     *
+     * @param   matchers    the matchers (entries may be {@code null})
+     * @return              the size of the array and the matchers
+     */
+    static long matchers(StringMatcher[] matchers) {
+        long result = array(matchers.length, REFERENCE);
+        for (StringMatcher matcher : matchers)
+            if (matcher != null)
+                result += matcher.estimatedRetainedBytes();
+        return result;
+    }
+
+    /**
+     * Test whether a string consists entirely of Latin-1 characters.
+     *
+     * @param   string  the string
+     * @return          {@code true} if all the characters are in the Latin-1 range
+     */
+    static boolean isLatin1(CharSequence string) {
+        for (int i = 0, n = string.length(); i < n; i++)
+            if (string.charAt(i) > 0xFF)
+                return false;
+        return true;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * @(#) FusedMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link StringMatcher} that evaluates a set of automaton-based matchers (see {@link MatcherAlgebra}) in a single pass
+ * over the target, by combining them into one automaton.  The automaton tracks which of the component matchers have
+ * matched, and the result is the OR or the AND of the components.
+ *
+ * @author  Peter Wall
+ */
+final class FusedMatcher implements StringMatcher {
+
+    private final StringMatcher[] matchers;
+    private final boolean requireAll;
+    private final LinearRegex automaton;
+
+    FusedMatcher(StringMatcher[] matchers, LinearRegex.Node[] nodes, boolean requireAll) {
+        this.matchers = matchers;
+        this.requireAll = requireAll;
+        automaton = LinearRegex.compile(Arrays.asList(nodes), requireAll);
+    }
+
+    List<StringMatcher> getMatchers() {
+        return new ArrayList<>(Arrays.asList(matchers));
+    }
+
+    boolean isRequireAll() {
+        return requireAll;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return automaton.search(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return automaton.search(target, start, end);
+    }
+
+    @Override
+    public KeyRange keyRange() {
+        KeyRange result = requireAll ? KeyRange.ALL : KeyRange.EMPTY;
+        for (StringMatcher matcher : matchers)
+            result = requireAll ? result.intersect(matcher.keyRange()) : result.span(matcher.keyRange());
+        return result;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        long result = automatonBytes();
+        for (StringMatcher matcher : matchers)
+            result += matcher.estimatedRetainedBytes();
+        return result;
+    }
+
+    /**
+     * Get the estimated retained size excluding the component matchers (for use by a matcher that holds the
+     * components itself).
+     *
+     * @return      the estimated size, in bytes
+     */
+    long automatonBytes() {
+        return Footprint.object(2 * Footprint.REFERENCE + 1) + Footprint.array(matchers.length, Footprint.REFERENCE) +
+                automaton.estimatedRetainedBytes();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof FusedMatcher))
+            return false;
+        FusedMatcher other = (FusedMatcher)obj;
+        return requireAll == other.requireAll && Arrays.equals(matchers, other.matchers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(matchers) ^ (requireAll ? 1 : 0);
+    }
+
+}
@@ -0,0 +1,340 @@
+/*
+ * @(#) FuzzyMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Objects;
+
+/**
+ * A {@link StringMatcher} that tests whether the target is within a given edit distance (Levenshtein distance: the
+ * number of single character insertions, deletions and substitutions) of a pattern string, or (in {@code CONTAINS}
+ * mode) whether the target contains a substring within that distance of the pattern.
+ *
+ * <p>For patterns of up to 64 characters the distance is computed by Myers' bit-parallel algorithm, which processes
+ * each character of the target in a constant number of operations; longer patterns use a dynamic programming
+ * algorithm restricted to the cells that can be within the maximum distance.</p>
+ *
+ * @author  Peter Wall
+ */
+public class FuzzyMatcher implements StringMatcher {
+
+    /**
+     * The form of comparison: the whole target, or any substring of it.
+     */
+    public enum Mode { EXACT, CONTAINS }
+
+    private static final int MAX_BIT_PARALLEL = 64;
+
+    private final String pattern;
+    private final int maxDistance;
+    private final Mode mode;
+    private final CharMasks masks;
+
+    /**
+     * Construct a {@code FuzzyMatcher} with the given pattern, maximum edit distance and mode.
+     *
+     * @param   pattern     the pattern
+     * @param   maxDistance the maximum edit distance
+     * @param   mode        the {@link Mode}
+     * @throws  IllegalArgumentException    if the maximum distance is negative
+     */
+    public FuzzyMatcher(String pattern, int maxDistance, Mode mode) {
+        this.pattern = Objects.requireNonNull(pattern, "Pattern must not be null");
+        if (maxDistance < 0)
+            throw new IllegalArgumentException("Maximum distance must not be negative");
+        this.maxDistance = maxDistance;
+        this.mode = Objects.requireNonNull(mode, "Mode must not be null");
+        masks = pattern.length() <= MAX_BIT_PARALLEL ? new CharMasks(pattern) : null;
+    }
+
+    public FuzzyMatcher(String pattern, int maxDistance) {
+        this(pattern, maxDistance, Mode.EXACT);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        if (mode == Mode.EXACT && Math.abs(end - start - pattern.length()) > maxDistance)
+            return false;
+        return distance(target, start, end, maxDistance) <= maxDistance;
+    }
+
+    /**
+     * Find the first span of the target, starting at or after the given index, that is within the maximum edit
+     * distance of the pattern (in either mode; in {@code CONTAINS} mode this locates the substring that caused the
+     * target to match).  The end of the first such span is found by a forward scan of the target, and the earliest
+     * start of a span is then found by a reverse scan of the part of the target that may contain it (no span may be
+     * longer than the pattern plus the maximum distance).
+     *
+     * @param   target  the target string
+     * @param   from    the index at which to start the search
+     * @return          the start index of the span, or -1 if none was found
+     */
+    @Override
+    public int find(CharSequence target, int from) {
+        int n = target.length();
+        StringMatcher.checkRegion(target, from, n);
+        int firstEnd = masks != null ? bitParallelFirstEnd(target, from, n) : scan(target, from, n, false, false, true);
+        if (firstEnd < 0)
+            return -1;
+        long reach = (long)pattern.length() + maxDistance;
+        int lo = (int)Math.max(from, firstEnd - reach);
+        int hi = (int)Math.min(n, firstEnd + reach);
+        return scan(target, lo, hi, true, false, false);
+    }
+
+    /**
+     * Find the end of the longest span of the target starting at the given index that is within the maximum edit
+     * distance of the pattern (in either mode).
+     *
+     * @param   target  the target string
+     * @param   start   the start index of the span
+     * @return          the end index of the span, or -1 if there is no span starting at that index
+     */
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        int n = target.length();
+        StringMatcher.checkRegion(target, start, n);
+        int hi = (int)Math.min(n, (long)start + pattern.length() + maxDistance);
+        return scan(target, start, hi, false, true, false);
+    }
+
+    /**
+     * Compute the edit distance between the pattern and the target (or in {@code CONTAINS} mode, the smallest edit
+     * distance between the pattern and any substring of the target).
+     *
+     * @param   target      the target string
+     * @return              the edit distance
+     */
+    public int distance(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return distance(target, 0, target.length(), Integer.MAX_VALUE);
+    }
+
+    /*
+     * Compute the distance; if the result would exceed the limit, the method may stop early and return any value
+     * greater than the limit.
+     */
+    private int distance(CharSequence target, int start, int end, int limit) {
+        int m = pattern.length();
+        if (m == 0)
+            return mode == Mode.CONTAINS ? 0 : end - start;
+        return masks != null ? bitParallel(target, start, end, limit) : dynamic(target, start, end, limit);
+    }
+
+    private int bitParallel(CharSequence target, int start, int end, int limit) {
+        int m = pattern.length();
+        long last = 1L << (m - 1);
+        long pv = m == MAX_BIT_PARALLEL ? -1L : (1L << m) - 1;
+        long mv = 0;
+        int score = m;
+        int best = score;
+        boolean contains = mode == Mode.CONTAINS;
+        for (int i = start; i < end; i++) {
+            long eq = masks.get(target.charAt(i));
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0)
+                score++;
+            else if ((mh & last) != 0)
+                score--;
+            ph <<= 1;
+            mh <<= 1;
+            if (contains) {
+                if (score < best) {
+                    best = score;
+                    if (best <= limit && limit != Integer.MAX_VALUE)
+                        return best;
+                }
+            }
+            else {
+                ph |= 1; // the distance from the empty pattern prefix increases along the target
+                if (score - (end - i - 1) > limit)
+                    return score - (end - i - 1); // the score can fall by at most one per remaining character
+            }
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+        }
+        return contains ? best : score;
+    }
+
+    /*
+     * Find the first index at which a substring of the target (starting at or after the given index) within the
+     * maximum distance of the pattern ends, using the column scores of Myers' algorithm.
+     */
+    private int bitParallelFirstEnd(CharSequence target, int start, int end) {
+        int m = pattern.length();
+        if (m <= maxDistance)
+            return start;
+        long last = 1L << (m - 1);
+        long pv = m == MAX_BIT_PARALLEL ? -1L : (1L << m) - 1;
+        long mv = 0;
+        int score = m;
+        for (int i = start; i < end; i++) {
+            long eq = masks.get(target.charAt(i));
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0)
+                score++;
+            else if ((mh & last) != 0)
+                score--;
+            if (score <= maxDistance)
+                return i + 1;
+            ph <<= 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+        }
+        return -1;
+    }
+
+    /*
+     * Scan a region of the target (forwards, or backwards comparing the reversed pattern), computing at each index the
+     * distance between the pattern and the characters scanned so far: either all of them (anchored) or the best of any
+     * suffix of them (unanchored).  Returns the first index in the order of the scan at which the distance is within
+     * the maximum (if first is true), or otherwise the last such index; or -1 if there is none.
+     */
+    private int scan(CharSequence target, int start, int end, boolean reverse, boolean anchored, boolean first) {
+        int m = pattern.length();
+        // values greater than k are held as k + 1; rows beyond lastActive are known to exceed k (Ukkonen's cut-off)
+        int k = (int)Math.min(maxDistance, (long)m + end - start);
+        int[] column = new int[m + 1];
+        for (int j = 0; j <= m; j++)
+            column[j] = Math.min(j, k + 1);
+        int lastActive = Math.min(m, k);
+        int index = reverse ? end : start;
+        int result = -1;
+        if (column[m] <= k) {
+            if (first)
+                return index;
+            result = index;
+        }
+        for (int i = 0, count = end - start; i < count; i++) {
+            char ch = target.charAt(reverse ? end - 1 - i : start + i);
+            int diagonal = column[0];
+            column[0] = anchored ? Math.min(column[0] + 1, k + 1) : 0;
+            int top = Math.min(m, lastActive + 1);
+            for (int j = 1; j <= top; j++) {
+                int previous = column[j];
+                int value = diagonal + (pattern.charAt(reverse ? m - j : j - 1) == ch ? 0 : 1);
+                value = Math.min(value, Math.min(previous, column[j - 1]) + 1);
+                column[j] = Math.min(value, k + 1);
+                diagonal = previous;
+            }
+            lastActive = top;
+            while (lastActive > 0 && column[lastActive] > k)
+                lastActive--;
+            index = reverse ? index - 1 : index + 1;
+            if (column[m] <= k) {
+                if (first)
+                    return index;
+                result = index;
+            }
+            else if (lastActive == 0 && column[0] > k)
+                break;
+        }
+        return result;
+    }
+
+    private int dynamic(CharSequence target, int start, int end, int limit) {
+        int m = pattern.length();
+        boolean contains = mode == Mode.CONTAINS;
+        // values greater than k are held as k + 1; rows beyond lastActive are known to exceed k (Ukkonen's cut-off)
+        int k = (int)Math.min(limit, (long)m + end - start);
+        int[] column = new int[m + 1];
+        for (int j = 0; j <= m; j++)
+            column[j] = Math.min(j, k + 1);
+        int lastActive = Math.min(m, k);
+        int best = column[m];
+        for (int i = start; i < end; i++) {
+            char ch = target.charAt(i);
+            int diagonal = column[0];
+            column[0] = contains ? 0 : Math.min(column[0] + 1, k + 1);
+            int top = Math.min(m, lastActive + 1);
+            for (int j = 1; j <= top; j++) {
+                int previous = column[j];
+                int value = diagonal + (pattern.charAt(j - 1) == ch ? 0 : 1);
+                value = Math.min(value, Math.min(previous, column[j - 1]) + 1);
+                column[j] = Math.min(value, k + 1);
+                diagonal = previous;
+            }
+            lastActive = top;
+            while (lastActive > 0 && column[lastActive] > k)
+                lastActive--;
+            if (contains) {
+                best = Math.min(best, column[m]);
+                if (best <= limit && limit != Integer.MAX_VALUE)
+                    return best;
+            }
+            else if (lastActive == 0 && column[0] > k)
+                return k + 1;
+        }
+        return contains ? best : column[m];
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(3 * Footprint.REFERENCE + 4) + Footprint.string(pattern) +
+                (masks != null ? masks.estimatedRetainedBytes() : 0);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof FuzzyMatcher))
+            return false;
+        FuzzyMatcher other = (FuzzyMatcher)obj;
+        return pattern.equals(other.pattern) && maxDistance == other.maxDistance && mode == other.mode;
+    }
+
+    @Override
+    public int hashCode() {
+        return pattern.hashCode() ^ maxDistance ^ mode.hashCode();
+    }
+
+}
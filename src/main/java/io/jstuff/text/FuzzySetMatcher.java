@@ -0,0 +1,220 @@
+/*
+ * @(#) FuzzySetMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * A {@link StringMatcher} that tests whether the target is within a given edit distance (Levenshtein distance) of any
+ * of a set of strings.  The strings are held in sorted order, which forms an implicit trie (the strings sharing a
+ * prefix occupy a contiguous range); the lookup walks the trie computing one row of the edit distance table for each
+ * node, and abandons any subtree whose row has no value within the maximum distance.  Each row holds only the band of
+ * the table within the maximum distance of the diagonal, and rows are allocated only for the depths reached, so the
+ * memory used does not depend on the lengths of the longest string and the target.  Only the parts of the set that are
+ * close to the target are examined, rather than every string in the set.
+ *
+ * @author  Peter Wall
+ */
+public class FuzzySetMatcher implements StringMatcher {
+
+    private final String[] strings;
+    private final int maxDistance;
+    private final int maxLength;
+
+    /**
+     * Construct a {@code FuzzySetMatcher} with the given strings and maximum edit distance.
+     *
+     * @param   strings     the strings
+     * @param   maxDistance the maximum edit distance
+     * @throws  IllegalArgumentException    if the maximum distance is negative
+     */
+    public FuzzySetMatcher(Collection<String> strings, int maxDistance) {
+        TreeSet<String> set = new TreeSet<>();
+        for (String string : Objects.requireNonNull(strings, "Strings must not be null"))
+            set.add(Objects.requireNonNull(string, "String must not be null"));
+        if (maxDistance < 0)
+            throw new IllegalArgumentException("Maximum distance must not be negative");
+        this.strings = set.toArray(new String[0]);
+        this.maxDistance = maxDistance;
+        int maxLength = 0;
+        for (String string : this.strings)
+            maxLength = Math.max(maxLength, string.length());
+        this.maxLength = maxLength;
+    }
+
+    public int getCount() {
+        return strings.length;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return strings.length > 0 && search(target, start, end, null);
+    }
+
+    /**
+     * Find all the strings in the set within the maximum edit distance of the target.
+     *
+     * @param   target      the target string
+     * @return              the matching strings, in sorted order
+     */
+    public List<String> lookup(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        List<String> results = new ArrayList<>();
+        if (strings.length > 0)
+            search(target, 0, target.length(), results);
+        return results;
+    }
+
+    /*
+     * Walk the implicit trie, depth first.  The strings from los[depth] to his[depth] share the prefix of the length
+     * given by depth (los[depth] advancing past each child as it is walked), and rows[depth] holds the row of the edit
+     * distance table for that prefix.  Each row holds only the band of the table within k of the diagonal: element b
+     * of the row for depth d is the distance between the prefix and the first d - k + b characters of the target,
+     * with values greater than k (and positions outside the target) held as k + 1.  The rows are allocated as each
+     * depth is first reached.  If results is null, stop at the first string found.
+     */
+    private boolean search(CharSequence target, int start, int end, List<String> results) {
+        int n = end - start;
+        // no distance can exceed the length of the longer string, so a larger maximum is reduced to that
+        int k = Math.min(maxDistance, Math.max(n, maxLength));
+        int width = 2 * k + 1;
+        // a prefix more than k characters longer than the target can not be within the distance
+        int maxDepth = Math.min(maxLength, n + k);
+        int[][] rows = new int[maxDepth + 1][];
+        int[] los = new int[maxDepth + 1];
+        int[] his = new int[maxDepth + 1];
+        int[] row = new int[width];
+        for (int b = 0; b < width; b++) {
+            int j = b - k;
+            row[b] = j < 0 || j > n ? k + 1 : j;
+        }
+        rows[0] = row;
+        his[0] = strings.length;
+        boolean found = false;
+        int depth = 0;
+        while (true) {
+            row = rows[depth];
+            int lo = los[depth];
+            if (lo < his[depth] && strings[lo].length() == depth) {
+                // the prefix itself is in the set (it sorts before its extensions)
+                int b = n - depth + k;
+                if (b >= 0 && b < width && row[b] <= k) {
+                    if (results == null)
+                        return true;
+                    results.add(strings[lo]);
+                    found = true;
+                }
+                los[depth] = ++lo;
+            }
+            while (depth + 1 > maxDepth || lo >= his[depth]) { // this subtree is finished; go back up
+                if (depth == 0)
+                    return found;
+                depth--;
+                lo = los[depth];
+            }
+            row = rows[depth];
+            char ch = strings[lo].charAt(depth);
+            int childEnd = firstAbove(lo, his[depth], depth, ch);
+            los[depth] = childEnd;
+            int[] next = rows[depth + 1];
+            if (next == null)
+                rows[depth + 1] = next = new int[width];
+            int min = k + 1;
+            for (int b = 0; b < width; b++) {
+                int j = depth + 1 - k + b;
+                int value = k + 1;
+                if (j >= 0 && j <= n) {
+                    value = b + 1 < width ? row[b + 1] + 1 : k + 1; // deletion
+                    if (j > 0) {
+                        value = Math.min(value, row[b] + (target.charAt(start + j - 1) == ch ? 0 : 1));
+                        if (b > 0)
+                            value = Math.min(value, next[b - 1] + 1); // insertion
+                    }
+                    value = Math.min(value, k + 1);
+                }
+                next[b] = value;
+                min = Math.min(min, value);
+            }
+            if (min <= k) { // descend into the child; otherwise move on to the next child at this depth
+                depth++;
+                los[depth] = lo;
+                his[depth] = childEnd;
+            }
+        }
+    }
+
+    /*
+     * Find the first string in the range with a character greater than ch at the given depth (all strings in the range
+     * have at least depth + 1 characters, and are sorted on that character).
+     */
+    private int firstAbove(int lo, int hi, int depth, char ch) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (strings[mid].charAt(depth) <= ch)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(Footprint.REFERENCE + 2 * 4) + Footprint.strings(strings);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof FuzzySetMatcher))
+            return false;
+        FuzzySetMatcher other = (FuzzySetMatcher)obj;
+        return maxDistance == other.maxDistance && Arrays.equals(strings, other.strings);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(strings) ^ maxDistance;
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * @(#) Hashing.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+/**
+ * Hash functions for use by the set matchers.  The functions operate on a region of a {@link CharSequence}, so that
+ * no sub-sequence need be created.
+ *
+ * @author  Peter Wall
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Compute a seeded hash of a region of a {@link CharSequence} (based on the MurmurHash3 mixing functions).
+     *
+     * @param   cs      the {@link CharSequence}
+     * @param   start   the start index of the region
+     * @param   end     the end index of the region (exclusive)
+     * @param   seed    the seed
+     * @return          the hash
+     */
+    static int hash(CharSequence cs, int start, int end, int seed) {
+        int h = seed ^ (end - start);
+        for (int i = start; i < end; i++) {
+            int k = cs.charAt(i) * 0xCC9E2D51;
+            k = Integer.rotateLeft(k, 15) * 0x1B873593;
+            h ^= k;
+            h = Integer.rotateLeft(h, 13) * 5 + 0xE6546B64;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * @(#) KeyRange.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+
+/**
+ * A range of strings, in the natural ({@link String#compareTo(String) compareTo()}) order of strings, outside which a
+ * {@link StringMatcher} can not match.  The lower bound is inclusive and the upper bound is exclusive; a {@code null}
+ * bound indicates that the range is unbounded in that direction.
+ *
+ * <p>A {@code KeyRange} is obtained from {@link StringMatcher#keyRange()}, and it is used by
+ * {@link StringMatcher#scanSorted(NavigableSet)} and {@link StringMatcher#scanSorted(List)} to limit the entries
+ * examined in a sorted collection.</p>
+ *
+ * @author  Peter Wall
+ */
+public final class KeyRange {
+
+    /** The range including all strings. */
+    public static final KeyRange ALL = new KeyRange(null, null);
+
+    /** The range including no strings. */
+    public static final KeyRange EMPTY = new KeyRange("", "");
+
+    private final String lower;
+    private final String upper;
+
+    /**
+     * Construct a {@code KeyRange} with the specified bounds.
+     *
+     * @param   lower   the lower bound (inclusive), or {@code null} if there is no lower bound
+     * @param   upper   the upper bound (exclusive), or {@code null} if there is no upper bound
+     */
+    public KeyRange(String lower, String upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Create a {@code KeyRange} including only the specified string.
+     *
+     * @param   string  the string
+     * @return          the {@code KeyRange}
+     */
+    public static KeyRange exact(String string) {
+        Objects.requireNonNull(string, "String must not be null");
+        return new KeyRange(string, string + '\0');
+    }
+
+    /**
+     * Create a {@code KeyRange} including all strings starting with the specified prefix.
+     *
+     * @param   prefix  the prefix
+     * @return          the {@code KeyRange}
+     */
+    public static KeyRange prefix(String prefix) {
+        Objects.requireNonNull(prefix, "Prefix must not be null");
+        int i = prefix.length();
+        while (i > 0 && prefix.charAt(i - 1) == Character.MAX_VALUE)
+            i--;
+        if (i == 0)
+            return prefix.isEmpty() ? ALL : new KeyRange(prefix, null);
+        // the upper bound is the shortest string greater than every string starting with the prefix
+        return new KeyRange(prefix, prefix.substring(0, i - 1) + (char)(prefix.charAt(i - 1) + 1));
+    }
+
+    /**
+     * Get the lower bound (inclusive).
+     *
+     * @return      the lower bound, or {@code null} if there is no lower bound
+     */
+    public String getLower() {
+        return lower;
+    }
+
+    /**
+     * Get the upper bound (exclusive).
+     *
+     * @return      the upper bound, or {@code null} if there is no upper bound
+     */
+    public String getUpper() {
+        return upper;
+    }
+
+    /**
+     * Test whether the range is unbounded in both directions.
+     *
+     * @return      {@code true} if the range includes all strings
+     */
+    public boolean isAll() {
+        return lower == null && upper == null;
+    }
+
+    /**
+     * Test whether the range includes no strings.
+     *
+     * @return      {@code true} if the range is empty
+     */
+    public boolean isEmpty() {
+        return upper != null && (upper.isEmpty() || lower != null && lower.compareTo(upper) >= 0);
+    }
+
+    /**
+     * Test whether the range includes a string.
+     *
+     * @param   string  the string
+     * @return          {@code true} if the string is within the range
+     */
+    public boolean contains(String string) {
+        return (lower == null || string.compareTo(lower) >= 0) && (upper == null || string.compareTo(upper) < 0);
+    }
+
+    /**
+     * Create a {@code KeyRange} including only the strings included in both this range and another.
+     *
+     * @param   other   the other {@code KeyRange}
+     * @return          the intersection
+     */
+    public KeyRange intersect(KeyRange other) {
+        String newLower = lower == null ? other.lower : other.lower == null ? lower :
+                lower.compareTo(other.lower) >= 0 ? lower : other.lower;
+        String newUpper = upper == null ? other.upper : other.upper == null ? upper :
+                upper.compareTo(other.upper) <= 0 ? upper : other.upper;
+        return new KeyRange(newLower, newUpper);
+    }
+
+    /**
+     * Create a {@code KeyRange} including the strings included in either this range or another (and any strings
+     * between the two ranges).
+     *
+     * @param   other   the other {@code KeyRange}
+     * @return          the smallest range including both ranges
+     */
+    public KeyRange span(KeyRange other) {
+        if (isEmpty())
+            return other;
+        if (other.isEmpty())
+            return this;
+        String newLower = lower == null || other.lower == null ? null :
+                lower.compareTo(other.lower) <= 0 ? lower : other.lower;
+        String newUpper = upper == null || other.upper == null ? null :
+                upper.compareTo(other.upper) >= 0 ? upper : other.upper;
+        return new KeyRange(newLower, newUpper);
+    }
+
+    /**
+     * Get the subset of a {@link NavigableSet} (which must use the natural order of strings) within the range.
+     *
+     * @param   set     the {@link NavigableSet}
+     * @return          a view of the entries within the range
+     */
+    public NavigableSet<String> subSet(NavigableSet<String> set) {
+        if (isEmpty())
+            return Collections.emptyNavigableSet();
+        if (lower == null)
+            return upper == null ? set : set.headSet(upper, false);
+        return upper == null ? set.tailSet(lower, true) : set.subSet(lower, true, upper, false);
+    }
+
+    /**
+     * Get the index of the first entry within (or after) the range in a sorted {@link List}.
+     *
+     * @param   list    the {@link List} (sorted in the natural order of strings)
+     * @return          the index
+     */
+    public int fromIndex(List<String> list) {
+        return lower == null ? 0 : insertionPoint(list, lower);
+    }
+
+    /**
+     * Get the index following the last entry within the range in a sorted {@link List}.
+     *
+     * @param   list    the {@link List} (sorted in the natural order of strings)
+     * @return          the index
+     */
+    public int toIndex(List<String> list) {
+        return upper == null ? list.size() : insertionPoint(list, upper);
+    }
+
+    /**
+     * Find the index of the first entry greater than or equal to the key (the list may contain duplicates).
+     */
+    private static int insertionPoint(List<String> list, String key) {
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid).compareTo(key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof KeyRange))
+            return false;
+        KeyRange other = (KeyRange)obj;
+        if (isEmpty())
+            return other.isEmpty();
+        return Objects.equals(lower, other.lower) && Objects.equals(upper, other.upper);
+    }
+
+    @Override
+    public int hashCode() {
+        return isEmpty() ? 0 : Objects.hashCode(lower) ^ Objects.hashCode(upper);
+    }
+
+    @Override
+    public String toString() {
+        return isEmpty() ? "[]" : '[' + (lower == null ? "" : lower) + ", " + (upper == null ? "" : upper) + ')';
+    }
+
+}
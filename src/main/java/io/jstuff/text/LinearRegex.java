@@ -0,0 +1,1240 @@
+/*
+ * @(#) LinearRegex.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A regular expression engine with running time linear in the length of the input.  The expression is parsed into a
+ * syntax tree, compiled to a Thompson NFA, and then executed either by simulating the NFA (tracking all possible states
+ * in parallel) or, for the unanchored search used by {@link StringMatcher#matches(CharSequence) matches()}, by a DFA
+ * built lazily from the NFA as input is encountered.  The DFA states are held in a bounded cache, which is discarded
+ * when it reaches its limit, so memory use is bounded regardless of the expression or the input.
+ *
+ * <p>Only the subset of {@link Pattern} syntax that can be executed without backtracking is supported: literals,
+ * {@code .}, character classes (without nesting or intersection), the predefined classes {@code \d \D \s \S \w \W},
+ * character escapes, capturing and non-capturing groups (capturing groups are treated as non-capturing), alternation,
+ * the greedy and reluctant quantifiers {@code * + ? {n} {n,} {n,m}}, and the boundary matchers {@code ^ $ \A \Z \z}.
+ * Back references, look-around, possessive quantifiers, word boundaries, Unicode property classes and embedded flags
+ * are rejected, as are all compilation flags other than {@link Pattern#DOTALL}.</p>
+ *
+ * <p>Since the engine does not backtrack, it does not implement the "first alternative wins" rule of
+ * {@link java.util.regex}; the spans it reports are leftmost-longest.</p>
+ *
+ * @author  Peter Wall
+ */
+final class LinearRegex {
+
+    static final int maxStates = 10000;
+    static final int maxRepeat = 1000;
+    static final int maxCachedStates = 1024;
+    static final int maxComponents = 64;
+
+    static final int BEGIN = 0;
+    static final int END_LINE = 1;
+    static final int END_INPUT = 2;
+
+    private static final int CHAR = 0;
+    private static final int SPLIT = 1;
+    private static final int ASSERT = 2;
+    private static final int MATCH = 3;
+
+    private static final int ASCII_LIMIT = 128;
+
+    private final String regex;
+    private final Node node;
+    private final int[] types;
+    private final int[] out1;
+    private final int[] out2;
+    private final CharSet[] sets;
+    private final int[] kinds;
+    private final int startState;
+    private final long allMask;
+    private final boolean requireAll;
+    private final Map<StateKey, DState> cache;
+    private final DState initial;
+    private final int endMargin;
+
+    private LinearRegex(String regex, List<Node> nodes, boolean requireAll) {
+        this.regex = regex;
+        int count = nodes.size();
+        if (count == 0 || count > maxComponents)
+            throw new IllegalArgumentException("Invalid number of components for linear engine: " + count);
+        node = count == 1 ? nodes.get(0) : null;
+        this.requireAll = requireAll;
+        allMask = count == maxComponents ? -1L : (1L << count) - 1;
+        // each component has its own match state (identified by the component index), and the start state leads to
+        // the start of every component
+        Builder builder = new Builder();
+        int state = -1;
+        for (int i = count; i > 0; ) {
+            int matchState = builder.add(MATCH, -1, -1, null, --i);
+            int componentStart = builder.compile(nodes.get(i), matchState);
+            state = state < 0 ? componentStart : builder.add(SPLIT, componentStart, state, null, 0);
+        }
+        startState = state;
+        int n = builder.count;
+        types = Arrays.copyOf(builder.types, n);
+        out1 = Arrays.copyOf(builder.out1, n);
+        out2 = Arrays.copyOf(builder.out2, n);
+        sets = Arrays.copyOf(builder.sets, n);
+        kinds = Arrays.copyOf(builder.kinds, n);
+        cache = new ConcurrentHashMap<>();
+        // the initial state for a region of more than two characters: only the start-of-input assertion can succeed
+        Simulation sim = new Simulation();
+        int size = sim.closure(sim.list, 0, null, startState, 0, BEGIN_ONLY);
+        initial = new DState(sorted(sim.list, size), matchMask(sim.list, size));
+        // a $ assertion may succeed before a line terminator at the end of the input, so if there are any, the search
+        // must leave the DFA two characters from the end
+        int margin = 0;
+        for (int i = 0; i < n; i++)
+            if (types[i] == ASSERT && kinds[i] == END_LINE)
+                margin = 2;
+        endMargin = margin;
+    }
+
+    /**
+     * Compile a {@link Pattern} for the linear engine.
+     *
+     * @param   pattern     the {@link Pattern}
+     * @return              the {@code LinearRegex}
+     * @throws  IllegalArgumentException    if the pattern uses a construct not supported by the linear engine
+     */
+    static LinearRegex compile(Pattern pattern) {
+        int flags = pattern.flags();
+        if ((flags & ~Pattern.DOTALL) != 0)
+            throw new IllegalArgumentException("Pattern flags not supported by linear engine: " + pattern);
+        return compile(pattern.pattern(), (flags & Pattern.DOTALL) != 0);
+    }
+
+    /**
+     * Parse a {@link Pattern} to a syntax tree, without compiling it to an automaton.
+     *
+     * @param   pattern     the {@link Pattern}
+     * @return              the syntax tree
+     * @throws  IllegalArgumentException    if the pattern uses a construct not supported by the linear engine
+     */
+    static Node parse(Pattern pattern) {
+        int flags = pattern.flags();
+        if ((flags & ~Pattern.DOTALL) != 0)
+            throw new IllegalArgumentException("Pattern flags not supported by linear engine: " + pattern);
+        return new Parser(pattern.pattern(), (flags & Pattern.DOTALL) != 0).parse();
+    }
+
+    /**
+     * Compile a regular expression string for the linear engine.
+     *
+     * @param   regex       the regular expression
+     * @param   dotAll      {@code true} if {@code .} is to match line terminators
+     * @return              the {@code LinearRegex}
+     * @throws  IllegalArgumentException    if the expression uses a construct not supported by the linear engine
+     */
+    static LinearRegex compile(String regex, boolean dotAll) {
+        return new LinearRegex(regex, Collections.singletonList(new Parser(regex, dotAll).parse()), false);
+    }
+
+    /**
+     * Compile a set of syntax trees into a single automaton, so that all of them may be tested in one pass over the
+     * input.  The {@link #search(CharSequence, int, int) search()} function will test whether any of the components
+     * matches, or (if {@code requireAll} is {@code true}) whether every component matches.
+     *
+     * @param   nodes       the syntax trees (at most {@link #maxComponents})
+     * @param   requireAll  {@code true} if every component must match
+     * @return              the {@code LinearRegex}
+     * @throws  IllegalArgumentException    if the number of components is invalid, or the automaton is too large
+     */
+    static LinearRegex compile(List<Node> nodes, boolean requireAll) {
+        return new LinearRegex(null, nodes, requireAll);
+    }
+
+    String getRegex() {
+        return regex;
+    }
+
+    Node getNode() {
+        return node;
+    }
+
+    int getStateCount() {
+        return types.length;
+    }
+
+    /**
+     * Get an estimate of the heap memory occupied by the automaton (see
+     * {@link StringMatcher#estimatedRetainedBytes()}).  The DFA states are built as input is encountered, so the
+     * estimate reflects the states cached at the time of the call.
+     *
+     * @return      the estimated size, in bytes
+     */
+    long estimatedRetainedBytes() {
+        int n = types.length;
+        long result = Footprint.object(9 * Footprint.REFERENCE + 2 * 4 + 8 + 1) + Footprint.string(regex) +
+                4 * Footprint.array(n, 4) + Footprint.array(n, Footprint.REFERENCE) + nodeBytes(node);
+        Set<CharSet> distinctSets = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CharSet set : sets)
+            if (set != null && distinctSets.add(set))
+                result += Footprint.object(Footprint.REFERENCE) + Footprint.array(set.ranges.length, 4);
+        result += stateBytes(initial);
+        int cached = 0;
+        for (DState state : cache.values()) {
+            // each entry of the map holds a node, a key (sharing the array of NFA states) and the DFA state
+            result += Footprint.object(3 * Footprint.REFERENCE + 4) + Footprint.object(Footprint.REFERENCE + 4) +
+                    stateBytes(state);
+            cached++;
+        }
+        return result + Footprint.object(4 * Footprint.REFERENCE + 3 * 4 + 8) +
+                Footprint.array(Math.max(Integer.highestOneBit(cached) << 2, 16), Footprint.REFERENCE);
+    }
+
+    private static long stateBytes(DState state) {
+        long result = Footprint.object(3 * Footprint.REFERENCE + 8) + Footprint.array(state.states.length, 4);
+        if (state.next != null)
+            result += Footprint.array(ASCII_LIMIT, Footprint.REFERENCE);
+        Long[] endMatched = state.endMatched;
+        if (endMatched != null) {
+            result += Footprint.array(ASCII_LIMIT, Footprint.REFERENCE);
+            for (Long mask : endMatched)
+                if (mask != null && (mask < -128 || mask > 127)) // small values are shared instances
+                    result += Footprint.object(8);
+        }
+        return result;
+    }
+
+    private static long nodeBytes(Node node) {
+        if (node == null)
+            return 0;
+        if (node instanceof CharNode || node instanceof AssertNode)
+            return Footprint.object(Footprint.REFERENCE); // the character sets are counted separately
+        if (node instanceof RepeatNode)
+            return Footprint.object(Footprint.REFERENCE + 2 * 4) + nodeBytes(((RepeatNode)node).node);
+        List<Node> nodes = node instanceof ConcatNode ? ((ConcatNode)node).nodes :
+                node instanceof AltNode ? ((AltNode)node).nodes : Collections.emptyList();
+        long result = Footprint.object(Footprint.REFERENCE) + Footprint.object(Footprint.REFERENCE + 2 * 4) +
+                Footprint.array(nodes.size(), Footprint.REFERENCE);
+        for (Node child : nodes)
+            result += nodeBytes(child);
+        return result;
+    }
+
+    /**
+     * Test whether the expression matches anywhere within a region of the input (for an automaton compiled from
+     * several components, whether any or all of them match).  Assertions are evaluated relative to the bounds of the
+     * region.
+     *
+     * @param   input   the input
+     * @param   start   the start of the region
+     * @param   end     the end of the region
+     * @return          {@code true} if a match was found
+     */
+    boolean search(CharSequence input, int start, int end) {
+        if (end - start <= 2)
+            return simulateSearch(input, start, end, null, 0, start, 0);
+        DState state = initial;
+        long matched = state.matched;
+        if (isComplete(matched))
+            return true;
+        int p = start;
+        while (true) {
+            int cp = input.charAt(p);
+            int np = p + 1;
+            if (Character.isHighSurrogate((char)cp) && np < end && Character.isLowSurrogate(input.charAt(np)))
+                cp = Character.toCodePoint((char)cp, input.charAt(np++));
+            if (np >= end - endMargin) {
+                if (endMargin > 0) // positions near the end of the region may satisfy $, so leave the DFA
+                    return simulateSearch(input, start, end, state.states, cp, np, matched);
+                return isComplete(matched | endMatched(state, cp));
+            }
+            state = transition(state, cp);
+            matched |= state.matched;
+            if (isComplete(matched))
+                return true;
+            p = np;
+        }
+    }
+
+    /**
+     * Create a {@link Stream} to search input supplied in a number of chunks.
+     *
+     * @return      the {@link Stream}
+     */
+    Stream stream() {
+        return new Stream();
+    }
+
+    /**
+     * The state of a search over input supplied in a number of chunks.  The only state held between chunks is the
+     * current DFA state (and a high surrogate, if a chunk ends with one), so the memory used does not depend on the
+     * length of the input.  The end of the input is never known, so the end assertions are never satisfied.
+     */
+    final class Stream {
+
+        private static final int NO_PENDING = -1;
+
+        private DState state;
+        private long matched;
+        private int pending;
+
+        private Stream() {
+            reset();
+        }
+
+        void reset() {
+            state = initial;
+            matched = initial.matched;
+            pending = NO_PENDING;
+        }
+
+        boolean isMatched() {
+            return isComplete(matched);
+        }
+
+        boolean feed(CharSequence chunk, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (isComplete(matched))
+                    return true;
+                char ch = chunk.charAt(i);
+                if (pending != NO_PENDING) {
+                    int high = pending;
+                    pending = NO_PENDING;
+                    if (Character.isLowSurrogate(ch)) {
+                        advance(Character.toCodePoint((char)high, ch));
+                        continue;
+                    }
+                    advance(high);
+                }
+                if (Character.isHighSurrogate(ch))
+                    pending = ch; // the low surrogate may be in the next chunk
+                else
+                    advance(ch);
+            }
+            if (pending != NO_PENDING && !isComplete(matched))
+                matched |= transition(state, pending).matched; // the text so far ends with an unpaired surrogate
+            return isComplete(matched);
+        }
+
+        private void advance(int cp) {
+            state = transition(state, cp);
+            matched |= state.matched;
+        }
+
+    }
+
+    /*
+     * Get the components matched at the end of the input, after the final character.  For ASCII characters the result
+     * is cached in the DFA state.
+     */
+    private long endMatched(DState state, int cp) {
+        Long[] table = null;
+        if (cp < ASCII_LIMIT) {
+            table = state.endMatched;
+            if (table == null)
+                state.endMatched = table = new Long[ASCII_LIMIT];
+            Long mask = table[cp];
+            if (mask != null)
+                return mask;
+        }
+        Simulation sim = new Simulation();
+        int size = sim.step(state.states, state.states.length, cp, (1 << END_INPUT) | (1 << END_LINE), true);
+        long mask = matchMask(sim.list, size);
+        if (table != null)
+            table[cp] = mask;
+        return mask;
+    }
+
+    private DState transition(DState state, int cp) {
+        DState next = null;
+        DState[] table = null;
+        if (cp < ASCII_LIMIT) {
+            table = state.next;
+            if (table == null)
+                state.next = table = new DState[ASCII_LIMIT];
+            next = table[cp];
+        }
+        if (next == null) {
+            next = intern(step(state.states, cp));
+            if (table != null)
+                table[cp] = next;
+        }
+        return next;
+    }
+
+    /**
+     * Find the leftmost position at or after {@code from} at which a match starts.  Assertions are evaluated relative
+     * to the bounds of the input.
+     *
+     * @param   input   the input
+     * @param   from    the position from which to start the search
+     * @return          the start of the match, or -1 if there is no match
+     */
+    int find(CharSequence input, int from) {
+        int end = input.length();
+        Simulation sim = new Simulation();
+        int[] list = sim.list;
+        int[] starts = sim.starts;
+        int size = sim.closure(list, 0, starts, startState, from, sim.context(input, from, 0, end));
+        int best = -1;
+        int p = from;
+        while (true) {
+            for (int i = 0; i < size; i++) {
+                if (types[list[i]] == MATCH && (best < 0 || starts[i] < best))
+                    best = starts[i];
+            }
+            if (best >= 0) { // only threads that started earlier can improve on the match found so far
+                int j = 0;
+                for (int i = 0; i < size; i++) {
+                    if (starts[i] < best) {
+                        list[j] = list[i];
+                        starts[j++] = starts[i];
+                    }
+                }
+                size = j;
+                if (size == 0)
+                    return best;
+            }
+            if (p >= end)
+                return best;
+            int cp = input.charAt(p);
+            int np = p + 1;
+            if (Character.isHighSurrogate((char)cp) && np < end && Character.isLowSurrogate(input.charAt(np)))
+                cp = Character.toCodePoint((char)cp, input.charAt(np++));
+            int context = sim.context(input, np, 0, end);
+            int[] nextList = sim.nextList;
+            int[] nextStarts = sim.nextStarts;
+            sim.generation++;
+            int nextSize = 0;
+            for (int i = 0; i < size; i++) {
+                int state = list[i];
+                if (types[state] == CHAR && sets[state].contains(cp))
+                    nextSize = sim.closure(nextList, nextSize, nextStarts, out1[state], starts[i], context);
+            }
+            if (best < 0)
+                nextSize = sim.closure(nextList, nextSize, nextStarts, startState, np, context);
+            sim.swap();
+            list = sim.list;
+            starts = sim.starts;
+            size = nextSize;
+            p = np;
+        }
+    }
+
+    /**
+     * Find the end of the longest match starting at the specified position.  Assertions are evaluated relative to the
+     * bounds of the input.
+     *
+     * @param   input   the input
+     * @param   start   the position at which the match must start
+     * @return          the end of the match, or -1 if there is no match
+     */
+    int matchEnd(CharSequence input, int start) {
+        int end = input.length();
+        Simulation sim = new Simulation();
+        int size = sim.closure(sim.list, 0, null, startState, 0, sim.context(input, start, 0, end));
+        int result = -1;
+        int p = start;
+        while (true) {
+            if (matchMask(sim.list, size) != 0)
+                result = p;
+            if (size == 0 || p >= end)
+                return result;
+            int cp = input.charAt(p);
+            int np = p + 1;
+            if (Character.isHighSurrogate((char)cp) && np < end && Character.isLowSurrogate(input.charAt(np)))
+                cp = Character.toCodePoint((char)cp, input.charAt(np++));
+            size = sim.step(sim.list, size, cp, sim.context(input, np, 0, end), false);
+            p = np;
+        }
+    }
+
+    private boolean simulateSearch(CharSequence input, int start, int end, int[] states, int cp, int p,
+            long matched) {
+        Simulation sim = new Simulation();
+        int size;
+        if (states == null)
+            size = sim.closure(sim.list, 0, null, startState, 0, sim.context(input, p, start, end));
+        else // continue from a DFA state, consuming the character that took the search out of the DFA
+            size = sim.step(states, states.length, cp, sim.context(input, p, start, end), true);
+        while (true) {
+            matched |= matchMask(sim.list, size);
+            if (isComplete(matched))
+                return true;
+            if (p >= end)
+                return false;
+            cp = input.charAt(p);
+            int np = p + 1;
+            if (Character.isHighSurrogate((char)cp) && np < end && Character.isLowSurrogate(input.charAt(np)))
+                cp = Character.toCodePoint((char)cp, input.charAt(np++));
+            size = sim.step(sim.list, size, cp, sim.context(input, np, start, end), true);
+            p = np;
+        }
+    }
+
+    private int[] step(int[] states, int cp) {
+        Simulation sim = new Simulation();
+        int size = sim.step(states, states.length, cp, NONE, true);
+        return sorted(sim.list, size);
+    }
+
+    private DState intern(int[] states) {
+        StateKey key = new StateKey(states);
+        DState state = cache.get(key);
+        if (state == null) {
+            if (cache.size() >= maxCachedStates) {
+                // discard the cache; any search in progress keeps the states it holds, and the rest become garbage
+                cache.clear();
+                initial.next = null;
+            }
+            state = new DState(states, matchMask(states, states.length));
+            DState existing = cache.putIfAbsent(key, state);
+            if (existing != null)
+                state = existing;
+        }
+        return state;
+    }
+
+    private long matchMask(int[] list, int size) {
+        long mask = 0;
+        for (int i = 0; i < size; i++)
+            if (types[list[i]] == MATCH)
+                mask |= 1L << kinds[list[i]];
+        return mask;
+    }
+
+    private boolean isComplete(long matched) {
+        return requireAll ? matched == allMask : matched != 0;
+    }
+
+    private static int[] sorted(int[] list, int size) {
+        int[] result = Arrays.copyOf(list, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    // assertion context flags
+    private static final int NONE = 0;
+    private static final int BEGIN_ONLY = 1 << BEGIN;
+
+    /**
+     * Working storage for an NFA simulation.  The state lists hold only character and match states; the epsilon
+     * closure is followed when states are added.
+     */
+    private final class Simulation {
+
+        int[] list;
+        int[] starts;
+        int[] nextList;
+        int[] nextStarts;
+        final int[] marks;
+        final int[] stack;
+        int generation;
+
+        Simulation() {
+            int n = types.length;
+            list = new int[n];
+            starts = new int[n];
+            nextList = new int[n];
+            nextStarts = new int[n];
+            marks = new int[n];
+            stack = new int[n * 2 + 2];
+            generation = 1;
+        }
+
+        int context(CharSequence input, int p, int start, int end) {
+            int context = NONE;
+            if (p == start)
+                context |= BEGIN_ONLY;
+            if (p == end)
+                context |= (1 << END_INPUT) | (1 << END_LINE);
+            else if (p >= end - 2 && isEndOfLine(input, p, end))
+                context |= 1 << END_LINE;
+            return context;
+        }
+
+        /**
+         * Follow the epsilon closure of a state, adding the character and match states reached to a list (states
+         * already added at this position are skipped, so the first thread to reach a state keeps it).
+         */
+        int closure(int[] target, int size, int[] targetStarts, int state, int threadStart, int context) {
+            int sp = 0;
+            stack[sp++] = state;
+            while (sp > 0) {
+                int s = stack[--sp];
+                if (marks[s] == generation)
+                    continue;
+                marks[s] = generation;
+                switch (types[s]) {
+                case SPLIT:
+                    stack[sp++] = out2[s];
+                    stack[sp++] = out1[s];
+                    break;
+                case ASSERT:
+                    if ((context & (1 << kinds[s])) != 0)
+                        stack[sp++] = out1[s];
+                    break;
+                default:
+                    if (targetStarts != null)
+                        targetStarts[size] = threadStart;
+                    target[size++] = s;
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Advance a set of states over a character, leaving the result in {@link #list}.
+         */
+        int step(int[] states, int size, int cp, int context, boolean unanchored) {
+            generation++;
+            int[] target = nextList;
+            int nextSize = 0;
+            for (int i = 0; i < size; i++) {
+                int s = states[i];
+                if (types[s] == CHAR && sets[s].contains(cp))
+                    nextSize = closure(target, nextSize, null, out1[s], 0, context);
+            }
+            if (unanchored)
+                nextSize = closure(target, nextSize, null, startState, 0, context);
+            swap();
+            return nextSize;
+        }
+
+        void swap() {
+            int[] t = list;
+            list = nextList;
+            nextList = t;
+            t = starts;
+            starts = nextStarts;
+            nextStarts = t;
+        }
+
+    }
+
+    /**
+     * Test for the {@code $} condition as implemented by {@link java.util.regex} (without {@code MULTILINE} or
+     * {@code UNIX_LINES}): at the end of the region, or before a line terminator at the end of the region.
+     */
+    private static boolean isEndOfLine(CharSequence input, int p, int end) {
+        char ch = input.charAt(p);
+        if (p == end - 2)
+            return ch == '\r' && input.charAt(p + 1) == '\n';
+        if (ch == '\n')
+            return p == 0 || input.charAt(p - 1) != '\r';
+        return ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+    }
+
+    private static final class DState {
+
+        final int[] states;
+        final long matched; // the components with a match ending at this state
+        DState[] next; // written without synchronisation - a lost update only means a transition is recomputed
+        Long[] endMatched; // as above; the match masks are boxed, so that a reader never sees a partly written value
+
+        DState(int[] states, long matched) {
+            this.states = states;
+            this.matched = matched;
+        }
+
+    }
+
+    private static final class StateKey {
+
+        private final int[] states;
+        private final int hash;
+
+        StateKey(int[] states) {
+            this.states = states;
+            hash = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof StateKey && Arrays.equals(states, ((StateKey)obj).states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * Compiles a syntax tree to an NFA.  Each node is compiled given the state that is to follow it, working from the
+     * end of the expression back to the start, so that no patching of forward references is needed (except for the
+     * loop of an unbounded repetition).
+     */
+    private static final class Builder {
+
+        int[] types = new int[16];
+        int[] out1 = new int[16];
+        int[] out2 = new int[16];
+        CharSet[] sets = new CharSet[16];
+        int[] kinds = new int[16];
+        int count;
+
+        int add(int type, int next1, int next2, CharSet set, int kind) {
+            if (count >= maxStates)
+                throw new IllegalArgumentException("Pattern too large for linear engine");
+            if (count == types.length) {
+                int n = count * 2;
+                types = Arrays.copyOf(types, n);
+                out1 = Arrays.copyOf(out1, n);
+                out2 = Arrays.copyOf(out2, n);
+                sets = Arrays.copyOf(sets, n);
+                kinds = Arrays.copyOf(kinds, n);
+            }
+            types[count] = type;
+            out1[count] = next1;
+            out2[count] = next2;
+            sets[count] = set;
+            kinds[count] = kind;
+            return count++;
+        }
+
+        int compile(Node node, int next) {
+            if (node instanceof CharNode)
+                return add(CHAR, next, -1, ((CharNode)node).set, 0);
+            if (node instanceof AssertNode)
+                return add(ASSERT, next, -1, null, ((AssertNode)node).kind);
+            if (node instanceof ConcatNode) {
+                List<Node> nodes = ((ConcatNode)node).nodes;
+                for (int i = nodes.size(); i > 0; )
+                    next = compile(nodes.get(--i), next);
+                return next;
+            }
+            if (node instanceof AltNode) {
+                List<Node> nodes = ((AltNode)node).nodes;
+                int i = nodes.size();
+                int state = compile(nodes.get(--i), next);
+                while (i > 0) {
+                    int alternative = compile(nodes.get(--i), next);
+                    state = add(SPLIT, alternative, state, null, 0);
+                }
+                return state;
+            }
+            RepeatNode repeat = (RepeatNode)node;
+            int state = next;
+            if (repeat.max < 0) {
+                int loop = add(SPLIT, -1, next, null, 0);
+                int body = compile(repeat.node, loop); // may reallocate the arrays, so assign separately
+                out1[loop] = body;
+                state = loop;
+            }
+            else {
+                for (int i = repeat.min; i < repeat.max; i++)
+                    state = add(SPLIT, compile(repeat.node, state), next, null, 0);
+            }
+            for (int i = 0; i < repeat.min; i++)
+                state = compile(repeat.node, state);
+            return state;
+        }
+
+    }
+
+    /**
+     * A recursive descent parser for the supported subset of {@link Pattern} syntax.  The expression has already been
+     * accepted by {@link Pattern#compile(String)} (or is expected to be), so the parser is concerned mainly with
+     * recognising the constructs it cannot handle.
+     */
+    private static final class Parser {
+
+        private final String s;
+        private final boolean dotAll;
+        private int i;
+
+        Parser(String s, boolean dotAll) {
+            this.s = s;
+            this.dotAll = dotAll;
+        }
+
+        Node parse() {
+            Node node = parseAlternation();
+            if (i < s.length())
+                throw error("Unmatched ')'");
+            return node;
+        }
+
+        private Node parseAlternation() {
+            Node node = parseConcatenation();
+            if (i >= s.length() || s.charAt(i) != '|')
+                return node;
+            List<Node> nodes = new ArrayList<>();
+            nodes.add(node);
+            while (i < s.length() && s.charAt(i) == '|') {
+                i++;
+                nodes.add(parseConcatenation());
+            }
+            return new AltNode(nodes);
+        }
+
+        private Node parseConcatenation() {
+            List<Node> nodes = new ArrayList<>();
+            while (i < s.length()) {
+                char ch = s.charAt(i);
+                if (ch == '|' || ch == ')')
+                    break;
+                parseRepetition(nodes);
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new ConcatNode(nodes);
+        }
+
+        private void parseRepetition(List<Node> nodes) {
+            int size = nodes.size();
+            parseAtom(nodes);
+            if (nodes.size() == size)
+                return; // empty quoted sequence
+            Node node = nodes.remove(nodes.size() - 1); // a quantifier applies to the last character of \Q...\E
+            while (i < s.length()) {
+                char ch = s.charAt(i);
+                int min;
+                int max;
+                if (ch == '*') {
+                    min = 0;
+                    max = -1;
+                    i++;
+                }
+                else if (ch == '+') {
+                    min = 1;
+                    max = -1;
+                    i++;
+                }
+                else if (ch == '?') {
+                    min = 0;
+                    max = 1;
+                    i++;
+                }
+                else if (ch == '{') {
+                    i++;
+                    min = parseNumber();
+                    max = min;
+                    if (i < s.length() && s.charAt(i) == ',') {
+                        i++;
+                        max = i < s.length() && s.charAt(i) == '}' ? -1 : parseNumber();
+                    }
+                    if (i >= s.length() || s.charAt(i) != '}' || max >= 0 && max < min)
+                        throw error("Illegal repetition");
+                    i++;
+                    if (min > maxRepeat || max > maxRepeat)
+                        throw error("Repetition count too large for linear engine");
+                }
+                else
+                    break;
+                if (i < s.length()) {
+                    ch = s.charAt(i);
+                    if (ch == '?') // reluctant - matches the same strings
+                        i++;
+                    else if (ch == '+')
+                        throw error("Possessive quantifier not supported by linear engine");
+                }
+                node = new RepeatNode(node, min, max);
+            }
+            nodes.add(node);
+        }
+
+        private int parseNumber() {
+            int start = i;
+            long value = 0;
+            while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                value = Math.min(value * 10 + s.charAt(i) - '0', Integer.MAX_VALUE);
+                i++;
+            }
+            if (i == start)
+                throw error("Illegal repetition");
+            return (int)value;
+        }
+
+        private void parseAtom(List<Node> nodes) {
+            int cp = s.codePointAt(i);
+            i += Character.charCount(cp);
+            switch (cp) {
+            case '(':
+                if (s.startsWith("?:", i))
+                    i += 2;
+                else if (s.startsWith("?", i))
+                    throw error("Group construct not supported by linear engine");
+                nodes.add(parseAlternation());
+                if (i >= s.length() || s.charAt(i) != ')')
+                    throw error("Unclosed group");
+                i++;
+                break;
+            case '[':
+                nodes.add(new CharNode(parseClass()));
+                break;
+            case '.':
+                nodes.add(new CharNode(dotAll ? CharSet.ANY : CharSet.DOT));
+                break;
+            case '^':
+                nodes.add(new AssertNode(BEGIN));
+                break;
+            case '$':
+                nodes.add(new AssertNode(END_LINE));
+                break;
+            case '\\':
+                parseEscape(nodes);
+                break;
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw error("Dangling meta character '" + (char)cp + '\'');
+            default:
+                nodes.add(new CharNode(CharSet.of(cp)));
+            }
+        }
+
+        private void parseEscape(List<Node> nodes) {
+            if (i >= s.length())
+                throw error("Unexpected end of pattern");
+            int cp = s.codePointAt(i);
+            i += Character.charCount(cp);
+            switch (cp) {
+            case 'A':
+                nodes.add(new AssertNode(BEGIN));
+                return;
+            case 'Z':
+                nodes.add(new AssertNode(END_LINE));
+                return;
+            case 'z':
+                nodes.add(new AssertNode(END_INPUT));
+                return;
+            case 'Q':
+                int end = s.indexOf("\\E", i);
+                if (end < 0)
+                    end = s.length();
+                while (i < end) {
+                    int ch = s.codePointAt(i);
+                    nodes.add(new CharNode(CharSet.of(ch)));
+                    i += Character.charCount(ch);
+                }
+                i = Math.min(end + 2, s.length());
+                return;
+            }
+            CharSet predefined = predefinedClass(cp);
+            nodes.add(new CharNode(predefined != null ? predefined : CharSet.of(escapedChar(cp))));
+        }
+
+        private CharSet parseClass() {
+            boolean negated = false;
+            if (i < s.length() && s.charAt(i) == '^') {
+                negated = true;
+                i++;
+            }
+            List<int[]> ranges = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (i >= s.length())
+                    throw error("Unclosed character class");
+                int cp = s.codePointAt(i);
+                if (cp == ']' && !first) {
+                    i++;
+                    break;
+                }
+                first = false;
+                if (cp == '[')
+                    throw error("Nested character class not supported by linear engine");
+                if (cp == '&' && s.startsWith("&&", i))
+                    throw error("Character class intersection not supported by linear engine");
+                i += Character.charCount(cp);
+                int low = cp;
+                if (cp == '\\') {
+                    if (i >= s.length())
+                        throw error("Unclosed character class");
+                    int escaped = s.codePointAt(i);
+                    i += Character.charCount(escaped);
+                    CharSet predefined = predefinedClass(escaped);
+                    if (predefined != null) {
+                        predefined.addTo(ranges);
+                        continue;
+                    }
+                    if (escaped == 'Q')
+                        throw error("Quoting within character class not supported by linear engine");
+                    low = escapedChar(escaped);
+                }
+                int high = low;
+                if (i + 1 < s.length() && s.charAt(i) == '-' && s.charAt(i + 1) != ']') {
+                    i++;
+                    high = s.codePointAt(i);
+                    i += Character.charCount(high);
+                    if (high == '[')
+                        throw error("Nested character class not supported by linear engine");
+                    if (high == '\\') {
+                        if (i >= s.length())
+                            throw error("Unclosed character class");
+                        int escaped = s.codePointAt(i);
+                        i += Character.charCount(escaped);
+                        if (predefinedClass(escaped) != null)
+                            throw error("Illegal character range");
+                        high = escapedChar(escaped);
+                    }
+                    if (high < low)
+                        throw error("Illegal character range");
+                }
+                ranges.add(new int[] { low, high });
+            }
+            CharSet set = CharSet.of(ranges);
+            return negated ? set.complement() : set;
+        }
+
+        private int escapedChar(int cp) {
+            switch (cp) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case '0':
+                int value = 0;
+                int digits = 0;
+                while (digits < 3 && i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '7' &&
+                        value * 8 + s.charAt(i) - '0' <= 0377) {
+                    value = value * 8 + s.charAt(i++) - '0';
+                    digits++;
+                }
+                if (digits == 0)
+                    throw error("Illegal octal escape sequence");
+                return value;
+            case 'x':
+                if (i < s.length() && s.charAt(i) == '{') {
+                    int close = s.indexOf('}', i);
+                    if (close < 0)
+                        throw error("Unclosed hexadecimal escape sequence");
+                    int result = parseHex(i + 1, close);
+                    i = close + 1;
+                    if (result > Character.MAX_CODE_POINT)
+                        throw error("Hexadecimal codepoint is too big");
+                    return result;
+                }
+                int result = parseHex(i, i + 2);
+                i += 2;
+                return result;
+            case 'u':
+                int unit = parseHex(i, i + 4);
+                i += 4;
+                if (Character.isHighSurrogate((char)unit) && s.startsWith("\\u", i) && i + 6 <= s.length()) {
+                    int low = parseHex(i + 2, i + 6);
+                    if (Character.isLowSurrogate((char)low)) {
+                        i += 6;
+                        return Character.toCodePoint((char)unit, (char)low);
+                    }
+                }
+                return unit;
+            }
+            if (cp < ASCII_LIMIT && Character.isLetterOrDigit(cp))
+                throw error("Escape sequence \\" + (char)cp + " not supported by linear engine");
+            return cp;
+        }
+
+        private int parseHex(int from, int to) {
+            if (to > s.length() || to <= from)
+                throw error("Illegal hexadecimal escape sequence");
+            int result = 0;
+            for (int j = from; j < to; j++) {
+                int digit = Character.digit(s.charAt(j), 16);
+                if (digit < 0 || result > Character.MAX_CODE_POINT)
+                    throw error("Illegal hexadecimal escape sequence");
+                result = result * 16 + digit;
+            }
+            return result;
+        }
+
+        private static CharSet predefinedClass(int cp) {
+            switch (cp) {
+            case 'd':
+                return CharSet.DIGIT;
+            case 'D':
+                return CharSet.DIGIT.complement();
+            case 's':
+                return CharSet.SPACE;
+            case 'S':
+                return CharSet.SPACE.complement();
+            case 'w':
+                return CharSet.WORD;
+            case 'W':
+                return CharSet.WORD.complement();
+            }
+            return null;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " near index " + i + ": " + s);
+        }
+
+    }
+
+    /**
+     * A set of code points, held as a sorted array of non-overlapping, non-adjacent inclusive ranges.
+     */
+    static final class CharSet {
+
+        static final CharSet ANY = new CharSet(new int[] { 0, Character.MAX_CODE_POINT });
+        static final CharSet DOT = of(Arrays.asList(new int[] { '\n', '\n' }, new int[] { '\r', '\r' },
+                new int[] { '\u0085', '\u0085' }, new int[] { '\u2028', '\u2029' })).complement();
+        static final CharSet DIGIT = new CharSet(new int[] { '0', '9' });
+        static final CharSet SPACE = new CharSet(new int[] { '\t', '\r', ' ', ' ' });
+        static final CharSet WORD = new CharSet(new int[] { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' });
+
+        final int[] ranges;
+
+        private CharSet(int[] ranges) {
+            this.ranges = ranges;
+        }
+
+        static CharSet of(int cp) {
+            return new CharSet(new int[] { cp, cp });
+        }
+
+        static CharSet of(List<int[]> list) {
+            int[][] sorted = list.toArray(new int[0][]);
+            Arrays.sort(sorted, (a, b) -> Integer.compare(a[0], b[0]));
+            int[] ranges = new int[sorted.length * 2];
+            int n = 0;
+            for (int[] range : sorted) {
+                if (n > 0 && range[0] <= ranges[n - 1] + 1)
+                    ranges[n - 1] = Math.max(ranges[n - 1], range[1]);
+                else {
+                    ranges[n++] = range[0];
+                    ranges[n++] = range[1];
+                }
+            }
+            return new CharSet(Arrays.copyOf(ranges, n));
+        }
+
+        CharSet complement() {
+            int[] result = new int[ranges.length + 2];
+            int n = 0;
+            int next = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > next) {
+                    result[n++] = next;
+                    result[n++] = ranges[i] - 1;
+                }
+                next = ranges[i + 1] + 1;
+            }
+            if (next <= Character.MAX_CODE_POINT) {
+                result[n++] = next;
+                result[n++] = Character.MAX_CODE_POINT;
+            }
+            return new CharSet(Arrays.copyOf(result, n));
+        }
+
+        void addTo(List<int[]> list) {
+            for (int i = 0; i < ranges.length; i += 2)
+                list.add(new int[] { ranges[i], ranges[i + 1] });
+        }
+
+        boolean contains(int cp) {
+            int lo = 0;
+            int hi = ranges.length >> 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cp < ranges[mid * 2])
+                    hi = mid;
+                else if (cp > ranges[mid * 2 + 1])
+                    lo = mid + 1;
+                else
+                    return true;
+            }
+            return false;
+        }
+
+        boolean isSingle() {
+            return ranges.length == 2 && ranges[0] == ranges[1];
+        }
+
+    }
+
+    abstract static class Node {
+    }
+
+    static final class CharNode extends Node {
+
+        final CharSet set;
+
+        CharNode(CharSet set) {
+            this.set = set;
+        }
+
+    }
+
+    static final class AssertNode extends Node {
+
+        final int kind;
+
+        AssertNode(int kind) {
+            this.kind = kind;
+        }
+
+    }
+
+    static final class ConcatNode extends Node {
+
+        final List<Node> nodes;
+
+        ConcatNode(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+    }
+
+    static final class AltNode extends Node {
+
+        final List<Node> nodes;
+
+        AltNode(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+    }
+
+    static final class RepeatNode extends Node {
+
+        final Node node;
+        final int min;
+        final int max;
+
+        RepeatNode(Node node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+    }
+
+}
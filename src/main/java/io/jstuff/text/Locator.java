@@ -0,0 +1,119 @@
+/*
+ * @(#) Locator.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Locates the spans matched by a list of alternatives, for the {@code find()} and {@code matchEnd()} functions of
+ * {@link AlternateMatcher} and {@link PlannedMatcher}.  Rather than each string-based alternative scanning the target
+ * separately, the alternatives are grouped by the form of span they match:
+ * <ul>
+ *   <li>{@link SimpleMatcher}s and {@link ContainsMatcher}s (a span is an occurrence of the string) are combined into
+ *       a {@link ContainsAnyMatcher}</li>
+ *   <li>{@link StartsWithMatcher}s (a span runs from an occurrence of the string to the end of the target) are
+ *       combined into a second {@link ContainsAnyMatcher}</li>
+ *   <li>{@link EndsWithMatcher}s (a span runs to the end of a target ending with the string) are combined into a
+ *       {@link CompiledSetMatcher}</li>
+ * </ul>
+ * A group with only one member, and any other matcher, is evaluated individually.
+ *
+ * @author  Peter Wall
+ */
+final class Locator {
+
+    private final ContainsAnyMatcher spans;
+    private final ContainsAnyMatcher prefixes;
+    private final CompiledSetMatcher suffixes;
+    private final StringMatcher[] others;
+
+    Locator(StringMatcher[] matchers) {
+        MatcherGroups groups = new MatcherGroups(matchers);
+        List<StringMatcher> otherList = new ArrayList<>(groups.getOthers());
+        List<String> spanStrings = groups.strings(CompiledSetMatcher.Type.EXACT);
+        spanStrings.addAll(groups.strings(CompiledSetMatcher.Type.CONTAINS));
+        List<String> prefixStrings = groups.strings(CompiledSetMatcher.Type.PREFIX);
+        List<String> suffixStrings = groups.strings(CompiledSetMatcher.Type.SUFFIX);
+        spans = group(spanStrings) ? new ContainsAnyMatcher(spanStrings) : null;
+        prefixes = group(prefixStrings) ? new ContainsAnyMatcher(prefixStrings) : null;
+        suffixes = group(suffixStrings) ? CompiledSetMatcher.of(CompiledSetMatcher.Type.SUFFIX, suffixStrings) : null;
+        if (spans == null) {
+            otherList.addAll(groups.get(CompiledSetMatcher.Type.EXACT));
+            otherList.addAll(groups.get(CompiledSetMatcher.Type.CONTAINS));
+        }
+        if (prefixes == null)
+            otherList.addAll(groups.get(CompiledSetMatcher.Type.PREFIX));
+        if (suffixes == null)
+            otherList.addAll(groups.get(CompiledSetMatcher.Type.SUFFIX));
+        others = otherList.toArray(new StringMatcher[0]);
+    }
+
+    private static boolean group(List<String> strings) {
+        return strings.size() > 1;
+    }
+
+    int find(CharSequence target, int from) {
+        int n = target.length();
+        int result = -1;
+        if (suffixes != null && suffixes.matches(target, from, n))
+            return from;
+        if (spans != null)
+            result = spans.find(target, from);
+        if (result != from && prefixes != null)
+            result = earliest(result, prefixes.find(target, from));
+        for (int i = 0; i < others.length && result != from; i++)
+            result = earliest(result, others[i].find(target, from));
+        return result;
+    }
+
+    private static int earliest(int result, int start) {
+        return start >= 0 && (result < 0 || start < result) ? start : result;
+    }
+
+    int matchEnd(CharSequence target, int start) {
+        int n = target.length();
+        if (suffixes != null && suffixes.matches(target, start, n) ||
+                prefixes != null && prefixes.matchEnd(target, start) >= 0)
+            return n;
+        int result = spans != null ? spans.matchEnd(target, start) : -1;
+        for (int i = 0; i < others.length && result != n; i++)
+            result = Math.max(result, others[i].matchEnd(target, start));
+        return result;
+    }
+
+    long estimatedRetainedBytes() {
+        long result = Footprint.object(4 * Footprint.REFERENCE) + Footprint.array(others.length, Footprint.REFERENCE);
+        if (spans != null)
+            result += spans.estimatedRetainedBytes();
+        if (prefixes != null)
+            result += prefixes.estimatedRetainedBytes();
+        if (suffixes != null)
+            result += suffixes.estimatedRetainedBytes();
+        return result;
+    }
+
+}
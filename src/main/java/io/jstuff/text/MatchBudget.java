@@ -0,0 +1,232 @@
+/*
+ * @(#) MatchBudget.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A budget for a matching operation, to bound the time taken by pathological combinations of pattern and target.  The
+ * budget may limit the number of steps (each step is a unit of work in the inner loop of a matcher, for example a
+ * character examined), and it may set a deadline; it may also be cancelled from another thread.
+ *
+ * <p>A {@code MatchBudget} is intended for use by a single matching thread (other than {@link #cancel()}), and once
+ * exceeded it remains exceeded.  The deadline and the cancellation flag are checked every {@link #checkInterval}
+ * steps.</p>
+ *
+ * @author  Peter Wall
+ */
+public final class MatchBudget {
+
+    public static final int checkInterval = 1024;
+
+    private final long maxSteps;
+    private final long deadline;
+    private final boolean hasDeadline;
+    private long steps;
+    private boolean exceeded;
+    private volatile boolean cancelled;
+
+    /**
+     * Create a {@code MatchBudget} with the specified step limit and timeout.
+     *
+     * @param   maxSteps    the maximum number of steps ({@link Long#MAX_VALUE} for no limit)
+     * @param   timeout     the timeout, measured from the creation of the budget ({@code null} for no deadline)
+     * @throws  IllegalArgumentException    if the step limit or the timeout is negative
+     */
+    public MatchBudget(long maxSteps, Duration timeout) {
+        if (maxSteps < 0)
+            throw new IllegalArgumentException("Step limit must not be negative");
+        this.maxSteps = maxSteps;
+        if (timeout != null) {
+            if (timeout.isNegative())
+                throw new IllegalArgumentException("Timeout must not be negative");
+            long nanos;
+            try {
+                nanos = timeout.toNanos();
+            }
+            catch (ArithmeticException e) {
+                nanos = Long.MAX_VALUE;
+            }
+            deadline = System.nanoTime() + Math.min(nanos, Long.MAX_VALUE >> 1);
+            hasDeadline = true;
+        }
+        else {
+            deadline = 0;
+            hasDeadline = false;
+        }
+    }
+
+    /**
+     * Create a {@code MatchBudget} with the specified step limit and no deadline.
+     *
+     * @param   maxSteps    the maximum number of steps
+     * @return              the {@code MatchBudget}
+     */
+    public static MatchBudget steps(long maxSteps) {
+        return new MatchBudget(maxSteps, null);
+    }
+
+    /**
+     * Create a {@code MatchBudget} with the specified timeout and no step limit.
+     *
+     * @param   timeout     the timeout
+     * @return              the {@code MatchBudget}
+     */
+    public static MatchBudget timeout(Duration timeout) {
+        return new MatchBudget(Long.MAX_VALUE, Objects.requireNonNull(timeout, "Timeout must not be null"));
+    }
+
+    /**
+     * Create a {@code MatchBudget} with no step limit and no deadline; it will be exceeded only if cancelled.
+     *
+     * @return              the {@code MatchBudget}
+     */
+    public static MatchBudget unlimited() {
+        return new MatchBudget(Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Count a step, and check whether the budget has been exceeded.
+     *
+     * @throws  BudgetExceededException if the step limit has been reached, the deadline has passed or the budget has
+     *                                  been cancelled
+     */
+    public void step() {
+        if (exceeded || ++steps > maxSteps ||
+                (steps & (checkInterval - 1)) == 0 && (cancelled || hasDeadline && System.nanoTime() - deadline > 0))
+            throw exceeded();
+    }
+
+    /**
+     * Count a number of steps, and check whether the budget has been exceeded (the deadline and cancellation flag are
+     * always checked).
+     *
+     * @param   count       the number of steps
+     * @throws  BudgetExceededException if the budget has been exceeded
+     */
+    public void step(long count) {
+        steps = count > maxSteps - steps ? Long.MAX_VALUE : steps + count;
+        if (exceeded || steps > maxSteps || cancelled || hasDeadline && System.nanoTime() - deadline > 0)
+            throw exceeded();
+    }
+
+    private BudgetExceededException exceeded() {
+        exceeded = true;
+        if (cancelled)
+            return new BudgetExceededException("Match cancelled");
+        if (steps > maxSteps)
+            return new BudgetExceededException("Step limit exceeded");
+        return new BudgetExceededException("Deadline exceeded");
+    }
+
+    /**
+     * Cancel the matching operation using this budget (may be called from any thread).  The operation will end with
+     * {@link MatchResult#BUDGET_EXCEEDED} at its next check.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Test whether the budget has been cancelled or its deadline has passed, without counting a step.  Unlike the
+     * other functions (other than {@link #cancel()}), this may be called from any thread, for example by matchers that
+     * divide their work between threads.
+     *
+     * @return  {@code true} if the budget has been cancelled or the deadline has passed
+     */
+    public boolean isExpired() {
+        return cancelled || hasDeadline && System.nanoTime() - deadline > 0;
+    }
+
+    /**
+     * Test whether the budget has been found to be exceeded (by a call to {@link #step()}).
+     *
+     * @return  {@code true} if the budget has been exceeded
+     */
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * Wrap a {@link CharSequence} so that every character access counts as a step against this budget.  This allows
+     * a matcher with no knowledge of budgets (for example, one using {@link java.util.regex}) to be run under a
+     * budget; the matcher will be interrupted by a {@link BudgetExceededException} from {@link CharSequence#charAt}.
+     *
+     * @param   target      the {@link CharSequence}
+     * @return              the wrapped {@link CharSequence}
+     */
+    public CharSequence wrap(CharSequence target) {
+        return new BudgetedCharSequence(Objects.requireNonNull(target, "Target must not be null"), this);
+    }
+
+    private static final class BudgetedCharSequence implements CharSequence {
+
+        private final CharSequence target;
+        private final MatchBudget budget;
+
+        BudgetedCharSequence(CharSequence target, MatchBudget budget) {
+            this.target = target;
+            this.budget = budget;
+        }
+
+        @Override
+        public int length() {
+            return target.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            budget.step();
+            return target.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetedCharSequence(target.subSequence(start, end), budget);
+        }
+
+        @Override
+        public String toString() {
+            budget.step(target.length());
+            return target.toString();
+        }
+
+    }
+
+}
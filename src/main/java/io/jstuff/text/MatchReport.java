@@ -0,0 +1,113 @@
+/*
+ * @(#) MatchReport.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A report on the evaluation of a {@link StringMatcher}, as returned by
+ * {@link StringMatcher#explain(CharSequence) explain()}.  For a compound matcher (<i>e.g.</i> {@link AlternateMatcher})
+ * the report includes a report for each of the component matchers that was evaluated.
+ *
+ * @author  Peter Wall
+ */
+public final class MatchReport {
+
+    private final StringMatcher matcher;
+    private final boolean matched;
+    private final long charsExamined;
+    private final long elapsedNanos;
+    private final List<MatchReport> children;
+
+    /**
+     * Create a {@code MatchReport}.
+     *
+     * @param   matcher         the {@link StringMatcher}
+     * @param   matched         the result of the match
+     * @param   charsExamined   the number of characters examined (including those examined by the children)
+     * @param   elapsedNanos    the elapsed time in nanoseconds
+     * @param   children        the reports for the component matchers evaluated (in order of evaluation)
+     */
+    public MatchReport(StringMatcher matcher, boolean matched, long charsExamined, long elapsedNanos,
+            List<MatchReport> children) {
+        this.matcher = Objects.requireNonNull(matcher, "Matcher must not be null");
+        this.matched = matched;
+        this.charsExamined = charsExamined;
+        this.elapsedNanos = elapsedNanos;
+        this.children = children == null || children.isEmpty() ? Collections.emptyList() :
+                Collections.unmodifiableList(children);
+    }
+
+    public StringMatcher getMatcher() {
+        return matcher;
+    }
+
+    public boolean isMatched() {
+        return matched;
+    }
+
+    /**
+     * Get the number of characters examined; a character examined more than once is counted each time.
+     *
+     * @return      the number of characters examined
+     */
+    public long getCharsExamined() {
+        return charsExamined;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public List<MatchReport> getChildren() {
+        return children;
+    }
+
+    /**
+     * Create a multi-line representation of the report, with the reports for the component matchers indented below
+     * the report for the compound matcher.
+     *
+     * @return      the report as a string
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb, 0);
+        return sb.toString();
+    }
+
+    private void appendTo(StringBuilder sb, int depth) {
+        for (int i = 0; i < depth; i++)
+            sb.append("  ");
+        sb.append(matcher.getClass().getSimpleName()).append(": ").append(matched ? "MATCH" : "NO_MATCH");
+        sb.append(" (").append(charsExamined).append(" chars, ").append(elapsedNanos).append(" ns)\n");
+        for (MatchReport child : children)
+            child.appendTo(sb, depth + 1);
+    }
+
+}
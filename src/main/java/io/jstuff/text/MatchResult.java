@@ -0,0 +1,52 @@
+/*
+ * @(#) MatchResult.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+/**
+ * The result of a budgeted match (see {@link StringMatcher#matches(CharSequence, MatchBudget)}).
+ *
+ * @author  Peter Wall
+ */
+public enum MatchResult {
+
+    /** The target matched. */
+    MATCH,
+    /** The target did not match. */
+    NO_MATCH,
+    /** The {@link MatchBudget} was exhausted (or cancelled) before the result could be determined. */
+    BUDGET_EXCEEDED;
+
+    /**
+     * Convert a {@code boolean} match result to a {@code MatchResult}.
+     *
+     * @param   matched     {@code true} if the target matched
+     * @return              {@link #MATCH} or {@link #NO_MATCH}
+     */
+    public static MatchResult of(boolean matched) {
+        return matched ? MATCH : NO_MATCH;
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * @(#) MatcherAlgebra.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The implementation of {@link StringMatcher#and(StringMatcher...) and()}, {@link StringMatcher#or(StringMatcher...)
+ * or()} and {@link StringMatcher#not(StringMatcher) not()}.  The operands are simplified before the combined matcher is
+ * created:
+ * <ul>
+ *   <li>nested combinations of the same kind are flattened, and duplicate operands removed</li>
+ *   <li>constants are folded ({@code x AND FALSE} is {@code FALSE}, {@code x OR FALSE} is {@code x} <i>etc.</i>)</li>
+ *   <li>contradictions are detected ({@code x AND NOT x}, or two different exact strings, is {@code FALSE}; and
+ *       {@code x OR NOT x} is {@code TRUE})</li>
+ *   <li>the operands are ordered by estimated cost, so that the cheapest tests are tried first</li>
+ * </ul>
+ * If every operand can be converted to an automaton (a {@link PatternMatcher} using the linear engine, a
+ * {@link WildcardMatcher} or one of the fixed string matchers) and at least one of them is a pattern, the operands are
+ * fused into a single automaton which evaluates all of them in one pass over the target.
+ *
+ * @author  Peter Wall
+ */
+final class MatcherAlgebra {
+
+    private MatcherAlgebra() {
+    }
+
+    static StringMatcher and(StringMatcher[] matchers) {
+        Set<StringMatcher> operands = new LinkedHashSet<>();
+        for (StringMatcher matcher : Objects.requireNonNull(matchers, "Matchers list must not be null")) {
+            Objects.requireNonNull(matcher, "Matcher must not be null");
+            if (matcher instanceof AllMatcher)
+                operands.addAll(((AllMatcher)matcher).getMatchers());
+            else if (matcher instanceof FusedMatcher && ((FusedMatcher)matcher).isRequireAll())
+                operands.addAll(((FusedMatcher)matcher).getMatchers());
+            else
+                operands.add(matcher);
+        }
+        operands.remove(ConstantMatcher.TRUE);
+        if (operands.contains(ConstantMatcher.FALSE))
+            return ConstantMatcher.FALSE;
+        String exact = null;
+        for (StringMatcher operand : operands) {
+            if (operand instanceof NotMatcher && operands.contains(((NotMatcher)operand).getMatcher()))
+                return ConstantMatcher.FALSE;
+            if (operand instanceof SimpleMatcher) {
+                String string = ((SimpleMatcher)operand).getString();
+                if (exact != null && !exact.equals(string))
+                    return ConstantMatcher.FALSE; // the target can not be equal to two different strings
+                exact = string;
+            }
+        }
+        if (operands.isEmpty())
+            return ConstantMatcher.TRUE;
+        return combine(operands, true);
+    }
+
+    static StringMatcher or(StringMatcher[] matchers) {
+        Set<StringMatcher> operands = new LinkedHashSet<>();
+        for (StringMatcher matcher : Objects.requireNonNull(matchers, "Matchers list must not be null")) {
+            Objects.requireNonNull(matcher, "Matcher must not be null");
+            if (matcher instanceof AlternateMatcher)
+                operands.addAll(((AlternateMatcher)matcher).getMatchers());
+            else if (matcher instanceof FusedMatcher && !((FusedMatcher)matcher).isRequireAll())
+                operands.addAll(((FusedMatcher)matcher).getMatchers());
+            else
+                operands.add(matcher);
+        }
+        operands.remove(ConstantMatcher.FALSE);
+        if (operands.contains(ConstantMatcher.TRUE))
+            return ConstantMatcher.TRUE;
+        for (StringMatcher operand : operands)
+            if (operand instanceof NotMatcher && operands.contains(((NotMatcher)operand).getMatcher()))
+                return ConstantMatcher.TRUE;
+        if (operands.isEmpty())
+            return ConstantMatcher.FALSE;
+        return combine(operands, false);
+    }
+
+    static StringMatcher not(StringMatcher matcher) {
+        Objects.requireNonNull(matcher, "Matcher must not be null");
+        if (matcher instanceof ConstantMatcher)
+            return ConstantMatcher.of(!((ConstantMatcher)matcher).getValue());
+        if (matcher instanceof NotMatcher)
+            return ((NotMatcher)matcher).getMatcher();
+        return new NotMatcher(matcher);
+    }
+
+    private static StringMatcher combine(Set<StringMatcher> operands, boolean all) {
+        if (operands.size() == 1)
+            return operands.iterator().next();
+        List<StringMatcher> list = new ArrayList<>(operands);
+        list.sort(Comparator.comparingInt(MatcherAlgebra::cost)); // a stable sort, so equal costs keep their order
+        StringMatcher[] array = list.toArray(new StringMatcher[0]);
+        StringMatcher fused = fuse(array, all);
+        if (fused != null)
+            return fused;
+        return all ? new AllMatcher(array) : new AlternateMatcher(array);
+    }
+
+    private static StringMatcher fuse(StringMatcher[] matchers, boolean all) {
+        if (matchers.length > LinearRegex.maxComponents)
+            return null;
+        LinearRegex.Node[] nodes = new LinearRegex.Node[matchers.length];
+        boolean pattern = false;
+        for (int i = 0; i < matchers.length; i++) {
+            StringMatcher matcher = matchers[i];
+            if (matcher instanceof PatternMatcher || matcher instanceof WildcardMatcher)
+                pattern = true;
+            if ((nodes[i] = toNode(matcher)) == null)
+                return null;
+        }
+        if (!pattern)
+            return null;
+        try {
+            return new FusedMatcher(matchers, nodes, all);
+        }
+        catch (IllegalArgumentException e) {
+            return null; // automaton too large
+        }
+    }
+
+    /**
+     * Convert a matcher to a syntax tree for the linear regular expression engine, if possible.
+     *
+     * @param   matcher     the matcher
+     * @return              the syntax tree, or {@code null} if the matcher can not be converted
+     */
+    static LinearRegex.Node toNode(StringMatcher matcher) {
+        if (matcher instanceof PatternMatcher) {
+            LinearRegex linearRegex = ((PatternMatcher)matcher).getLinearRegex();
+            return linearRegex != null ? linearRegex.getNode() : null;
+        }
+        if (matcher instanceof WildcardMatcher)
+            return ((WildcardMatcher)matcher).toNode();
+        if (matcher instanceof SimpleMatcher)
+            return literal(((SimpleMatcher)matcher).getString(), true, true);
+        if (matcher instanceof StartsWithMatcher)
+            return literal(((StartsWithMatcher)matcher).getString(), true, false);
+        if (matcher instanceof EndsWithMatcher)
+            return literal(((EndsWithMatcher)matcher).getString(), false, true);
+        if (matcher instanceof ContainsMatcher)
+            return literal(((ContainsMatcher)matcher).getString(), false, false);
+        return null;
+    }
+
+    private static LinearRegex.Node literal(String string, boolean anchorStart, boolean anchorEnd) {
+        List<LinearRegex.Node> nodes = new ArrayList<>();
+        if (anchorStart)
+            nodes.add(new LinearRegex.AssertNode(LinearRegex.BEGIN));
+        for (int i = 0, n = string.length(); i < n; i++) {
+            char ch = string.charAt(i);
+            if (Character.isSurrogate(ch))
+                return null; // the engine works on code points, so would not match a surrogate the same way
+            nodes.add(new LinearRegex.CharNode(LinearRegex.CharSet.of(ch)));
+        }
+        if (anchorEnd)
+            nodes.add(new LinearRegex.AssertNode(LinearRegex.END_INPUT));
+        return new LinearRegex.ConcatNode(nodes);
+    }
+
+    /**
+     * Estimate the relative cost of evaluating a matcher (lower is cheaper).
+     *
+     * @param   matcher     the matcher
+     * @return              the estimated cost
+     */
+    static int cost(StringMatcher matcher) {
+        if (matcher instanceof ConstantMatcher)
+            return 0;
+        if (matcher instanceof SimpleMatcher || matcher instanceof StartsWithMatcher ||
+                matcher instanceof EndsWithMatcher || matcher instanceof CaseInsensitiveMatcher)
+            return 1;
+        if (matcher instanceof PerfectHashMatcher || matcher instanceof CompiledSetMatcher ||
+                matcher instanceof BloomFilterMatcher)
+            return 2;
+        if (matcher instanceof ContainsMatcher || matcher instanceof ContainsAnyMatcher)
+            return 3;
+        if (matcher instanceof WildcardMatcher || matcher instanceof PathGlobMatcher)
+            return 4;
+        if (matcher instanceof FusedMatcher || matcher instanceof PlannedMatcher)
+            return 5;
+        if (matcher instanceof PatternMatcher)
+            return ((PatternMatcher)matcher).isLinear() ? 5 : 7;
+        if (matcher instanceof FuzzyMatcher || matcher instanceof FuzzySetMatcher)
+            return 6;
+        if (matcher instanceof NotMatcher)
+            return cost(((NotMatcher)matcher).getMatcher());
+        if (matcher instanceof AllMatcher)
+            return compoundCost(((AllMatcher)matcher).getMatchers());
+        if (matcher instanceof AlternateMatcher)
+            return compoundCost(((AlternateMatcher)matcher).getMatchers());
+        return 8; // unknown, e.g. a lambda
+    }
+
+    private static int compoundCost(List<StringMatcher> matchers) {
+        int result = 0;
+        for (StringMatcher matcher : matchers)
+            result = Math.max(result, cost(matcher));
+        return result + 1;
+    }
+
+}
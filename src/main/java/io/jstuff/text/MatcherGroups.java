@@ -0,0 +1,110 @@
+/*
+ * @(#) MatcherGroups.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The alternatives of a compound matcher, partitioned by type: the string-based matchers ({@link SimpleMatcher},
+ * {@link StartsWithMatcher}, {@link EndsWithMatcher} and {@link ContainsMatcher}) are grouped by the
+ * {@link CompiledSetMatcher.Type} of set that could hold their strings, and the remaining matchers are kept in their
+ * original order.  This is the common first step of {@link AlternateMatcher#compact()}, {@link PlannedMatcher} and
+ * {@link Locator}, each of which combines the members of a group into a single structure.
+ *
+ * @author  Peter Wall
+ */
+final class MatcherGroups {
+
+    private final Map<CompiledSetMatcher.Type, List<StringMatcher>> groups =
+            new EnumMap<>(CompiledSetMatcher.Type.class);
+    private final List<StringMatcher> others = new ArrayList<>();
+
+    MatcherGroups(StringMatcher[] matchers) {
+        for (StringMatcher matcher : matchers) {
+            CompiledSetMatcher.Type type = typeOf(matcher);
+            if (type == null)
+                others.add(matcher);
+            else
+                groups.computeIfAbsent(type, k -> new ArrayList<>()).add(matcher);
+        }
+    }
+
+    /**
+     * Get the matchers of a given type.
+     *
+     * @param   type    the {@link CompiledSetMatcher.Type}
+     * @return          the matchers (an empty list if there are none)
+     */
+    List<StringMatcher> get(CompiledSetMatcher.Type type) {
+        List<StringMatcher> group = groups.get(type);
+        return group != null ? group : Collections.emptyList();
+    }
+
+    /**
+     * Get the strings of the matchers of a given type.
+     *
+     * @param   type    the {@link CompiledSetMatcher.Type}
+     * @return          the strings, in the order of the matchers
+     */
+    List<String> strings(CompiledSetMatcher.Type type) {
+        List<StringMatcher> group = get(type);
+        List<String> result = new ArrayList<>(group.size());
+        for (StringMatcher matcher : group)
+            result.add(stringOf(matcher));
+        return result;
+    }
+
+    /**
+     * Get the matchers that are not string-based.
+     *
+     * @return          the other matchers
+     */
+    List<StringMatcher> getOthers() {
+        return others;
+    }
+
+    private static CompiledSetMatcher.Type typeOf(StringMatcher matcher) {
+        return matcher instanceof SimpleMatcher ? CompiledSetMatcher.Type.EXACT :
+                matcher instanceof StartsWithMatcher ? CompiledSetMatcher.Type.PREFIX :
+                matcher instanceof EndsWithMatcher ? CompiledSetMatcher.Type.SUFFIX :
+                matcher instanceof ContainsMatcher ? CompiledSetMatcher.Type.CONTAINS : null;
+    }
+
+    private static String stringOf(StringMatcher matcher) {
+        if (matcher instanceof SimpleMatcher)
+            return ((SimpleMatcher)matcher).getString();
+        if (matcher instanceof StartsWithMatcher)
+            return ((StartsWithMatcher)matcher).getString();
+        if (matcher instanceof EndsWithMatcher)
+            return ((EndsWithMatcher)matcher).getString();
+        return ((ContainsMatcher)matcher).getString();
+    }
+
+}
@@ -0,0 +1,277 @@
+/*
+ * @(#) MatcherInterner.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An interning factory for {@link StringMatcher}s.  Matchers are compared using their structural
+ * {@link Object#equals(Object) equals()} and {@link Object#hashCode() hashCode()}, so that (for example) two
+ * {@link WildcardMatcher}s created from the same pattern will be resolved to a single shared instance.
+ *
+ * <p>The interner holds its matchers by soft (or optionally weak) reference, so it will not prevent them from being
+ * garbage collected, and it holds at most the specified number of matchers, discarding the least recently used when
+ * the limit is reached.  Counts of hits and misses are maintained, to allow the effectiveness of interning to be
+ * monitored.</p>
+ *
+ * @author  Peter Wall
+ */
+public class MatcherInterner {
+
+    public static final int defaultMaxSize = 1024;
+
+    private static final MatcherInterner shared = new MatcherInterner(defaultMaxSize);
+
+    private final int maxSize;
+    private final boolean weak;
+    private final ReferenceQueue<StringMatcher> queue = new ReferenceQueue<>();
+    private final Map<Key, Key> map;
+    private long hits;
+    private long misses;
+
+    /**
+     * Construct a {@code MatcherInterner} with the specified maximum size, holding matchers by soft or weak reference.
+     *
+     * @param   maxSize     the maximum number of matchers to be held
+     * @param   weak        {@code true} to hold matchers by weak reference, {@code false} to use soft references
+     */
+    public MatcherInterner(int maxSize, boolean weak) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("Maximum size must be at least 1: " + maxSize);
+        this.maxSize = maxSize;
+        this.weak = weak;
+        map = new LinkedHashMap<Key, Key>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Key> eldest) {
+                return size() > MatcherInterner.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Construct a {@code MatcherInterner} with the specified maximum size, holding matchers by soft reference.
+     *
+     * @param   maxSize     the maximum number of matchers to be held
+     */
+    public MatcherInterner(int maxSize) {
+        this(maxSize, false);
+    }
+
+    /**
+     * Construct a {@code MatcherInterner} with the default maximum size, holding matchers by soft reference.
+     */
+    public MatcherInterner() {
+        this(defaultMaxSize, false);
+    }
+
+    /**
+     * Get the shared {@code MatcherInterner} used by {@link StringMatcher#intern(StringMatcher)}.
+     *
+     * @return      the shared {@code MatcherInterner}
+     */
+    public static MatcherInterner getShared() {
+        return shared;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isWeak() {
+        return weak;
+    }
+
+    /**
+     * Get the canonical instance of a {@link StringMatcher}: if a matcher equal to the one supplied is already held, that
+     * matcher is returned, otherwise the supplied matcher is added and returned.
+     *
+     * @param   matcher     the {@link StringMatcher}
+     * @param   <T>         the type of the matcher
+     * @return              the canonical instance
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends StringMatcher> T intern(T matcher) {
+        Objects.requireNonNull(matcher, "Matcher must not be null");
+        Key key = weak ? new WeakKey(matcher, queue) : new SoftKey(matcher, queue);
+        synchronized (map) {
+            expunge();
+            Key existing = map.get(key);
+            if (existing != null) {
+                StringMatcher result = existing.get();
+                if (result != null && result.getClass() == matcher.getClass()) {
+                    hits++;
+                    return (T)result;
+                }
+                map.remove(existing);
+            }
+            map.put(key, key);
+            misses++;
+            return matcher;
+        }
+    }
+
+    /**
+     * Get the number of matchers currently held (this may include matchers that have been garbage collected but not
+     * yet removed).
+     *
+     * @return      the number of matchers
+     */
+    public int size() {
+        synchronized (map) {
+            expunge();
+            return map.size();
+        }
+    }
+
+    /**
+     * Remove all matchers (the hit and miss counts are not reset).
+     */
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+            while (queue.poll() != null) {
+                // discard
+            }
+        }
+    }
+
+    /**
+     * Get the number of calls to {@link #intern(StringMatcher)} that returned an existing matcher.
+     *
+     * @return      the number of hits
+     */
+    public long getHits() {
+        synchronized (map) {
+            return hits;
+        }
+    }
+
+    /**
+     * Get the number of calls to {@link #intern(StringMatcher)} that added a new matcher.
+     *
+     * @return      the number of misses
+     */
+    public long getMisses() {
+        synchronized (map) {
+            return misses;
+        }
+    }
+
+    /**
+     * Get the proportion of calls to {@link #intern(StringMatcher)} that returned an existing matcher.
+     *
+     * @return      the hit rate (0.0 to 1.0), or 0.0 if there have been no calls
+     */
+    public double getHitRate() {
+        synchronized (map) {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double)hits / total;
+        }
+    }
+
+    /**
+     * Reset the hit and miss counts.
+     */
+    public void resetStatistics() {
+        synchronized (map) {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    private void expunge() {
+        Reference<? extends StringMatcher> ref;
+        while ((ref = queue.poll()) != null)
+            map.remove(ref); // entries are removed by identity, since a cleared key equals only itself
+    }
+
+    /**
+     * A map key holding a matcher by reference, along with the hash code of the matcher.
+     */
+    private interface Key {
+
+        StringMatcher get();
+
+        static boolean equals(Key key, Object obj) {
+            if (key == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            StringMatcher matcher = key.get();
+            return matcher != null && matcher.equals(((Key)obj).get());
+        }
+
+    }
+
+    private static final class SoftKey extends SoftReference<StringMatcher> implements Key {
+
+        private final int hash;
+
+        private SoftKey(StringMatcher matcher, ReferenceQueue<StringMatcher> queue) {
+            super(matcher, queue);
+            hash = matcher.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return Key.equals(this, obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    private static final class WeakKey extends WeakReference<StringMatcher> implements Key {
+
+        private final int hash;
+
+        private WeakKey(StringMatcher matcher, ReferenceQueue<StringMatcher> queue) {
+            super(matcher, queue);
+            hash = matcher.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return Key.equals(this, obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
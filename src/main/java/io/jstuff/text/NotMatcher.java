@@ -0,0 +1,101 @@
+/*
+ * @(#) NotMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * A {@link StringMatcher} that matches a target only if another matcher does not (the logical NOT of the matcher).
+ *
+ * @author  Peter Wall
+ */
+public class NotMatcher implements StringMatcher {
+
+    private final StringMatcher matcher;
+
+    public NotMatcher(StringMatcher matcher) {
+        this.matcher = Objects.requireNonNull(matcher, "Matcher must not be null");
+    }
+
+    public StringMatcher getMatcher() {
+        return matcher;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return !matcher.matches(target);
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return !matcher.matches(target, start, end);
+    }
+
+    @Override
+    public MatchResult matches(CharSequence target, MatchBudget budget) {
+        MatchResult result = matcher.matches(target, budget);
+        switch (result) {
+        case MATCH:
+            return MatchResult.NO_MATCH;
+        case NO_MATCH:
+            return MatchResult.MATCH;
+        default:
+            return result;
+        }
+    }
+
+    @Override
+    public MatchReport explain(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        long start = System.nanoTime();
+        MatchReport report = matcher.explain(target);
+        return new MatchReport(this, !report.isMatched(), report.getCharsExamined(), System.nanoTime() - start,
+                Collections.singletonList(report));
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(Footprint.REFERENCE) + matcher.estimatedRetainedBytes();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof NotMatcher))
+            return false;
+        return matcher.equals(((NotMatcher)obj).matcher);
+    }
+
+    @Override
+    public int hashCode() {
+        return ~matcher.hashCode();
+    }
+
+}
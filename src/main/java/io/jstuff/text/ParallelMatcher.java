@@ -0,0 +1,330 @@
+/*
+ * @(#) ParallelMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@link StringMatcher} that matches a target if any of a list of matchers matches (like {@link AlternateMatcher}),
+ * evaluating the matchers in parallel.  The list is divided into shards, which are evaluated as tasks in a
+ * {@link ForkJoinPool}; when a match is found, the remaining shards are cancelled cooperatively (each shard checks for
+ * cancellation before evaluating each matcher).  This is intended for the evaluation of a single target against a very
+ * large number of expensive matchers (for example, many thousands of {@link PatternMatcher}s), where the latency of a
+ * sequential evaluation would be too great; for smaller or cheaper sets, the cost of dividing the work will outweigh
+ * the benefit.
+ *
+ * <p>The {@link #matchAll(CharSequence)} function evaluates all the matchers, returning the set of those that
+ * match.</p>
+ *
+ * <p>The matchers may be called from several threads at once, so they must be thread-safe (as all the matchers in this
+ * library are), and they should not have side effects.</p>
+ *
+ * @author  Peter Wall
+ */
+public class ParallelMatcher implements StringMatcher {
+
+    private static final int ANY = 0;
+    private static final int ALL = 1;
+    private static final int FIND = 2;
+    private static final int MATCH_END = 3;
+
+    private final StringMatcher[] matchers;
+    private final ForkJoinPool pool;
+    private final int shardSize;
+
+    /**
+     * Construct a {@code ParallelMatcher} with the specified {@link ForkJoinPool} and shard size.
+     *
+     * @param   matchers    the matchers
+     * @param   pool        the {@link ForkJoinPool}
+     * @param   shardSize   the maximum number of matchers to be evaluated by a single task
+     * @throws  IllegalArgumentException    if the shard size is less than 1
+     */
+    public ParallelMatcher(StringMatcher[] matchers, ForkJoinPool pool, int shardSize) {
+        Objects.requireNonNull(matchers, "Matchers list must not be null");
+        for (StringMatcher matcher : matchers)
+            Objects.requireNonNull(matcher, "Matcher must not be null");
+        this.matchers = matchers.clone();
+        this.pool = Objects.requireNonNull(pool, "Pool must not be null");
+        if (shardSize < 1)
+            throw new IllegalArgumentException("Shard size must be at least 1");
+        this.shardSize = shardSize;
+    }
+
+    /**
+     * Construct a {@code ParallelMatcher} with the specified {@link ForkJoinPool}.  The shard size is chosen to divide
+     * the matchers into four shards for each thread of the pool.
+     *
+     * @param   matchers    the matchers
+     * @param   pool        the {@link ForkJoinPool}
+     */
+    public ParallelMatcher(StringMatcher[] matchers, ForkJoinPool pool) {
+        this(matchers, pool, defaultShardSize(matchers, pool));
+    }
+
+    /**
+     * Construct a {@code ParallelMatcher} using the common {@link ForkJoinPool}.
+     *
+     * @param   matchers    the matchers
+     */
+    public ParallelMatcher(StringMatcher[] matchers) {
+        this(matchers, ForkJoinPool.commonPool());
+    }
+
+    private static int defaultShardSize(StringMatcher[] matchers, ForkJoinPool pool) {
+        Objects.requireNonNull(matchers, "Matchers list must not be null");
+        int shards = Objects.requireNonNull(pool, "Pool must not be null").getParallelism() * 4;
+        return Math.max((matchers.length + shards - 1) / shards, 1);
+    }
+
+    public List<StringMatcher> getMatchers() {
+        return Collections.unmodifiableList(Arrays.asList(matchers));
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getShardSize() {
+        return shardSize;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return evaluate(ANY, target, start, end, null).matched;
+    }
+
+    /**
+     * Test whether the target matches, within the limits of a {@link MatchBudget}.  The deadline and the cancellation
+     * of the budget are checked by each shard before evaluating each matcher; the step limit is not applied, since the
+     * budget can not count the steps of several threads.
+     *
+     * @param   target      the target string
+     * @param   budget      the {@link MatchBudget}
+     * @return              the {@link MatchResult}
+     */
+    @Override
+    public MatchResult matches(CharSequence target, MatchBudget budget) {
+        Objects.requireNonNull(target, "Target must not be null");
+        Objects.requireNonNull(budget, "Budget must not be null");
+        Evaluation evaluation = evaluate(ANY, target, 0, target.length(), budget);
+        if (evaluation.matched)
+            return MatchResult.MATCH;
+        return evaluation.expired ? MatchResult.BUDGET_EXCEEDED : MatchResult.NO_MATCH;
+    }
+
+    /**
+     * Evaluate all the matchers against the target, returning the set of indices (in the list of matchers) of those
+     * that match.
+     *
+     * @param   target      the target string
+     * @return              a {@link BitSet} of the indices of the matching matchers
+     */
+    public BitSet matchAll(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matchAll(target, 0, target.length());
+    }
+
+    /**
+     * Evaluate all the matchers against a region of the target, returning the set of indices (in the list of matchers)
+     * of those that match.
+     *
+     * @param   target      the target string
+     * @param   start       the start index of the region
+     * @param   end         the end index of the region (exclusive)
+     * @return              a {@link BitSet} of the indices of the matching matchers
+     */
+    public BitSet matchAll(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return evaluate(ALL, target, start, end, null).hits;
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        StringMatcher.checkRegion(target, from, target.length());
+        return evaluate(FIND, target, from, target.length(), null).result;
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        return evaluate(MATCH_END, target, start, target.length(), null).result;
+    }
+
+    private Evaluation evaluate(int mode, CharSequence target, int start, int end, MatchBudget budget) {
+        Evaluation evaluation = new Evaluation(mode, target, start, end, budget);
+        int n = matchers.length;
+        if (n <= shardSize)
+            evaluation.evaluate(0, n);
+        else
+            pool.invoke(new Shard(evaluation, 0, n));
+        return evaluation;
+    }
+
+    @Override
+    public KeyRange keyRange() {
+        KeyRange result = KeyRange.EMPTY;
+        for (StringMatcher matcher : matchers)
+            result = result.span(matcher.keyRange());
+        return result;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(2 * Footprint.REFERENCE + 4) + Footprint.matchers(matchers);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ParallelMatcher))
+            return false;
+        return Arrays.equals(matchers, ((ParallelMatcher)obj).matchers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(matchers) ^ 0x50524C;
+    }
+
+    /**
+     * The state of a single evaluation, shared by the shards.
+     */
+    private final class Evaluation {
+
+        private final int mode;
+        private final CharSequence target;
+        private final int start;
+        private final int end;
+        private final MatchBudget budget;
+        private volatile boolean stop;
+        private volatile boolean matched;
+        private volatile boolean expired;
+        private final BitSet hits = new BitSet();
+        private int result = -1;
+
+        private Evaluation(int mode, CharSequence target, int start, int end, MatchBudget budget) {
+            this.mode = mode;
+            this.target = target;
+            this.start = start;
+            this.end = end;
+            this.budget = budget;
+        }
+
+        private void evaluate(int from, int to) {
+            BitSet shardHits = null;
+            for (int i = from; i < to && !stop; i++) {
+                if (budget != null && budget.isExpired()) {
+                    expired = true;
+                    stop = true;
+                    break;
+                }
+                StringMatcher matcher = matchers[i];
+                switch (mode) {
+                    case ANY:
+                        if (matcher.matches(target, start, end)) {
+                            matched = true;
+                            stop = true;
+                        }
+                        break;
+                    case ALL:
+                        if (matcher.matches(target, start, end)) {
+                            if (shardHits == null)
+                                shardHits = new BitSet();
+                            shardHits.set(i);
+                        }
+                        break;
+                    case FIND:
+                        int index = matcher.find(target, start);
+                        if (index >= 0)
+                            update(index, true);
+                        break;
+                    default:
+                        update(matcher.matchEnd(target, start), false);
+                        break;
+                }
+            }
+            if (shardHits != null) {
+                synchronized (this) {
+                    hits.or(shardHits);
+                }
+            }
+        }
+
+        /*
+         * Record the result of a find (the smallest index found) or a matchEnd (the largest index), stopping the
+         * evaluation if no better result is possible.
+         */
+        private synchronized void update(int index, boolean lowest) {
+            if (result < 0 || (lowest ? index < result : index > result))
+                result = index;
+            if (result == (lowest ? start : end))
+                stop = true;
+        }
+
+    }
+
+    private final class Shard extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Evaluation evaluation;
+        private final int from;
+        private final int to;
+
+        private Shard(Evaluation evaluation, int from, int to) {
+            this.evaluation = evaluation;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= shardSize || evaluation.stop)
+                evaluation.evaluate(from, to);
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Shard(evaluation, from, middle), new Shard(evaluation, middle, to));
+            }
+        }
+
+    }
+
+}
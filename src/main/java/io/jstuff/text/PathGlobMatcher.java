@@ -0,0 +1,279 @@
+/*
+ * @(#) PathGlobMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * A {@link StringMatcher} that matches paths against a &ldquo;glob&rdquo; pattern.  The pattern is divided into
+ * segments by the {@code /} separator, and each segment is matched against the corresponding segment of the path as a
+ * wildcard pattern (so that {@code *} and {@code ?} do not match the separator).  A segment consisting of {@code **}
+ * matches zero or more complete segments of the path.
+ *
+ * <p>The {@link #couldMatchUnder(CharSequence)} function allows a directory walker to skip entire directories that
+ * can not contain a match; the {@link #walk(Path, Consumer)} and {@link #parallelWalk(Path, Consumer)} functions
+ * make use of this.</p>
+ *
+ * @author  Peter Wall
+ */
+public class PathGlobMatcher implements StringMatcher {
+
+    public static final char separator = '/';
+    public static final String globStar = "**";
+
+    private final String pattern;
+    private final WildcardMatcher[] segments;
+
+    /**
+     * Construct a {@code PathGlobMatcher} with the given pattern.
+     *
+     * @param   pattern     the glob pattern
+     */
+    public PathGlobMatcher(String pattern) {
+        this.pattern = Objects.requireNonNull(pattern, "Pattern must not be null");
+        List<WildcardMatcher> list = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int end = pattern.indexOf(separator, start);
+            String segment = pattern.substring(start, end < 0 ? pattern.length() : end);
+            list.add(segment.equals(globStar) ? null : new WildcardMatcher(segment));
+            if (end < 0)
+                break;
+            start = end + 1;
+        }
+        segments = list.toArray(new WildcardMatcher[0]);
+    }
+
+    /**
+     * Get the pattern.
+     *
+     * @return      the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        boolean[] states = consume(target, start, end);
+        return states != null && states[segments.length];
+    }
+
+    /**
+     * Test whether any path under the given directory could match the pattern.  The directory is specified in the
+     * same form as the paths to be matched (relative to the same root), and an empty string represents the root.
+     *
+     * @param   directory   the directory
+     * @return              {@code true} if a path under the directory could match
+     */
+    public boolean couldMatchUnder(CharSequence directory) {
+        Objects.requireNonNull(directory, "Directory must not be null");
+        int end = directory.length();
+        if (end > 0 && directory.charAt(end - 1) == separator)
+            end--;
+        boolean[] states = end == 0 ? closure(initialStates()) : consume(directory, 0, end);
+        if (states == null)
+            return false;
+        for (int i = 0, n = segments.length; i < n; i++)
+            if (states[i])
+                return true;
+        return false;
+    }
+
+    /*
+     * Run the segment automaton over the segments of the path.  Each state represents the index of the next pattern
+     * segment to be matched; the result is the set of states after all path segments have been consumed, or null if
+     * the set becomes empty.
+     */
+    private boolean[] consume(CharSequence path, int start, int end) {
+        boolean[] states = closure(initialStates());
+        int segmentStart = start;
+        while (true) {
+            int segmentEnd = segmentStart;
+            while (segmentEnd < end && path.charAt(segmentEnd) != separator)
+                segmentEnd++;
+            boolean[] next = new boolean[segments.length + 1];
+            boolean any = false;
+            for (int i = 0, n = segments.length; i < n; i++) {
+                if (states[i]) {
+                    WildcardMatcher segment = segments[i];
+                    if (segment == null)
+                        any = next[i] = true;
+                    else if (segment.matches(path, segmentStart, segmentEnd))
+                        any = next[i + 1] = true;
+                }
+            }
+            if (!any)
+                return null;
+            states = closure(next);
+            if (segmentEnd == end)
+                return states;
+            segmentStart = segmentEnd + 1;
+        }
+    }
+
+    private boolean[] initialStates() {
+        boolean[] states = new boolean[segments.length + 1];
+        states[0] = true;
+        return states;
+    }
+
+    private boolean[] closure(boolean[] states) {
+        for (int i = 0, n = segments.length; i < n; i++)
+            if (states[i] && segments[i] == null)
+                states[i + 1] = true;
+        return states;
+    }
+
+    /**
+     * Walk a directory tree, passing each file whose path (relative to the root) matches the pattern to the
+     * {@link Consumer}.  Directories under which no path could match are not visited.
+     *
+     * @param   root        the root of the directory tree
+     * @param   consumer    the {@link Consumer}
+     * @throws  IOException on any errors reading the directory tree
+     */
+    public void walk(Path root, Consumer<? super Path> consumer) throws IOException {
+        Objects.requireNonNull(consumer, "Consumer must not be null");
+        Files.walkFileTree(Objects.requireNonNull(root, "Root must not be null"), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return dir.equals(root) || couldMatchUnder(relativePath(root, dir)) ? FileVisitResult.CONTINUE :
+                        FileVisitResult.SKIP_SUBTREE;
+            }
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (matches(relativePath(root, file)))
+                    consumer.accept(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Walk a directory tree in parallel (using the common {@link ForkJoinPool}), passing each file whose path
+     * (relative to the root) matches the pattern to the {@link Consumer}.  Directories under which no path could
+     * match are not visited.  The consumer may be called from multiple threads concurrently.
+     *
+     * @param   root        the root of the directory tree
+     * @param   consumer    the {@link Consumer}
+     * @throws  IOException on any errors reading the directory tree
+     */
+    public void parallelWalk(Path root, Consumer<? super Path> consumer) throws IOException {
+        Objects.requireNonNull(root, "Root must not be null");
+        Objects.requireNonNull(consumer, "Consumer must not be null");
+        try {
+            ForkJoinPool.commonPool().invoke(new WalkAction(root, root, consumer));
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class WalkAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path root;
+        private final Path directory;
+        private final Consumer<? super Path> consumer;
+
+        WalkAction(Path root, Path directory, Consumer<? super Path> consumer) {
+            this.root = root;
+            this.directory = directory;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            List<WalkAction> subActions = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    String relativePath = relativePath(root, path);
+                    // symbolic links are not followed (as in walk()), so a link to a directory is treated as a file
+                    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                        if (couldMatchUnder(relativePath))
+                            subActions.add(new WalkAction(root, path, consumer));
+                    }
+                    else if (matches(relativePath))
+                        consumer.accept(path);
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            invokeAll(subActions);
+        }
+
+    }
+
+    private static String relativePath(Path root, Path path) {
+        String relativePath = root.relativize(path).toString();
+        String fileSeparator = path.getFileSystem().getSeparator();
+        return fileSeparator.equals("/") ? relativePath : relativePath.replace(fileSeparator, "/");
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(2 * Footprint.REFERENCE) + Footprint.string(pattern) + Footprint.matchers(segments);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof PathGlobMatcher))
+            return false;
+        return pattern.equals(((PathGlobMatcher)obj).pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return pattern.hashCode();
+    }
+
+}
@@ -25,36 +25,202 @@
 
 package io.jstuff.text;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class PatternMatcher implements StringMatcher {
 
+    /**
+     * The regular expression engine to be used.
+     */
+    public enum Engine {
+        /** The backtracking {@link java.util.regex} engine (the default). */
+        BACKTRACKING,
+        /** The linear-time engine; patterns using unsupported constructs are rejected. */
+        LINEAR,
+        /** The linear-time engine, falling back to the backtracking engine for unsupported constructs. */
+        LINEAR_OR_BACKTRACKING
+    }
+
+    // a rough allowance for the node tree of a compiled Pattern, per character of the pattern
+    private static final int PATTERN_BYTES_PER_CHAR = 48;
+
     private final Pattern pattern;
+    private final Engine engine;
+    private final LinearRegex linearRegex;
 
     public PatternMatcher(Pattern pattern) {
+        this(pattern, Engine.BACKTRACKING);
+    }
+
+    /**
+     * Create a {@code PatternMatcher} using the specified engine.  The linear-time engine accepts only the subset of
+     * regular expression syntax that can be matched without backtracking (no back references, look-around, possessive
+     * quantifiers, word boundaries, Unicode property classes or flags other than {@link Pattern#DOTALL}), but its
+     * running time is guaranteed to be linear in the length of the target, so it is safe to use with patterns from
+     * untrusted sources.  Spans reported by {@link #matchEnd(CharSequence, int) matchEnd()} and
+     * {@link #findAll(CharSequence, SpanConsumer) findAll()} are leftmost-longest when the linear engine is in use.
+     *
+     * @param   pattern the {@link Pattern}
+     * @param   engine  the {@link Engine}
+     * @throws  IllegalArgumentException    if the engine is {@link Engine#LINEAR} and the pattern uses an unsupported
+     *                                      construct
+     */
+    public PatternMatcher(Pattern pattern, Engine engine) {
         this.pattern = Objects.requireNonNull(pattern, "Pattern must not be null");
+        this.engine = Objects.requireNonNull(engine, "Engine must not be null");
+        LinearRegex linearRegex = null;
+        if (engine != Engine.BACKTRACKING) {
+            try {
+                linearRegex = LinearRegex.compile(pattern);
+            }
+            catch (IllegalArgumentException e) {
+                if (engine == Engine.LINEAR)
+                    throw e;
+            }
+        }
+        this.linearRegex = linearRegex;
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Test whether this matcher is using the linear-time engine (the engine may be {@link Engine#LINEAR_OR_BACKTRACKING}
+     * but the pattern not supported by the linear engine).
+     *
+     * @return  {@code true} if the linear-time engine is in use
+     */
+    public boolean isLinear() {
+        return linearRegex != null;
+    }
+
+    LinearRegex getLinearRegex() {
+        return linearRegex;
     }
 
     @Override
     public boolean matches(CharSequence target) {
-        Matcher matcher = pattern.matcher(Objects.requireNonNull(target, "Target must not be null"));
+        Objects.requireNonNull(target, "Target must not be null");
+        if (linearRegex != null)
+            return linearRegex.search(target, 0, target.length());
+        Matcher matcher = pattern.matcher(target);
         return matcher.find();
     }
 
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        if (linearRegex != null)
+            return linearRegex.search(target, start, end);
+        return pattern.matcher(target).region(start, end).find();
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        StringMatcher.checkRegion(target, from, target.length());
+        if (linearRegex != null)
+            return linearRegex.find(target, from);
+        Matcher matcher = pattern.matcher(target);
+        return matcher.find(from) ? matcher.start() : -1;
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        if (linearRegex != null)
+            return linearRegex.matchEnd(target, start);
+        Matcher matcher = pattern.matcher(target).region(start, target.length());
+        matcher.useTransparentBounds(true).useAnchoringBounds(false);
+        return matcher.lookingAt() ? matcher.end() : -1;
+    }
+
+    @Override
+    public int findAll(CharSequence target, SpanConsumer consumer) {
+        if (linearRegex != null)
+            return StringMatcher.super.findAll(target, consumer);
+        Matcher matcher = pattern.matcher(Objects.requireNonNull(target, "Target must not be null"));
+        Objects.requireNonNull(consumer, "Consumer must not be null");
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+            if (!consumer.accept(matcher.start(), matcher.end()))
+                break;
+        }
+        return count;
+    }
+
+    /**
+     * Get the range of strings that can be matched.  If the pattern is anchored at the start of the target and starts
+     * with literal characters, the range is limited to strings starting with those characters.
+     *
+     * @return      the {@link KeyRange}
+     */
+    @Override
+    public KeyRange keyRange() {
+        LinearRegex.Node node;
+        if (linearRegex != null)
+            node = linearRegex.getNode();
+        else {
+            try {
+                node = LinearRegex.parse(pattern);
+            }
+            catch (IllegalArgumentException ignore) {
+                return KeyRange.ALL; // pattern too complex to analyse
+            }
+        }
+        if (!(node instanceof LinearRegex.ConcatNode))
+            return KeyRange.ALL;
+        List<LinearRegex.Node> nodes = ((LinearRegex.ConcatNode)node).nodes;
+        if (nodes.isEmpty() || !(nodes.get(0) instanceof LinearRegex.AssertNode) ||
+                ((LinearRegex.AssertNode)nodes.get(0)).kind != LinearRegex.BEGIN)
+            return KeyRange.ALL;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1, n = nodes.size(); i < n; i++) {
+            LinearRegex.Node child = nodes.get(i);
+            if (!(child instanceof LinearRegex.CharNode) || !((LinearRegex.CharNode)child).set.isSingle())
+                break;
+            sb.appendCodePoint(((LinearRegex.CharNode)child).set.ranges[0]);
+        }
+        return KeyRange.prefix(sb.toString());
+    }
+
+    /**
+     * Get an estimate of the heap memory retained by the matcher.  The size of the compiled form of a {@link Pattern}
+     * is not available, so an allowance proportional to the length of the pattern is made.  The automaton of the
+     * linear engine is built as input is encountered, so its estimate reflects its size at the time of the call.
+     *
+     * @return      the estimated retained size, in bytes
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        String regex = pattern.pattern();
+        long result = Footprint.object(3 * Footprint.REFERENCE) + Footprint.object(8 * Footprint.REFERENCE + 6 * 4) +
+                Footprint.string(regex) + (long)regex.length() * PATTERN_BYTES_PER_CHAR;
+        return linearRegex != null ? result + linearRegex.estimatedRetainedBytes() : result;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
         if (!(obj instanceof PatternMatcher))
             return false;
-        return pattern.equals(((PatternMatcher)obj).pattern);
+        PatternMatcher other = (PatternMatcher)obj;
+        return pattern.pattern().equals(other.pattern.pattern()) && pattern.flags() == other.pattern.flags() &&
+                engine == other.engine;
     }
 
     @Override
     public int hashCode() {
-        return pattern.hashCode();
+        return pattern.pattern().hashCode() ^ pattern.flags();
     }
 
 }
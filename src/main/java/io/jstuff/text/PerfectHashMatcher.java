@@ -0,0 +1,250 @@
+/*
+ * @(#) PerfectHashMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link StringMatcher} that tests whether the target is equal to any of a static set of strings, using a minimal
+ * perfect hash function (compiled when the matcher is constructed, using the &ldquo;hash and displace&rdquo; method).
+ * Each lookup computes at most two hashes of the target, and makes a single comparison with the only string that could
+ * possibly match.
+ *
+ * @author  Peter Wall
+ */
+public class PerfectHashMatcher implements StringMatcher {
+
+    public static final int maxSeed = 100_000_000;
+
+    private final String[] keys;
+    private final int[] seeds;
+    private final int[] lengths;
+
+    /**
+     * Construct a {@code PerfectHashMatcher} from a {@link Collection} of strings.
+     *
+     * @param   strings     the strings
+     * @throws  IllegalStateException   if (improbably) no perfect hash function can be found
+     */
+    public PerfectHashMatcher(Collection<String> strings) {
+        Set<String> set = new LinkedHashSet<>();
+        for (String string : Objects.requireNonNull(strings, "Strings must not be null"))
+            set.add(Objects.requireNonNull(string, "String must not be null"));
+        String[] entries = set.toArray(new String[0]);
+        int n = entries.length;
+        keys = new String[n];
+        seeds = new int[Math.max((n + 1) / 2, 1)];
+        if (n > 0)
+            compile(entries);
+        // the distinct lengths of the strings, longest first, for locating spans
+        lengths = set.stream().mapToInt(String::length).distinct().sorted().toArray();
+        for (int i = 0, j = lengths.length - 1; i < j; i++, j--) {
+            int length = lengths[i];
+            lengths[i] = lengths[j];
+            lengths[j] = length;
+        }
+    }
+
+    private void compile(String[] entries) {
+        int n = entries.length;
+        int bucketCount = seeds.length;
+        // sort the entries into buckets (using a counting sort)
+        int[] bucketStart = new int[bucketCount + 1];
+        int[] entryBucket = new int[n];
+        for (int i = 0; i < n; i++) {
+            String entry = entries[i];
+            int bucket = Math.floorMod(Hashing.hash(entry, 0, entry.length(), 0), bucketCount);
+            entryBucket[i] = bucket;
+            bucketStart[bucket + 1]++;
+        }
+        int maxSize = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            maxSize = Math.max(maxSize, bucketStart[i + 1]);
+            bucketStart[i + 1] += bucketStart[i];
+        }
+        int[] bucketEntries = new int[n];
+        int[] fill = Arrays.copyOf(bucketStart, bucketCount);
+        for (int i = 0; i < n; i++)
+            bucketEntries[fill[entryBucket[i]]++] = i;
+        // place the buckets in descending order of size, finding a seed for each that maps its entries to free slots
+        int[] slots = new int[maxSize];
+        for (int size = maxSize; size > 1; size--) {
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                int first = bucketStart[bucket];
+                if (bucketStart[bucket + 1] - first != size)
+                    continue;
+                int seed = 1;
+                while (!trySeed(entries, bucketEntries, first, size, seed, slots)) {
+                    if (++seed > maxSeed)
+                        throw new IllegalStateException("Can't find perfect hash function");
+                }
+                for (int i = 0; i < size; i++)
+                    keys[slots[i]] = entries[bucketEntries[first + i]];
+                seeds[bucket] = seed;
+            }
+        }
+        // the remaining single-entry buckets can be placed directly in the free slots
+        int freeSlot = 0;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            int first = bucketStart[bucket];
+            if (bucketStart[bucket + 1] - first != 1)
+                continue;
+            while (keys[freeSlot] != null)
+                freeSlot++;
+            keys[freeSlot] = entries[bucketEntries[first]];
+            seeds[bucket] = -freeSlot - 1;
+        }
+    }
+
+    private boolean trySeed(String[] entries, int[] bucketEntries, int first, int size, int seed, int[] slots) {
+        int n = keys.length;
+        for (int i = 0; i < size; i++) {
+            String entry = entries[bucketEntries[first + i]];
+            int slot = Math.floorMod(Hashing.hash(entry, 0, entry.length(), seed), n);
+            if (keys[slot] != null)
+                return false;
+            for (int j = 0; j < i; j++)
+                if (slots[j] == slot)
+                    return false;
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of strings in the set.
+     *
+     * @return      the number of strings
+     */
+    public int getCount() {
+        return keys.length;
+    }
+
+    /**
+     * Get the strings, in the order of the slots of the hash table.
+     *
+     * @return      the strings
+     */
+    public List<String> getKeys() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    /**
+     * Get the seeds for the buckets of the hash function.  A target is assigned to a bucket by the hash of the target
+     * with a seed of zero; the seed for the bucket is then zero if the bucket is empty, {@code -(slot + 1)} if the
+     * bucket holds a single string (placed in the slot), or otherwise the seed to be used for a second hash of the
+     * target, giving the slot.  This allows the hash table to be reproduced (for example, in generated code).
+     *
+     * @return      the seeds
+     */
+    public int[] getSeeds() {
+        return seeds.clone();
+    }
+
+    /**
+     * Compute the hash function used by the {@code PerfectHashMatcher}, for a region of a {@link CharSequence}.
+     *
+     * @param   cs      the {@link CharSequence}
+     * @param   start   the start index of the region
+     * @param   end     the end index of the region (exclusive)
+     * @param   seed    the seed
+     * @return          the hash
+     */
+    public static int hash(CharSequence cs, int start, int end, int seed) {
+        return Hashing.hash(cs, start, end, seed);
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        int slot = slot(target, start, end);
+        if (slot < 0)
+            return false;
+        String key = keys[slot];
+        return key.length() == end - start && StringMatcher.compareCS(target, start, key, 0, key.length());
+    }
+
+    /**
+     * Get the end index of the longest of the strings occurring at the specified position.  Each of the distinct
+     * lengths of the strings is tried in turn (longest first), with a single hash lookup for each.
+     *
+     * @param   target  the target string
+     * @param   start   the start index of the span
+     * @return          the end index of the span (exclusive), or -1 if none of the strings occurs at that position
+     */
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        int available = target.length() - start;
+        for (int length : lengths)
+            if (length <= available && matches(target, start, start + length))
+                return start + length;
+        return -1;
+    }
+
+    private int slot(CharSequence target, int start, int end) {
+        int n = keys.length;
+        if (n == 0)
+            return -1;
+        int seed = seeds[Math.floorMod(Hashing.hash(target, start, end, 0), seeds.length)];
+        if (seed == 0)
+            return -1;
+        return seed < 0 ? -seed - 1 : Math.floorMod(Hashing.hash(target, start, end, seed), n);
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(3 * Footprint.REFERENCE) + Footprint.strings(keys) + Footprint.array(seeds.length, 4) +
+                Footprint.array(lengths.length, 4);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof PerfectHashMatcher))
+            return false;
+        return Arrays.equals(keys, ((PerfectHashMatcher)obj).keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(keys);
+    }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * @(#) PlannedMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link StringMatcher} that matches a target if any of a list of matchers matches (like {@link AlternateMatcher}),
+ * but which partitions the matchers by type into specialised structures, so that a long list of rules may be tested
+ * without evaluating each rule in turn:
+ * <ul>
+ *   <li>{@link SimpleMatcher}s, {@link StartsWithMatcher}s and {@link EndsWithMatcher}s are combined into a
+ *       {@link CompiledSetMatcher} of each type, which walks its sorted strings as a trie along the target once
+ *       (backwards from the end of the target, for the suffixes)</li>
+ *   <li>{@link ContainsMatcher}s are combined into a {@link ContainsAnyMatcher} (an Aho-Corasick automaton)</li>
+ *   <li>{@link WildcardMatcher}s and {@link PatternMatcher}s using the linear engine are compiled together into
+ *       automata of up to 64 patterns each, which test all the patterns in a single pass</li>
+ *   <li>any other matchers are tested in turn, cheapest first</li>
+ * </ul>
+ *
+ * <p>Nested {@link AlternateMatcher}s are flattened.  The {@link #find(CharSequence, int) find()} and
+ * {@link #matchEnd(CharSequence, int) matchEnd()} functions locate spans as {@link AlternateMatcher} does: the
+ * string-based matchers are located together using a multi-string automaton for each type (built on first use), and
+ * the others are evaluated in turn.</p>
+ *
+ * @author  Peter Wall
+ */
+public class PlannedMatcher implements StringMatcher {
+
+    private final StringMatcher[] matchers;
+    private final CompiledSetMatcher exactSet;
+    private final CompiledSetMatcher prefixSet;
+    private final CompiledSetMatcher suffixSet;
+    private final ContainsAnyMatcher containsMatcher;
+    private final StringMatcher[] automata;
+    private final StringMatcher[] others;
+    private final int exactCount;
+    private final int prefixCount;
+    private final int suffixCount;
+    private final int automatonPatternCount;
+    private volatile Locator locator;
+
+    /**
+     * Construct a {@code PlannedMatcher} from a list of matchers.
+     *
+     * @param   matchers    the matchers
+     */
+    public PlannedMatcher(StringMatcher[] matchers) {
+        Objects.requireNonNull(matchers, "Matchers list must not be null");
+        Set<StringMatcher> set = new LinkedHashSet<>();
+        flatten(matchers, set);
+        this.matchers = set.toArray(new StringMatcher[0]);
+        MatcherGroups groups = new MatcherGroups(this.matchers);
+        exactSet = combine(groups, CompiledSetMatcher.Type.EXACT);
+        prefixSet = combine(groups, CompiledSetMatcher.Type.PREFIX);
+        suffixSet = combine(groups, CompiledSetMatcher.Type.SUFFIX);
+        List<String> substrings = groups.strings(CompiledSetMatcher.Type.CONTAINS);
+        containsMatcher = substrings.isEmpty() ? null : new ContainsAnyMatcher(substrings);
+        List<StringMatcher> automatonList = new ArrayList<>();
+        List<LinearRegex.Node> nodeList = new ArrayList<>();
+        List<StringMatcher> otherList = new ArrayList<>();
+        for (StringMatcher matcher : groups.getOthers()) {
+            LinearRegex.Node node = null;
+            if (matcher instanceof WildcardMatcher ||
+                    matcher instanceof PatternMatcher && ((PatternMatcher)matcher).isLinear())
+                node = MatcherAlgebra.toNode(matcher);
+            if (node != null) {
+                automatonList.add(matcher);
+                nodeList.add(node);
+            }
+            else
+                otherList.add(matcher);
+        }
+        List<StringMatcher> automatonMatchers = new ArrayList<>();
+        int automatonPatterns = 0;
+        for (int i = 0, n = automatonList.size(); i < n; i += LinearRegex.maxComponents) {
+            int end = Math.min(i + LinearRegex.maxComponents, n);
+            automatonPatterns += compile(automatonList.subList(i, end), nodeList.subList(i, end), automatonMatchers,
+                    otherList);
+        }
+        automata = automatonMatchers.toArray(new StringMatcher[0]);
+        otherList.sort(Comparator.comparingInt(MatcherAlgebra::cost));
+        others = otherList.toArray(new StringMatcher[0]);
+        exactCount = groups.get(CompiledSetMatcher.Type.EXACT).size();
+        prefixCount = groups.get(CompiledSetMatcher.Type.PREFIX).size();
+        suffixCount = groups.get(CompiledSetMatcher.Type.SUFFIX).size();
+        automatonPatternCount = automatonPatterns;
+    }
+
+    private static CompiledSetMatcher combine(MatcherGroups groups, CompiledSetMatcher.Type type) {
+        List<String> strings = groups.strings(type);
+        return strings.isEmpty() ? null : CompiledSetMatcher.of(type, strings);
+    }
+
+    private static void flatten(StringMatcher[] matchers, Set<StringMatcher> set) {
+        for (StringMatcher matcher : matchers) {
+            Objects.requireNonNull(matcher, "Matcher must not be null");
+            if (matcher instanceof AlternateMatcher)
+                flatten(((AlternateMatcher)matcher).getMatchers().toArray(new StringMatcher[0]), set);
+            else if (matcher instanceof PlannedMatcher)
+                flatten(((PlannedMatcher)matcher).matchers, set);
+            else
+                set.add(matcher);
+        }
+    }
+
+    /**
+     * Compile a group of patterns into a single automaton; if the automaton would be too large, split the group in
+     * two and try again (a single pattern that can not be compiled is added to the list to be tested in turn).
+     */
+    private static int compile(List<StringMatcher> matchers, List<LinearRegex.Node> nodes,
+            List<StringMatcher> automata, List<StringMatcher> others) {
+        int n = matchers.size();
+        if (n == 1) {
+            others.add(matchers.get(0)); // the matcher is itself an automaton
+            return 0;
+        }
+        try {
+            automata.add(new FusedMatcher(matchers.toArray(new StringMatcher[0]),
+                    nodes.toArray(new LinearRegex.Node[0]), false));
+            return n;
+        }
+        catch (IllegalArgumentException e) {
+            int half = n / 2;
+            return compile(matchers.subList(0, half), nodes.subList(0, half), automata, others) +
+                    compile(matchers.subList(half, n), nodes.subList(half, n), automata, others);
+        }
+    }
+
+    /**
+     * Get the matchers (after flattening nested alternates and removing duplicates).
+     *
+     * @return      the matchers
+     */
+    public List<StringMatcher> getMatchers() {
+        return Collections.unmodifiableList(Arrays.asList(matchers));
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        if (exactSet != null && exactSet.matches(target, start, end))
+            return true;
+        if (prefixSet != null && prefixSet.matches(target, start, end))
+            return true;
+        if (suffixSet != null && suffixSet.matches(target, start, end))
+            return true;
+        if (containsMatcher != null && containsMatcher.matches(target, start, end))
+            return true;
+        for (StringMatcher automaton : automata)
+            if (automaton.matches(target, start, end))
+                return true;
+        for (StringMatcher matcher : others)
+            if (matcher.matches(target, start, end))
+                return true;
+        return false;
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        StringMatcher.checkRegion(target, from, target.length());
+        return locator().find(target, from);
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        return locator().matchEnd(target, start);
+    }
+
+    private Locator locator() {
+        Locator result = locator;
+        if (result == null)
+            locator = result = new Locator(matchers); // a race may build it twice, but the results are the same
+        return result;
+    }
+
+    @Override
+    public KeyRange keyRange() {
+        KeyRange result = KeyRange.EMPTY;
+        for (StringMatcher matcher : matchers)
+            result = result.span(matcher.keyRange());
+        return result;
+    }
+
+    /**
+     * Get an estimate of the heap memory retained by the matcher.  The component matchers are counted once, although
+     * they are held both in their original form and in the combined forms used for matching.
+     *
+     * @return      the estimated retained size, in bytes
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        long result = Footprint.object(8 * Footprint.REFERENCE + 4 * 4) + Footprint.matchers(matchers) +
+                Footprint.array(automata.length, Footprint.REFERENCE) +
+                Footprint.array(others.length, Footprint.REFERENCE);
+        if (exactSet != null)
+            result += exactSet.estimatedRetainedBytes();
+        if (prefixSet != null)
+            result += prefixSet.estimatedRetainedBytes();
+        if (suffixSet != null)
+            result += suffixSet.estimatedRetainedBytes();
+        if (containsMatcher != null)
+            result += containsMatcher.estimatedRetainedBytes();
+        for (StringMatcher automaton : automata)
+            result += ((FusedMatcher)automaton).automatonBytes();
+        Locator built = locator;
+        if (built != null)
+            result += built.estimatedRetainedBytes();
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof PlannedMatcher))
+            return false;
+        return Arrays.equals(matchers, ((PlannedMatcher)obj).matchers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(matchers) ^ 0x504C4E;
+    }
+
+    /**
+     * Describe the plan, showing the number of matchers assigned to each structure.
+     *
+     * @return      the description
+     */
+    @Override
+    public String toString() {
+        return "PlannedMatcher[exact=" + exactCount + ", prefix=" + prefixCount + ", suffix=" + suffixCount +
+                ", contains=" + (containsMatcher == null ? 0 : containsMatcher.getStrings().size()) +
+                ", automata=" + automata.length + " (" + automatonPatternCount + " patterns), other=" +
+                others.length + ']';
+    }
+
+}
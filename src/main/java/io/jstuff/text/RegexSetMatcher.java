@@ -0,0 +1,506 @@
+/*
+ * @(#) RegexSetMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link StringMatcher} that matches a target if any of a set of {@link PatternMatcher}s matches, using a shared
+ * literal prefilter to avoid executing most of the regular expressions (in the manner of Hyperscan or RE2::Set).
+ *
+ * <p>When the matcher is constructed, each regular expression is analysed to find a set of literal strings, at least
+ * one of which must occur in any match (for example, {@code "error"} for {@code error: \d+}, or {@code "GET"} and
+ * {@code "POST"} for {@code ^(GET|POST) /admin}).  The literals of all the expressions are compiled into a single
+ * Aho-Corasick automaton (as used by {@link ContainsAnyMatcher}), so each target is scanned once for all of them, and
+ * only the expressions whose literals occur in the target are executed.  An expression that consists only of literal
+ * text (or alternatives of literal text) is not executed at all; the occurrence of one of its literals is the match.
+ * Expressions from which no literal can be extracted (including those using constructs not understood by the
+ * {@linkplain PatternMatcher.Engine#LINEAR linear engine} parser, such as word boundaries or look-around, or flags
+ * other than {@link java.util.regex.Pattern#DOTALL}) are executed for every target.</p>
+ *
+ * <p>The {@link #matchAll(CharSequence)} function returns the set of expressions that match.  Counts of the targets
+ * evaluated and the expressions executed are maintained, to allow the effectiveness of the prefilter to be
+ * monitored.</p>
+ *
+ * @author  Peter Wall
+ */
+public class RegexSetMatcher implements StringMatcher {
+
+    static final int maxLiterals = 16;
+    static final int maxAlternatives = 64;
+    static final int maxClassSize = 4;
+
+    private static final Set<String> EMPTY_STRING = Collections.singleton("");
+
+    private final PatternMatcher[] matchers;
+    private final List<List<String>> literals;
+    private final ContainsAnyMatcher automaton;
+    private final int[][] owners;
+    private final int[] unfiltered;
+    private final BitSet literalOnly;
+    private final LongAdder targetCount = new LongAdder();
+    private final LongAdder executionCount = new LongAdder();
+
+    /**
+     * Construct a {@code RegexSetMatcher} for the specified {@link PatternMatcher}s.
+     *
+     * @param   matchers    the {@link PatternMatcher}s
+     */
+    public RegexSetMatcher(PatternMatcher ... matchers) {
+        Objects.requireNonNull(matchers, "Matchers list must not be null");
+        for (PatternMatcher matcher : matchers)
+            Objects.requireNonNull(matcher, "Matcher must not be null");
+        this.matchers = matchers.clone();
+        int n = matchers.length;
+        List<List<String>> literalLists = new ArrayList<>(n);
+        Map<String, List<Integer>> literalMap = new LinkedHashMap<>();
+        List<Integer> unfilteredList = new ArrayList<>();
+        literalOnly = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            Literals extracted = extract(matchers[i]);
+            Set<String> set = extracted == null ? null : extracted.best();
+            if (set == null) {
+                literalLists.add(Collections.emptyList());
+                unfilteredList.add(i);
+                continue;
+            }
+            if (set == extracted.exact)
+                literalOnly.set(i);
+            literalLists.add(Collections.unmodifiableList(new ArrayList<>(set)));
+            for (String literal : set)
+                literalMap.computeIfAbsent(literal, k -> new ArrayList<>()).add(i);
+        }
+        literals = Collections.unmodifiableList(literalLists);
+        automaton = literalMap.isEmpty() ? null : new ContainsAnyMatcher(literalMap.keySet());
+        owners = new int[literalMap.size()][];
+        int j = 0;
+        for (List<Integer> list : literalMap.values())
+            owners[j++] = toArray(list);
+        unfiltered = toArray(unfilteredList);
+    }
+
+    public List<PatternMatcher> getMatchers() {
+        return Collections.unmodifiableList(Arrays.asList(matchers));
+    }
+
+    /**
+     * Get the literals extracted from the regular expression at the specified index, at least one of which must occur
+     * in the target for the expression to be executed.  An empty list indicates that the expression is executed for
+     * every target.
+     *
+     * @param   index   the index of the regular expression
+     * @return          the literals
+     * @throws  IndexOutOfBoundsException   if the index is out of range
+     */
+    public List<String> getLiterals(int index) {
+        return literals.get(index);
+    }
+
+    /**
+     * Get the number of regular expressions from which no literal could be extracted, and which are therefore executed
+     * for every target.
+     *
+     * @return      the number of unfiltered regular expressions
+     */
+    public int getUnfilteredCount() {
+        return unfiltered.length;
+    }
+
+    @Override
+    public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        targetCount.increment();
+        BitSet candidates = candidates(target, start, end, true);
+        if (candidates.intersects(literalOnly))
+            return true;
+        int executed = 0;
+        try {
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                executed++;
+                if (matchers[i].matches(target, start, end))
+                    return true;
+            }
+            return false;
+        }
+        finally {
+            executionCount.add(executed);
+        }
+    }
+
+    /**
+     * Test each of the regular expressions against the target, returning the set of indices of those that match.
+     *
+     * @param   target  the target
+     * @return          the indices of the matching regular expressions
+     */
+    public BitSet matchAll(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matchAll(target, 0, target.length());
+    }
+
+    /**
+     * Test each of the regular expressions against a region of the target, returning the set of indices of those
+     * that match.
+     *
+     * @param   target  the target
+     * @param   start   the start index of the region
+     * @param   end     the end index of the region
+     * @return          the indices of the matching regular expressions
+     */
+    public BitSet matchAll(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        targetCount.increment();
+        BitSet candidates = candidates(target, start, end, false);
+        BitSet result = new BitSet(matchers.length);
+        int executed = 0;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (literalOnly.get(i))
+                result.set(i);
+            else {
+                executed++;
+                if (matchers[i].matches(target, start, end))
+                    result.set(i);
+            }
+        }
+        executionCount.add(executed);
+        return result;
+    }
+
+    @Override
+    public int find(CharSequence target, int from) {
+        int n = target.length();
+        StringMatcher.checkRegion(target, from, n);
+        targetCount.increment();
+        // a match starting at or after the start position contains one of its literals after that position
+        BitSet candidates = candidates(target, from, n, false);
+        int result = -1;
+        int executed = 0;
+        for (int i = candidates.nextSetBit(0); i >= 0 && result != from; i = candidates.nextSetBit(i + 1)) {
+            executed++;
+            int index = matchers[i].find(target, from);
+            if (index >= 0 && (result < 0 || index < result))
+                result = index;
+        }
+        executionCount.add(executed);
+        return result;
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        int n = target.length();
+        StringMatcher.checkRegion(target, start, n);
+        targetCount.increment();
+        BitSet candidates = candidates(target, start, n, false);
+        int result = -1;
+        int executed = 0;
+        for (int i = candidates.nextSetBit(0); i >= 0 && result != n; i = candidates.nextSetBit(i + 1)) {
+            executed++;
+            result = Math.max(result, matchers[i].matchEnd(target, start));
+        }
+        executionCount.add(executed);
+        return result;
+    }
+
+    /**
+     * Get the number of targets (or regions of targets) evaluated by this matcher.
+     *
+     * @return      the number of targets
+     */
+    public long getTargetCount() {
+        return targetCount.sum();
+    }
+
+    /**
+     * Get the number of regular expressions executed in the evaluation of targets by this matcher.
+     *
+     * @return      the number of regular expressions executed
+     */
+    public long getExecutionCount() {
+        return executionCount.sum();
+    }
+
+    /**
+     * Get the average number of regular expressions executed for each target.
+     *
+     * @return      the average number of regular expressions executed (0 if no targets have been evaluated)
+     */
+    public double getAverageExecutions() {
+        long targets = targetCount.sum();
+        return targets == 0 ? 0.0 : (double)executionCount.sum() / targets;
+    }
+
+    /**
+     * Reset the target and execution counts.
+     */
+    public void resetStatistics() {
+        targetCount.reset();
+        executionCount.reset();
+    }
+
+    /**
+     * Find the regular expressions that may match a region of the target: those with a literal occurring in the
+     * region, and those with no literals.  If {@code stopOnLiteralOnly} is {@code true}, the scan stops when the
+     * literal of an expression consisting only of literal text is found.
+     */
+    private BitSet candidates(CharSequence target, int start, int end, boolean stopOnLiteralOnly) {
+        BitSet result = new BitSet(matchers.length);
+        if (automaton != null) {
+            automaton.forEachOccurrence(target, start, end, literal -> {
+                boolean more = true;
+                for (int i : owners[literal]) {
+                    result.set(i);
+                    if (stopOnLiteralOnly && literalOnly.get(i))
+                        more = false;
+                }
+                return more;
+            });
+        }
+        for (int i : unfiltered)
+            result.set(i);
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = list.get(i);
+        return result;
+    }
+
+    private static Literals extract(PatternMatcher matcher) {
+        try {
+            return extract(LinearRegex.parse(matcher.getPattern()));
+        }
+        catch (IllegalArgumentException ignore) {
+            return null; // pattern uses constructs not understood here; the expression is executed for every target
+        }
+    }
+
+    private static Literals extract(LinearRegex.Node node) {
+        if (node instanceof LinearRegex.CharNode)
+            return new Literals(chars(((LinearRegex.CharNode)node).set), null);
+        if (node instanceof LinearRegex.ConcatNode) {
+            // accumulate the product of consecutive exact sets, and keep the best of the sets that must occur
+            Set<String> run = EMPTY_STRING;
+            Set<String> required = null;
+            boolean exact = true;
+            for (LinearRegex.Node child : ((LinearRegex.ConcatNode)node).nodes) {
+                Literals childLiterals = extract(child);
+                if (childLiterals.exact != null) {
+                    Set<String> product = product(run, childLiterals.exact);
+                    if (product != null)
+                        run = product;
+                    else {
+                        required = better(required, run);
+                        run = childLiterals.exact;
+                        exact = false;
+                    }
+                }
+                else {
+                    required = better(better(required, run), childLiterals.best());
+                    run = EMPTY_STRING;
+                    exact = false;
+                }
+            }
+            return exact ? new Literals(run, null) : new Literals(null, better(required, run));
+        }
+        if (node instanceof LinearRegex.AltNode) {
+            Set<String> exact = new LinkedHashSet<>();
+            Set<String> required = new LinkedHashSet<>();
+            for (LinearRegex.Node child : ((LinearRegex.AltNode)node).nodes) {
+                Literals childLiterals = extract(child);
+                if (exact != null) {
+                    if (childLiterals.exact == null)
+                        exact = null;
+                    else {
+                        exact.addAll(childLiterals.exact);
+                        if (exact.size() > maxLiterals)
+                            exact = null;
+                    }
+                }
+                if (required != null) {
+                    Set<String> childRequired = childLiterals.best();
+                    if (childRequired == null)
+                        required = null;
+                    else {
+                        required.addAll(childRequired);
+                        if (required.size() > maxAlternatives)
+                            required = null;
+                    }
+                }
+            }
+            return new Literals(exact, required);
+        }
+        if (node instanceof LinearRegex.RepeatNode) {
+            LinearRegex.RepeatNode repeatNode = (LinearRegex.RepeatNode)node;
+            Literals childLiterals = extract(repeatNode.node);
+            if (repeatNode.min == 0) {
+                if (repeatNode.max == 1 && childLiterals.exact != null) {
+                    Set<String> optional = new LinkedHashSet<>(EMPTY_STRING);
+                    optional.addAll(childLiterals.exact);
+                    return new Literals(optional.size() <= maxLiterals ? optional : null, null);
+                }
+                return new Literals(null, null);
+            }
+            Set<String> repeated = childLiterals.exact;
+            for (int i = 1; i < repeatNode.min && repeated != null; i++)
+                repeated = product(repeated, childLiterals.exact);
+            if (repeated != null && repeatNode.max == repeatNode.min)
+                return new Literals(repeated, null);
+            return new Literals(null, better(repeated, childLiterals.best()));
+        }
+        return new Literals(null, null); // an assertion tells us nothing
+    }
+
+    private static Set<String> chars(LinearRegex.CharSet set) {
+        int[] ranges = set.ranges;
+        long count = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            // a lone surrogate in a pattern does not match half of a surrogate pair, so can not be used as a literal
+            if (ranges[i] <= Character.MAX_SURROGATE && ranges[i + 1] >= Character.MIN_SURROGATE)
+                return null;
+            count += ranges[i + 1] - ranges[i] + 1;
+        }
+        if (count > maxClassSize)
+            return null;
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i < ranges.length; i += 2)
+            for (int cp = ranges[i]; cp <= ranges[i + 1]; cp++)
+                result.add(new String(Character.toChars(cp)));
+        return result;
+    }
+
+    private static Set<String> product(Set<String> a, Set<String> b) {
+        if ((long)a.size() * b.size() > maxLiterals)
+            return null;
+        Set<String> result = new LinkedHashSet<>();
+        for (String x : a)
+            for (String y : b)
+                result.add(x + y);
+        return result;
+    }
+
+    /**
+     * Choose the more selective of two sets of literals (either of which may be {@code null}): the set with the longer
+     * shortest literal or, if those are equal, the set with fewer literals.  A set containing the empty string is of
+     * no use.
+     */
+    private static Set<String> better(Set<String> a, Set<String> b) {
+        if (a == null || a.contains(""))
+            return b == null || b.contains("") ? null : b;
+        if (b == null || b.contains(""))
+            return a;
+        int aLength = shortest(a);
+        int bLength = shortest(b);
+        if (aLength != bLength)
+            return aLength > bLength ? a : b;
+        return b.size() < a.size() ? b : a;
+    }
+
+    private static int shortest(Set<String> set) {
+        int result = Integer.MAX_VALUE;
+        for (String string : set)
+            result = Math.min(result, string.length());
+        return result;
+    }
+
+    @Override
+    public KeyRange keyRange() {
+        KeyRange result = KeyRange.EMPTY;
+        for (StringMatcher matcher : matchers)
+            result = result.span(matcher.keyRange());
+        return result;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        long result = Footprint.object(8 * Footprint.REFERENCE) + Footprint.matchers(matchers) +
+                Footprint.array(owners.length, Footprint.REFERENCE) + Footprint.array(unfiltered.length, 4) +
+                Footprint.object(Footprint.REFERENCE + 4) + Footprint.array((matchers.length + 63) >> 6, 8) +
+                Footprint.object(2 * Footprint.REFERENCE + 4) + Footprint.array(literals.size(), Footprint.REFERENCE) +
+                2 * Footprint.object(Footprint.REFERENCE + 8);
+        if (automaton != null)
+            result += automaton.estimatedRetainedBytes();
+        for (int[] array : owners)
+            result += Footprint.array(array.length, 4);
+        for (List<String> list : literals)
+            if (!list.isEmpty())
+                result += Footprint.object(2 * Footprint.REFERENCE) + Footprint.array(list.size(), Footprint.REFERENCE);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof RegexSetMatcher))
+            return false;
+        return Arrays.equals(matchers, ((RegexSetMatcher)obj).matchers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(matchers) ^ 0x525853;
+    }
+
+    /**
+     * The literals extracted from a node of a regular expression: the complete set of strings matched by the node, if
+     * that set is small and the node contains no assertions, and a set of strings at least one of which must occur in
+     * any match.  Either may be {@code null}.
+     */
+    private static final class Literals {
+
+        final Set<String> exact;
+        final Set<String> required;
+
+        Literals(Set<String> exact, Set<String> required) {
+            this.exact = exact;
+            this.required = required;
+        }
+
+        Set<String> best() {
+            return exact != null && !exact.contains("") ? exact : better(required, null);
+        }
+
+    }
+
+}
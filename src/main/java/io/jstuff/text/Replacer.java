@@ -0,0 +1,165 @@
+/*
+ * @(#) Replacer.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A replacement engine, to replace every occurrence of any of a set of strings (or every span matched by a
+ * {@link StringMatcher}) in a single pass over the input.
+ *
+ * <p>When created from a {@link Map} of strings to replacements, the strings are compiled into a
+ * {@link ContainsAnyMatcher} automaton, and where occurrences overlap, the leftmost is replaced, and of those starting
+ * at the same position, the longest.  The output is written to a {@link StringBuilder} or any other
+ * {@link Appendable}, copying the unchanged parts of the input directly, so no intermediate strings are created.</p>
+ *
+ * <p>A {@code Replacer} is immutable, and may be used by multiple threads concurrently.</p>
+ *
+ * @author  Peter Wall
+ */
+public class Replacer {
+
+    private final StringMatcher matcher;
+    private final ContainsAnyMatcher containsAnyMatcher;
+    private final CharSequence[] replacements;
+
+    /**
+     * Construct a {@code Replacer} to replace each of the keys of a {@link Map} with the corresponding value.
+     *
+     * @param   replacements    the {@link Map} of strings to replacements
+     * @throws  IllegalArgumentException    if any of the strings to be replaced is empty
+     */
+    public Replacer(Map<String, ? extends CharSequence> replacements) {
+        Objects.requireNonNull(replacements, "Replacements must not be null");
+        List<String> strings = new ArrayList<>(replacements.size());
+        this.replacements = new CharSequence[replacements.size()];
+        int i = 0;
+        for (Map.Entry<String, ? extends CharSequence> entry : replacements.entrySet()) {
+            String string = Objects.requireNonNull(entry.getKey(), "String must not be null");
+            if (string.isEmpty())
+                throw new IllegalArgumentException("String to be replaced must not be empty");
+            strings.add(string);
+            this.replacements[i++] = Objects.requireNonNull(entry.getValue(), "Replacement must not be null");
+        }
+        containsAnyMatcher = new ContainsAnyMatcher(strings);
+        matcher = containsAnyMatcher;
+    }
+
+    /**
+     * Construct a {@code Replacer} to replace each span matched by a {@link StringMatcher} (as located by
+     * {@link StringMatcher#findAll(CharSequence, SpanConsumer) findAll()}) with a fixed replacement.
+     *
+     * @param   matcher         the {@link StringMatcher}
+     * @param   replacement     the replacement
+     */
+    public Replacer(StringMatcher matcher, CharSequence replacement) {
+        this.matcher = Objects.requireNonNull(matcher, "Matcher must not be null");
+        containsAnyMatcher = null;
+        replacements = new CharSequence[] { Objects.requireNonNull(replacement, "Replacement must not be null") };
+    }
+
+    /**
+     * Get the {@link StringMatcher} used to locate the spans to be replaced.
+     *
+     * @return      the {@link StringMatcher}
+     */
+    public StringMatcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Replace all occurrences in the input, returning the result as a {@link String}.
+     *
+     * @param   input   the input
+     * @return          the result
+     */
+    public String replace(CharSequence input) {
+        Objects.requireNonNull(input, "Input must not be null");
+        StringBuilder sb = new StringBuilder(input.length());
+        replace(input, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Replace all occurrences in the input, appending the result to a {@link StringBuilder}.
+     *
+     * @param   input   the input
+     * @param   sb      the {@link StringBuilder}
+     * @return          the number of replacements made
+     */
+    public int replace(CharSequence input, StringBuilder sb) {
+        try {
+            return replace(input, (Appendable)sb);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Unexpected exception", e); // can't happen with StringBuilder
+        }
+    }
+
+    /**
+     * Replace all occurrences in the input, appending the result to an {@link Appendable}.
+     *
+     * @param   input   the input
+     * @param   out     the {@link Appendable}
+     * @return          the number of replacements made
+     * @throws  IOException     if thrown by the {@link Appendable}
+     */
+    public int replace(CharSequence input, Appendable out) throws IOException {
+        Objects.requireNonNull(input, "Input must not be null");
+        Objects.requireNonNull(out, "Output must not be null");
+        int n = input.length();
+        int count = 0;
+        int copied = 0;
+        int i = 0;
+        while (i <= n) {
+            int start = matcher.find(input, i);
+            if (start < 0)
+                break;
+            CharSequence replacement;
+            int end;
+            if (containsAnyMatcher != null) {
+                int index = containsAnyMatcher.longestMatch(input, start, n);
+                end = start + containsAnyMatcher.getStrings().get(index).length();
+                replacement = replacements[index];
+            }
+            else {
+                end = matcher.matchEnd(input, start);
+                replacement = replacements[0];
+            }
+            out.append(input, copied, start).append(replacement);
+            copied = end;
+            count++;
+            i = end > start ? end : start + 1;
+        }
+        out.append(input, copied, n);
+        return count;
+    }
+
+}
@@ -35,6 +35,15 @@ public class SimpleMatcher implements StringMatcher {
         this.string = Objects.requireNonNull(string, "String must not be null");
     }
 
+    /**
+     * Get the comparison string.
+     *
+     * @return      the comparison string
+     */
+    public String getString() {
+        return string;
+    }
+
     @Override
     public boolean matches(CharSequence target) {
         Objects.requireNonNull(target, "Target must not be null");
@@ -47,6 +56,30 @@ public class SimpleMatcher implements StringMatcher {
         return true;
     }
 
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        int n = end - start;
+        return n == string.length() && StringMatcher.compareCS(target, start, string, 0, n);
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        int end = start + string.length();
+        return end <= target.length() && StringMatcher.compareCS(target, start, string, 0, string.length()) ? end : -1;
+    }
+
+    @Override
+    public KeyRange keyRange() {
+        return KeyRange.exact(string);
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(Footprint.REFERENCE) + Footprint.string(string);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
@@ -35,12 +35,44 @@ public class StartsWithMatcher implements StringMatcher {
         this.string = Objects.requireNonNull(string, "String must not be null");
     }
 
+    /**
+     * Get the comparison string.
+     *
+     * @return      the comparison string
+     */
+    public String getString() {
+        return string;
+    }
+
     @Override
     public boolean matches(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return matches(target, 0, target.length());
+    }
+
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
         int stringLength = string.length();
-        if (target.length() < stringLength)
+        if (end - start < stringLength)
             return false;
-        return StringMatcher.compareCS(target, 0, string, 0, stringLength);
+        return StringMatcher.compareCS(target, start, string, 0, stringLength);
+    }
+
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        int end = target.length();
+        return matches(target, start, end) ? end : -1;
+    }
+
+    @Override
+    public KeyRange keyRange() {
+        return KeyRange.prefix(string);
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        return Footprint.object(Footprint.REFERENCE) + Footprint.string(string);
     }
 
     @Override
@@ -0,0 +1,97 @@
+/*
+ * @(#) StreamingMatcher.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+/**
+ * A stateful matcher that tests text supplied in a number of chunks, for example as it is read from a network stream,
+ * finding matches that straddle the boundaries between chunks.  Only the state needed to continue the search is held
+ * between chunks, so the memory used does not depend on the length of the text.
+ *
+ * <p>A {@code StreamingMatcher} is obtained from (for example) {@link ContainsMatcher#streaming()}; each call returns
+ * a new instance, which must not be shared between threads.</p>
+ *
+ * @author  Peter Wall
+ */
+public interface StreamingMatcher {
+
+    /**
+     * Supply the next chunk of text.
+     *
+     * @param   chunk   the chunk
+     * @return          {@code true} if the text supplied so far contains a match
+     */
+    boolean feed(CharSequence chunk);
+
+    /**
+     * Supply the next chunk of text from a {@link CharBuffer}.  The characters between the position and the limit of
+     * the buffer are consumed, and the position is set to the limit.
+     *
+     * @param   buffer  the {@link CharBuffer}
+     * @return          {@code true} if the text supplied so far contains a match
+     */
+    default boolean feed(CharBuffer buffer) {
+        Objects.requireNonNull(buffer, "Buffer must not be null");
+        boolean result = feed((CharSequence)buffer);
+        buffer.position(buffer.limit());
+        return result;
+    }
+
+    /**
+     * Supply text from a {@link Reader}, until the end of the input or until a match is found.
+     *
+     * @param   reader  the {@link Reader}
+     * @return          {@code true} if the text supplied so far contains a match
+     * @throws  IOException     on any errors reading the input
+     */
+    default boolean feed(Reader reader) throws IOException {
+        Objects.requireNonNull(reader, "Reader must not be null");
+        CharBuffer buffer = CharBuffer.allocate(8192);
+        while (!isMatched() && reader.read(buffer) >= 0) {
+            buffer.flip();
+            feed(buffer);
+            buffer.clear();
+        }
+        return isMatched();
+    }
+
+    /**
+     * Test whether the text supplied so far contains a match.
+     *
+     * @return      {@code true} if a match has been found
+     */
+    boolean isMatched();
+
+    /**
+     * Reset the matcher to its initial state, ready to test a new stream of text.
+     */
+    void reset();
+
+}
@@ -25,8 +25,11 @@
 
 package io.jstuff.text;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
@@ -46,6 +49,188 @@ public interface StringMatcher {
      */
     boolean matches(CharSequence target);
 
+    /**
+     * Test whether a region of a given {@link CharSequence} matches the {@code StringMatcher}, without the need to
+     * create a sub-sequence.  The default implementation does create a sub-sequence; all the implementations in this
+     * library override it to match the region in place.
+     *
+     * @param   target  the target string
+     * @param   start   the start index of the region
+     * @param   end     the end index of the region (exclusive)
+     * @return          {@code true} if the region matches
+     * @throws  IndexOutOfBoundsException   if the region is not within the bounds of the target
+     */
+    default boolean matches(CharSequence target, int start, int end) {
+        checkRegion(target, start, end);
+        return matches(target.subSequence(start, end));
+    }
+
+    /**
+     * Find the first span of the target, starting at or after the given index, that is matched by the
+     * {@code StringMatcher}.  For a {@link ContainsMatcher} or a {@link PatternMatcher} the span is the occurrence of the
+     * substring or the regular expression; for other matchers it is a region that would satisfy
+     * {@link #matches(CharSequence, int, int)}.  The default implementation tries {@link #matchEnd(CharSequence, int)}
+     * at each index in turn.
+     *
+     * @param   target  the target string
+     * @param   from    the index at which to start the search
+     * @return          the start index of the span, or -1 if none was found
+     * @throws  IndexOutOfBoundsException   if {@code from} is not within the bounds of the target
+     */
+    default int find(CharSequence target, int from) {
+        checkRegion(target, from, target.length());
+        for (int i = from, n = target.length(); i <= n; i++)
+            if (matchEnd(target, i) >= 0)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Get the end index of the longest span starting at the given index that is matched by the {@code StringMatcher}
+     * (see {@link #find(CharSequence, int)}).  The default implementation tries
+     * {@link #matches(CharSequence, int, int)} for each possible end index, starting with the longest.
+     *
+     * @param   target  the target string
+     * @param   start   the start index of the span
+     * @return          the end index of the span (exclusive), or -1 if there is no span starting at that index
+     * @throws  IndexOutOfBoundsException   if {@code start} is not within the bounds of the target
+     */
+    default int matchEnd(CharSequence target, int start) {
+        checkRegion(target, start, target.length());
+        for (int end = target.length(); end >= start; end--)
+            if (matches(target, start, end))
+                return end;
+        return -1;
+    }
+
+    /**
+     * Test whether the target matches, within the limits of a {@link MatchBudget}.  If the budget is exhausted, the
+     * deadline passes or the budget is cancelled before the result is known, {@link MatchResult#BUDGET_EXCEEDED} is
+     * returned.  The default implementation counts each character accessed by {@link #matches(CharSequence)} as a
+     * step (see {@link MatchBudget#wrap(CharSequence)}); implementations may count steps in their own inner loops.
+     *
+     * @param   target      the target string
+     * @param   budget      the {@link MatchBudget}
+     * @return              the {@link MatchResult}
+     */
+    default MatchResult matches(CharSequence target, MatchBudget budget) {
+        Objects.requireNonNull(target, "Target must not be null");
+        Objects.requireNonNull(budget, "Budget must not be null");
+        try {
+            return MatchResult.of(matches(budget.wrap(target)));
+        }
+        catch (BudgetExceededException e) {
+            return MatchResult.BUDGET_EXCEEDED;
+        }
+    }
+
+    /**
+     * Evaluate the {@code StringMatcher} against the target, recording the result, the number of characters examined
+     * and the elapsed time in a {@link MatchReport}.  Compound matchers include a report for each component matcher
+     * evaluated, so that the branches that decided the result or took the time can be identified.  The default
+     * implementation counts the characters by wrapping the target (see {@link MatchBudget#wrap(CharSequence)}), so
+     * the times reported include the cost of the counting.
+     *
+     * @param   target      the target string
+     * @return              the {@link MatchReport}
+     */
+    default MatchReport explain(CharSequence target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        MatchBudget counter = MatchBudget.unlimited();
+        long start = System.nanoTime();
+        boolean matched = matches(counter.wrap(target));
+        return new MatchReport(this, matched, counter.getSteps(), System.nanoTime() - start, null);
+    }
+
+    /**
+     * Locate all the non-overlapping spans of the target that are matched by the {@code StringMatcher}, passing each
+     * to the supplied {@link SpanConsumer} (which may stop the search by returning {@code false}).  No objects are
+     * created for the individual spans.
+     *
+     * @param   target      the target string
+     * @param   consumer    the {@link SpanConsumer}
+     * @return              the number of spans passed to the consumer
+     */
+    default int findAll(CharSequence target, SpanConsumer consumer) {
+        Objects.requireNonNull(target, "Target must not be null");
+        Objects.requireNonNull(consumer, "Consumer must not be null");
+        int n = target.length();
+        int count = 0;
+        int i = 0;
+        while (i <= n) {
+            int start = find(target, i);
+            if (start < 0)
+                break;
+            int end = matchEnd(target, start);
+            count++;
+            if (!consumer.accept(start, end))
+                break;
+            i = end > start ? end : start + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Get the range of strings (in the natural order of strings) outside which the {@code StringMatcher} can not match,
+     * for use in scanning sorted collections.  The default implementation returns {@link KeyRange#ALL}.
+     *
+     * @return      the {@link KeyRange}
+     */
+    default KeyRange keyRange() {
+        return KeyRange.ALL;
+    }
+
+    /**
+     * Find the entries of a {@link NavigableSet} (which must use the natural order of strings) matched by the
+     * {@code StringMatcher}.  Only the entries within the {@link #keyRange() keyRange()} of the matcher are examined.
+     *
+     * @param   set     the {@link NavigableSet}
+     * @return          the matching entries, in order
+     */
+    default List<String> scanSorted(NavigableSet<String> set) {
+        Objects.requireNonNull(set, "Set must not be null");
+        List<String> result = new ArrayList<>();
+        for (String entry : keyRange().subSet(set))
+            if (matches(entry))
+                result.add(entry);
+        return result;
+    }
+
+    /**
+     * Find the entries of a sorted {@link List} (for example, a sorted array wrapped by {@link Arrays#asList(Object[])})
+     * matched by the {@code StringMatcher}.  The entries within the {@link #keyRange() keyRange()} of the matcher are
+     * located by binary search, and only those entries are examined, so the list should support fast random access.
+     *
+     * @param   list    the {@link List} (sorted in the natural order of strings)
+     * @return          the matching entries, in order
+     */
+    default List<String> scanSorted(List<String> list) {
+        Objects.requireNonNull(list, "List must not be null");
+        List<String> result = new ArrayList<>();
+        KeyRange keyRange = keyRange();
+        if (keyRange.isEmpty())
+            return result;
+        for (int i = keyRange.fromIndex(list), n = keyRange.toIndex(list); i < n; i++) {
+            String entry = list.get(i);
+            if (matches(entry))
+                result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Get an estimate of the heap memory retained by the {@code StringMatcher}, in bytes: the matcher object itself
+     * and the strings, arrays, component matchers and compiled automata that it holds.  The estimate assumes a 64-bit
+     * JVM with compressed object pointers and compact strings, and counts every object held by the matcher, even if
+     * it may be shared with other code; it is intended for capacity planning and for comparing configurations, not as
+     * an exact measure.  The default implementation returns the size of an object with no fields.
+     *
+     * @return      the estimated retained size, in bytes
+     */
+    default long estimatedRetainedBytes() {
+        return Footprint.object(0);
+    }
+
     /**
      * Create a {@link WildcardMatcher} with the given pattern.
      *
@@ -68,6 +253,42 @@ public interface StringMatcher {
         return new WildcardMatcher(pattern, singleMatchChar, multiMatchChar);
     }
 
+    /**
+     * Create a {@link WildcardMatcher} with the given pattern and the specified wildcard and escape characters, using
+     * the extended pattern syntax (character classes and escapes).
+     *
+     * @param   pattern             the text pattern
+     * @param   singleMatchChar     the character used to represent a single character wildcard match in the pattern
+     * @param   multiMatchChar      the character used to represent a multi-character wildcard match in the pattern
+     * @param   escapeChar          the character used to escape the following character in the pattern
+     * @return                      the {@link WildcardMatcher}
+     */
+    static WildcardMatcher wildcard(String pattern, char singleMatchChar, char multiMatchChar, char escapeChar) {
+        return new WildcardMatcher(pattern, singleMatchChar, multiMatchChar, escapeChar);
+    }
+
+    /**
+     * Create a {@link WildcardMatcher} with the given pattern and the default wildcard and escape characters, using
+     * the extended pattern syntax (character classes and escapes).
+     *
+     * @param   pattern the wildcard pattern
+     * @return          the {@link WildcardMatcher}
+     */
+    static WildcardMatcher glob(String pattern) {
+        return new WildcardMatcher(pattern, WildcardMatcher.defaultSingleMatchChar,
+                WildcardMatcher.defaultMultiMatchChar, WildcardMatcher.defaultEscapeChar);
+    }
+
+    /**
+     * Create a {@link PathGlobMatcher} with the given pattern.
+     *
+     * @param   pattern the path glob pattern
+     * @return          the {@link PathGlobMatcher}
+     */
+    static PathGlobMatcher pathGlob(String pattern) {
+        return new PathGlobMatcher(pattern);
+    }
+
     /**
      * Create a {@link SimpleMatcher} with the given comparison string.
      *
@@ -98,6 +319,26 @@ public interface StringMatcher {
         return new ContainsMatcher(string);
     }
 
+    /**
+     * Create a {@link ContainsAnyMatcher} to test whether the target contains any of the given strings.
+     *
+     * @param   strings     the strings
+     * @return              the {@link ContainsAnyMatcher}
+     */
+    static ContainsAnyMatcher containsAny(String ... strings) {
+        return new ContainsAnyMatcher(Arrays.asList(strings));
+    }
+
+    /**
+     * Create a {@link ContainsAnyMatcher} to test whether the target contains any of the given strings.
+     *
+     * @param   strings     the strings
+     * @return              the {@link ContainsAnyMatcher}
+     */
+    static ContainsAnyMatcher containsAny(Collection<String> strings) {
+        return new ContainsAnyMatcher(strings);
+    }
+
     /**
      * Create a {@link StartsWithMatcher} with the given comparison string.
      *
@@ -128,6 +369,28 @@ public interface StringMatcher {
         return new PatternMatcher(pattern);
     }
 
+    /**
+     * Create a {@link PatternMatcher} with the given {@link Pattern}, using the specified regular expression engine.
+     *
+     * @param   pattern the {@link Pattern}
+     * @param   engine  the {@link PatternMatcher.Engine}
+     * @return          the {@link PatternMatcher}
+     */
+    static PatternMatcher pattern(Pattern pattern, PatternMatcher.Engine engine) {
+        return new PatternMatcher(pattern, engine);
+    }
+
+    /**
+     * Create a {@link CompiledSetMatcher} with the given {@link Collection} of strings.
+     *
+     * @param   type    the type of comparison to be applied to each string
+     * @param   strings the strings
+     * @return          the {@link CompiledSetMatcher}
+     */
+    static CompiledSetMatcher compiledSet(CompiledSetMatcher.Type type, Collection<String> strings) {
+        return CompiledSetMatcher.of(type, strings);
+    }
+
     /**
      * Create an {@link AlternateMatcher} with the given set of comparison strings.
      *
@@ -168,6 +431,143 @@ public interface StringMatcher {
         return new AlternateMatcher(matchers);
     }
 
+    /**
+     * Create a {@link BloomFilterMatcher} for the given {@link Collection} of comparison strings, using a Bloom filter
+     * with the specified false positive rate to reject most non-matching targets before the full comparison.
+     *
+     * @param   strings             the comparison strings
+     * @param   falsePositiveRate   the required false positive rate (between 0 and 1, exclusive)
+     * @return                      the {@link BloomFilterMatcher}
+     */
+    static BloomFilterMatcher alternate(Collection<String> strings, double falsePositiveRate) {
+        return BloomFilterMatcher.exact(strings, falsePositiveRate);
+    }
+
+    /**
+     * Create a {@link PerfectHashMatcher} for the given static {@link Collection} of comparison strings.
+     *
+     * @param   strings the comparison strings
+     * @return          the {@link PerfectHashMatcher}
+     */
+    static PerfectHashMatcher perfectHash(Collection<String> strings) {
+        return new PerfectHashMatcher(strings);
+    }
+
+    /**
+     * Create a {@link PlannedMatcher} that matches a target if any of the given matchers match, with the matchers
+     * partitioned by type into specialised structures (tries, a multi-string automaton and combined pattern automata),
+     * so that a long list of heterogeneous rules may be tested without evaluating each rule in turn.
+     *
+     * @param   matchers    the matchers
+     * @return              the {@link PlannedMatcher}
+     */
+    static PlannedMatcher plan(StringMatcher ... matchers) {
+        return new PlannedMatcher(matchers);
+    }
+
+    /**
+     * Create a {@link RegexSetMatcher} that matches a target if any of the given regular expressions match, executing
+     * only those expressions for which a required literal occurs in the target.
+     *
+     * @param   regexes     the regular expressions
+     * @return              the {@link RegexSetMatcher}
+     * @throws  java.util.regex.PatternSyntaxException  if any of the expressions is invalid
+     */
+    static RegexSetMatcher regexSet(String ... regexes) {
+        Objects.requireNonNull(regexes, "Regex list must not be null");
+        PatternMatcher[] matchers = new PatternMatcher[regexes.length];
+        for (int i = 0; i < regexes.length; i++)
+            matchers[i] = new PatternMatcher(Pattern.compile(Objects.requireNonNull(regexes[i],
+                    "Regex must not be null")));
+        return new RegexSetMatcher(matchers);
+    }
+
+    /**
+     * Create a matcher that matches a target only if all of the given matchers match it.  The set of matchers is
+     * simplified (nested combinations flattened, duplicates removed, constants folded and contradictions detected) and
+     * ordered by estimated cost; if all of the matchers are based on automata they are fused into a single automaton.
+     * The result may be an {@link AllMatcher}, one of the original matchers or a {@link ConstantMatcher}.
+     *
+     * @param   matchers    the matchers
+     * @return              the combined matcher
+     */
+    static StringMatcher and(StringMatcher ... matchers) {
+        return MatcherAlgebra.and(matchers);
+    }
+
+    /**
+     * Create a matcher that matches a target if any of the given matchers match it.  The set of matchers is simplified
+     * and ordered in the same way as for {@link #and(StringMatcher...) and()}.  The result may be an
+     * {@link AlternateMatcher}, one of the original matchers or a {@link ConstantMatcher}.
+     *
+     * @param   matchers    the matchers
+     * @return              the combined matcher
+     */
+    static StringMatcher or(StringMatcher ... matchers) {
+        return MatcherAlgebra.or(matchers);
+    }
+
+    /**
+     * Create a matcher that matches a target only if the given matcher does not.  A double negation, or the negation of
+     * a {@link ConstantMatcher}, is simplified.
+     *
+     * @param   matcher     the matcher
+     * @return              the negated matcher
+     */
+    static StringMatcher not(StringMatcher matcher) {
+        return MatcherAlgebra.not(matcher);
+    }
+
+    /**
+     * Create a {@link FuzzyMatcher} to test whether the target is within the given edit distance of a pattern.
+     *
+     * @param   pattern     the pattern
+     * @param   maxDistance the maximum edit distance
+     * @return              the {@link FuzzyMatcher}
+     */
+    static FuzzyMatcher fuzzy(String pattern, int maxDistance) {
+        return new FuzzyMatcher(pattern, maxDistance);
+    }
+
+    /**
+     * Create a {@link FuzzySetMatcher} to test whether the target is within the given edit distance of any of a set of
+     * strings.
+     *
+     * @param   strings     the strings
+     * @param   maxDistance the maximum edit distance
+     * @return              the {@link FuzzySetMatcher}
+     */
+    static FuzzySetMatcher fuzzySet(Collection<String> strings, int maxDistance) {
+        return new FuzzySetMatcher(strings, maxDistance);
+    }
+
+    /**
+     * Get the canonical instance of a {@link StringMatcher} from the shared {@link MatcherInterner}, so that identical
+     * matchers created in different parts of an application may share a single instance.
+     *
+     * @param   matcher     the {@link StringMatcher}
+     * @param   <T>         the type of the matcher
+     * @return              the canonical instance
+     */
+    static <T extends StringMatcher> T intern(T matcher) {
+        return MatcherInterner.getShared().intern(matcher);
+    }
+
+    /**
+     * Check that a region (as supplied to {@link #matches(CharSequence, int, int)}) is within the bounds of the target.
+     *
+     * @param   target  the target string
+     * @param   start   the start index of the region
+     * @param   end     the end index of the region (exclusive)
+     * @throws  IndexOutOfBoundsException   if the region is not within the bounds of the target
+     */
+    static void checkRegion(CharSequence target, int start, int end) {
+        Objects.requireNonNull(target, "Target must not be null");
+        if (start < 0 || end > target.length() || start > end)
+            throw new IndexOutOfBoundsException("Region " + start + ".." + end + " out of bounds for length " +
+                    target.length());
+    }
+
     /**
      * Compare characters in two {@link CharSequence} objects.  No checking is performed on offsets or length; the
      * caller is expected to have checked that all characters are within the bounds of the {@link CharSequence} objects,
@@ -0,0 +1,364 @@
+/*
+ * @(#) TrigramIndex.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An inverted index of the trigrams (sequences of three characters) occurring in a corpus of strings, allowing the
+ * corpus to be searched using a {@link StringMatcher} without testing every entry.
+ *
+ * <p>The literal substrings that any matching entry must contain are extracted from the matcher, and the posting lists
+ * for the trigrams of those substrings are intersected (or, for alternatives, merged) to give a list of candidate
+ * entries; only the candidates are then tested using the matcher itself.  Substrings are extracted from
+ * {@link SimpleMatcher}, {@link ContainsMatcher}, {@link ContainsAnyMatcher}, {@link StartsWithMatcher},
+ * {@link EndsWithMatcher}, {@link WildcardMatcher} and {@link PatternMatcher} (for patterns using the syntax of the
+ * linear engine), and from combinations of them using {@link AlternateMatcher} or {@link AllMatcher}.  Any other
+ * matcher, or one from which no substring of at least three characters can be extracted, is tested against every
+ * entry.</p>
+ *
+ * <p>Entries may be added at any time; the methods of this class are synchronized.</p>
+ *
+ * @author  Peter Wall
+ */
+public class TrigramIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final List<String> entries = new ArrayList<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Construct an empty {@code TrigramIndex}.
+     */
+    public TrigramIndex() {
+    }
+
+    /**
+     * Construct a {@code TrigramIndex} containing the supplied entries.
+     *
+     * @param   entries     the entries
+     */
+    public TrigramIndex(Collection<? extends CharSequence> entries) {
+        addAll(entries);
+    }
+
+    /**
+     * Add an entry to the index.
+     *
+     * @param   entry   the entry
+     * @return          the index number of the new entry
+     */
+    public synchronized int add(CharSequence entry) {
+        Objects.requireNonNull(entry, "Entry must not be null");
+        String string = entry.toString();
+        int id = entries.size();
+        entries.add(string);
+        for (int i = 0, n = string.length() - 2; i < n; i++) {
+            Long key = trigram(string.charAt(i), string.charAt(i + 1), string.charAt(i + 2));
+            Postings list = postings.get(key);
+            if (list == null)
+                postings.put(key, list = new Postings());
+            list.add(id);
+        }
+        return id;
+    }
+
+    /**
+     * Add a number of entries to the index.
+     *
+     * @param   entries     the entries
+     */
+    public synchronized void addAll(Collection<? extends CharSequence> entries) {
+        Objects.requireNonNull(entries, "Entries must not be null");
+        for (CharSequence entry : entries)
+            add(entry);
+    }
+
+    /**
+     * Get the number of entries in the index.
+     *
+     * @return      the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get an entry, by index number.
+     *
+     * @param   index   the index number
+     * @return          the entry
+     * @throws  IndexOutOfBoundsException   if the index number is not valid
+     */
+    public synchronized String get(int index) {
+        return entries.get(index);
+    }
+
+    /**
+     * Get the number of distinct trigrams in the index.
+     *
+     * @return      the number of trigrams
+     */
+    public synchronized int getTrigramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Find the entries matched by a {@link StringMatcher}, in the order in which they were added.
+     *
+     * @param   matcher     the {@link StringMatcher}
+     * @return              the matching entries
+     */
+    public synchronized List<String> search(StringMatcher matcher) {
+        Objects.requireNonNull(matcher, "Matcher must not be null");
+        List<String> result = new ArrayList<>();
+        int[] candidates = candidates(matcher);
+        if (candidates == null) {
+            for (String entry : entries)
+                if (matcher.matches(entry))
+                    result.add(entry);
+        }
+        else {
+            for (int id : candidates) {
+                String entry = entries.get(id);
+                if (matcher.matches(entry))
+                    result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of entries that would be tested in a {@link #search(StringMatcher) search()} using the specified
+     * {@link StringMatcher}.
+     *
+     * @param   matcher     the {@link StringMatcher}
+     * @return              the number of candidate entries
+     */
+    public synchronized int countCandidates(StringMatcher matcher) {
+        Objects.requireNonNull(matcher, "Matcher must not be null");
+        int[] candidates = candidates(matcher);
+        return candidates == null ? entries.size() : candidates.length;
+    }
+
+    /**
+     * Get the sorted list of candidate entry numbers for a matcher, or {@code null} if every entry is a candidate.
+     */
+    private int[] candidates(StringMatcher matcher) {
+        if (matcher == ConstantMatcher.FALSE)
+            return EMPTY;
+        if (matcher instanceof AllMatcher)
+            return intersection(((AllMatcher)matcher).getMatchers());
+        if (matcher instanceof AlternateMatcher)
+            return union(((AlternateMatcher)matcher).getMatchers());
+        if (matcher instanceof FusedMatcher) {
+            FusedMatcher fusedMatcher = (FusedMatcher)matcher;
+            return fusedMatcher.isRequireAll() ? intersection(fusedMatcher.getMatchers()) :
+                    union(fusedMatcher.getMatchers());
+        }
+        if (matcher instanceof ContainsAnyMatcher) {
+            int[] result = EMPTY;
+            for (String string : ((ContainsAnyMatcher)matcher).getStrings()) {
+                int[] candidates = literal(string);
+                if (candidates == null)
+                    return null;
+                result = merge(result, candidates);
+            }
+            return result;
+        }
+        LinearRegex.Node node = MatcherAlgebra.toNode(matcher);
+        if (node == null && matcher instanceof PatternMatcher) {
+            try {
+                node = LinearRegex.parse(((PatternMatcher)matcher).getPattern());
+            }
+            catch (IllegalArgumentException ignore) {
+                // pattern uses constructs not understood here; every entry is a candidate
+            }
+        }
+        return node == null ? null : candidates(node);
+    }
+
+    private int[] intersection(List<StringMatcher> matchers) {
+        int[] result = null;
+        for (StringMatcher matcher : matchers) {
+            result = intersect(result, candidates(matcher));
+            if (result != null && result.length == 0)
+                break;
+        }
+        return result;
+    }
+
+    private int[] union(List<StringMatcher> matchers) {
+        int[] result = EMPTY;
+        for (StringMatcher matcher : matchers) {
+            int[] candidates = candidates(matcher);
+            if (candidates == null)
+                return null;
+            result = merge(result, candidates);
+        }
+        return result;
+    }
+
+    private int[] candidates(LinearRegex.Node node) {
+        if (node instanceof LinearRegex.ConcatNode) {
+            int[] result = null;
+            StringBuilder run = new StringBuilder();
+            for (LinearRegex.Node child : ((LinearRegex.ConcatNode)node).nodes) {
+                if (child instanceof LinearRegex.CharNode && ((LinearRegex.CharNode)child).set.isSingle())
+                    run.appendCodePoint(((LinearRegex.CharNode)child).set.ranges[0]);
+                else {
+                    result = intersect(result, literal(run));
+                    run.setLength(0);
+                    if (result != null && result.length == 0)
+                        return result;
+                    result = intersect(result, candidates(child));
+                }
+            }
+            return intersect(result, literal(run));
+        }
+        if (node instanceof LinearRegex.AltNode) {
+            int[] result = EMPTY;
+            for (LinearRegex.Node child : ((LinearRegex.AltNode)node).nodes) {
+                int[] candidates = candidates(child);
+                if (candidates == null)
+                    return null;
+                result = merge(result, candidates);
+            }
+            return result;
+        }
+        if (node instanceof LinearRegex.RepeatNode) {
+            LinearRegex.RepeatNode repeatNode = (LinearRegex.RepeatNode)node;
+            return repeatNode.min > 0 ? candidates(repeatNode.node) : null;
+        }
+        return null; // a single character or an assertion tells us nothing
+    }
+
+    private int[] literal(CharSequence string) {
+        int n = string.length() - 2;
+        if (n <= 0)
+            return null;
+        Postings[] lists = new Postings[n];
+        for (int i = 0; i < n; i++) {
+            Postings list = postings.get(trigram(string.charAt(i), string.charAt(i + 1), string.charAt(i + 2)));
+            if (list == null)
+                return EMPTY;
+            lists[i] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        for (int i = 1; i < n && result.length > 0; i++)
+            result = intersect(result, result.length, lists[i].ids, lists[i].size);
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        if (a == null)
+            return b;
+        if (b == null)
+            return a;
+        return intersect(a, a.length, b, b.length);
+    }
+
+    private static int[] intersect(int[] a, int aSize, int[] b, int bSize) {
+        int[] result = new int[Math.min(aSize, bSize)];
+        int n = 0;
+        for (int i = 0, j = 0; i < aSize && j < bSize; ) {
+            int x = a[i];
+            int y = b[j];
+            if (x < y)
+                i++;
+            else if (x > y)
+                j++;
+            else {
+                result[n++] = x;
+                i++;
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        if (a.length == 0)
+            return b;
+        if (b.length == 0)
+            return a;
+        int[] result = new int[a.length + b.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            int x = a[i];
+            int y = b[j];
+            if (x <= y) {
+                result[n++] = x;
+                i++;
+                if (x == y)
+                    j++;
+            }
+            else {
+                result[n++] = y;
+                j++;
+            }
+        }
+        while (i < a.length)
+            result[n++] = a[i++];
+        while (j < b.length)
+            result[n++] = b[j++];
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private static Long trigram(char c1, char c2, char c3) {
+        return ((long)c1 << 32) | ((long)c2 << 16) | c3;
+    }
+
+    /**
+     * A growable list of entry numbers, in ascending order.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id)
+                return; // trigram occurs more than once in the same entry
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+    }
+
+}
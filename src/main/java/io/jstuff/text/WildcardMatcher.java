@@ -25,17 +25,33 @@
 
 package io.jstuff.text;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public class WildcardMatcher implements StringMatcher {
 
     public static final char defaultSingleMatchChar = '?';
     public static final char defaultMultiMatchChar = '*';
+    public static final char defaultEscapeChar = '\\';
+
+    private static final int SINGLE = -1;
+    private static final int MULTI = -2;
+    private static final int CLASS_BASE = -3;
+    private static final int MAX_BIT_PARALLEL = 64;
 
     private final String pattern;
     private final char singleMatchChar;
     private final char multiMatchChar;
-    private final int patternLength;
+    private final boolean extended;
+    private final char escapeChar;
+    private final int[] tokens;
+    private final CharClass[] classes;
+    private final CharMasks masks;
+    private final long singleMask;
+    private volatile LinearRegex streamRegex;
 
     /**
      * Construct a {@code WildcardMatcher} with the specified wildcard characters.
@@ -45,10 +61,23 @@ public class WildcardMatcher implements StringMatcher {
      * @param   multiMatchChar      the character used to represent a multi-character wildcard match in the pattern
      */
     public WildcardMatcher(String pattern, char singleMatchChar, char multiMatchChar) {
-        this.pattern = Objects.requireNonNull(pattern, "Pattern must not be null");
-        this.singleMatchChar = singleMatchChar;
-        this.multiMatchChar = multiMatchChar;
-        patternLength = pattern.length();
+        this(pattern, singleMatchChar, multiMatchChar, false, '\0');
+    }
+
+    /**
+     * Construct a {@code WildcardMatcher} with the specified wildcard characters, using the extended pattern syntax.
+     * In addition to the wildcard characters, the extended syntax allows character classes ({@code [abc]},
+     * {@code [a-z]}, or {@code [!x]} or {@code [^x]} for a negated class), and an escape character which causes the
+     * following character to be matched literally.
+     *
+     * @param   pattern             the text pattern
+     * @param   singleMatchChar     the character used to represent a single character wildcard match in the pattern
+     * @param   multiMatchChar      the character used to represent a multi-character wildcard match in the pattern
+     * @param   escapeChar          the character used to escape the following character in the pattern
+     * @throws  IllegalArgumentException    if the pattern contains an invalid character class or escape
+     */
+    public WildcardMatcher(String pattern, char singleMatchChar, char multiMatchChar, char escapeChar) {
+        this(pattern, singleMatchChar, multiMatchChar, true, escapeChar);
     }
 
     /**
@@ -60,43 +89,344 @@ public class WildcardMatcher implements StringMatcher {
         this(pattern, defaultSingleMatchChar, defaultMultiMatchChar);
     }
 
+    private WildcardMatcher(String pattern, char singleMatchChar, char multiMatchChar, boolean extended,
+            char escapeChar) {
+        this.pattern = Objects.requireNonNull(pattern, "Pattern must not be null");
+        this.singleMatchChar = singleMatchChar;
+        this.multiMatchChar = multiMatchChar;
+        this.extended = extended;
+        this.escapeChar = escapeChar;
+        List<CharClass> classList = new ArrayList<>();
+        int[] buffer = new int[pattern.length()];
+        int n = 0;
+        int i = 0;
+        int patternLength = pattern.length();
+        while (i < patternLength) {
+            char patternChar = pattern.charAt(i++);
+            if (extended && patternChar == escapeChar) {
+                if (i >= patternLength)
+                    throw new IllegalArgumentException("Escape character at end of pattern");
+                buffer[n++] = pattern.charAt(i++);
+            }
+            else if (patternChar == singleMatchChar)
+                buffer[n++] = SINGLE;
+            else if (patternChar == multiMatchChar) {
+                if (n == 0 || buffer[n - 1] != MULTI) // consecutive multi-character wildcards are equivalent to one
+                    buffer[n++] = MULTI;
+            }
+            else if (extended && patternChar == '[') {
+                CharClass charClass = new CharClass();
+                i = charClass.parse(pattern, i, escapeChar);
+                classList.add(charClass);
+                buffer[n++] = CLASS_BASE - (classList.size() - 1);
+            }
+            else
+                buffer[n++] = patternChar;
+        }
+        tokens = Arrays.copyOf(buffer, n);
+        classes = classList.toArray(new CharClass[0]);
+        // a pattern with no multi-character wildcards or classes matches a fixed number of characters, and may be
+        // searched for with a bit-parallel scan
+        long singleMask = 0;
+        boolean fixed = n > 0 && n <= MAX_BIT_PARALLEL;
+        for (int j = 0; fixed && j < n; j++) {
+            if (tokens[j] == SINGLE)
+                singleMask |= 1L << j;
+            else if (tokens[j] < 0)
+                fixed = false;
+        }
+        masks = fixed ? new CharMasks(tokens) : null;
+        this.singleMask = singleMask;
+    }
+
+    /**
+     * Test whether the {@code WildcardMatcher} uses the extended pattern syntax (character classes and escapes).
+     *
+     * @return      {@code true} if the extended syntax is in use
+     */
+    public boolean isExtended() {
+        return extended;
+    }
+
     @Override
     public boolean matches(CharSequence target) {
         Objects.requireNonNull(target, "Target must not be null");
-        return matches(target, 0, target.length(), 0);
+        return matches(target, 0, target.length(), 0, null);
     }
 
-    private boolean matches(CharSequence target, int targetStart, int targetEnd, int patternStart) {
+    @Override
+    public boolean matches(CharSequence target, int start, int end) {
+        StringMatcher.checkRegion(target, start, end);
+        return matches(target, start, end, 0, null);
+    }
+
+    /**
+     * Test whether the target matches, within the limits of a {@link MatchBudget}.  Each attempt to match the rest of
+     * the pattern following a multi-character wildcard counts as a step, so the work done for patterns with many
+     * multi-character wildcards is bounded.
+     *
+     * @param   target      the target string
+     * @param   budget      the {@link MatchBudget}
+     * @return              the {@link MatchResult}
+     */
+    @Override
+    public MatchResult matches(CharSequence target, MatchBudget budget) {
+        Objects.requireNonNull(target, "Target must not be null");
+        Objects.requireNonNull(budget, "Budget must not be null");
+        try {
+            return MatchResult.of(matches(target, 0, target.length(), 0, budget));
+        }
+        catch (BudgetExceededException e) {
+            return MatchResult.BUDGET_EXCEEDED;
+        }
+    }
+
+    private boolean matches(CharSequence target, int targetStart, int targetEnd, int tokenStart, MatchBudget budget) {
+        if (budget != null)
+            budget.step();
         int targetIndex = targetStart;
-        int patternIndex = patternStart;
-        while (patternIndex < patternLength) {
-            char patternChar = pattern.charAt(patternIndex++);
-            if (patternChar == singleMatchChar) {
-                if (targetIndex >= targetEnd)
-                    return false;
-                char targetChar = target.charAt(targetIndex++);
-                if (Character.isHighSurrogate(targetChar) && targetIndex < targetEnd &&
-                        Character.isLowSurrogate(target.charAt(targetIndex)))
-                    targetIndex++;
-            }
-            else if (patternChar == multiMatchChar) {
-                if (patternIndex == patternLength)
+        int tokenIndex = tokenStart;
+        int tokenCount = tokens.length;
+        while (tokenIndex < tokenCount) {
+            int token = tokens[tokenIndex++];
+            if (token == MULTI) {
+                if (tokenIndex == tokenCount)
                     return true;
                 while (true) {
                     if (targetIndex >= targetEnd)
                         return false;
-                    if (matches(target, targetIndex++, targetEnd, patternIndex))
+                    if (matches(target, targetIndex++, targetEnd, tokenIndex, budget))
                         return true;
                 }
             }
-            else {
-                if (targetIndex >= targetEnd || target.charAt(targetIndex++) != patternChar)
-                    return false;
-            }
+            targetIndex = matchOne(token, target, targetIndex, targetEnd);
+            if (targetIndex < 0)
+                return false;
         }
         return targetIndex == targetEnd;
     }
 
+    /**
+     * Find the first span of the target, starting at or after the given index, that matches the pattern.  If the
+     * pattern contains no multi-character wildcards or character classes and is no longer than 64 characters, the
+     * search uses a bit-parallel (Shift-And) scan, which examines each character of the target once; otherwise the
+     * pattern is compiled to an automaton (on first use), which also examines each character of the target once.
+     *
+     * @param   target  the target string
+     * @param   from    the index at which to start the search
+     * @return          the start index of the span, or -1 if none was found
+     */
+    @Override
+    public int find(CharSequence target, int from) {
+        StringMatcher.checkRegion(target, from, target.length());
+        if (masks == null) {
+            LinearRegex regex = searchRegex();
+            return regex != null ? regex.find(target, from) : StringMatcher.super.find(target, from);
+        }
+        int length = tokens.length;
+        long found = 1L << (length - 1);
+        long state = 0;
+        for (int i = from, n = target.length(); i < n; i++) {
+            char ch = target.charAt(i);
+            if (singleMask != 0 && Character.isSurrogate(ch)) // a single-character wildcard may match a surrogate pair
+                return StringMatcher.super.find(target, from);
+            state = ((state << 1) | 1) & (masks.get(ch) | singleMask);
+            if ((state & found) != 0)
+                return i - length + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Find the end of the longest span of the target starting at the given index that matches the pattern.  If the
+     * pattern contains multi-character wildcards, the span is located using the automaton compiled from the pattern,
+     * so that the time taken is linear in the length of the target.
+     *
+     * @param   target  the target string
+     * @param   start   the start index of the span
+     * @return          the end index of the span, or -1 if there is no match at that index
+     */
+    @Override
+    public int matchEnd(CharSequence target, int start) {
+        StringMatcher.checkRegion(target, start, target.length());
+        if (masks == null) {
+            for (int token : tokens) {
+                if (token == MULTI) {
+                    LinearRegex regex = searchRegex();
+                    if (regex != null)
+                        return regex.matchEnd(target, start);
+                    break;
+                }
+            }
+        }
+        return matchEnd(target, start, target.length(), 0);
+    }
+
+    private int matchEnd(CharSequence target, int targetStart, int targetEnd, int tokenStart) {
+        int targetIndex = targetStart;
+        int tokenIndex = tokenStart;
+        int tokenCount = tokens.length;
+        while (tokenIndex < tokenCount) {
+            int token = tokens[tokenIndex++];
+            if (token == MULTI) {
+                if (tokenIndex == tokenCount)
+                    return targetEnd;
+                int result = -1;
+                while (targetIndex <= targetEnd && result < targetEnd)
+                    result = Math.max(result, matchEnd(target, targetIndex++, targetEnd, tokenIndex));
+                return result;
+            }
+            targetIndex = matchOne(token, target, targetIndex, targetEnd);
+            if (targetIndex < 0)
+                return -1;
+        }
+        return targetIndex;
+    }
+
+    /*
+     * Match a single token (other than a multi-character wildcard) at the given index, returning the index following
+     * the character(s) matched, or -1 if the token does not match.  A single character wildcard or a character class
+     * will match a surrogate pair as a single character.
+     */
+    private int matchOne(int token, CharSequence target, int index, int end) {
+        if (index >= end)
+            return -1;
+        char targetChar = target.charAt(index++);
+        if (token >= 0)
+            return targetChar == token ? index : -1;
+        int codePoint = targetChar;
+        if (Character.isHighSurrogate(targetChar) && index < end) {
+            char lowSurrogate = target.charAt(index);
+            if (Character.isLowSurrogate(lowSurrogate)) {
+                codePoint = Character.toCodePoint(targetChar, lowSurrogate);
+                index++;
+            }
+        }
+        if (token == SINGLE)
+            return index;
+        return classes[CLASS_BASE - token].contains(codePoint) ? index : -1;
+    }
+
+    /**
+     * Create a {@link StreamingMatcher} to test whether text supplied in a number of chunks contains a span matching the
+     * pattern (as {@link #find(CharSequence, int) find()} would), including spans that straddle the boundaries between
+     * chunks.  The pattern is compiled to a DFA (on first use), and only the current DFA state is held between chunks.
+     *
+     * @return      the {@link StreamingMatcher}
+     * @throws  UnsupportedOperationException   if the pattern contains a lone surrogate character
+     */
+    public StreamingMatcher streaming() {
+        LinearRegex regex = searchRegex();
+        if (regex == null)
+            throw new UnsupportedOperationException("Streaming not supported for pattern: " + pattern);
+        LinearRegex.Stream stream = regex.stream();
+        return new StreamingMatcher() {
+            @Override
+            public boolean feed(CharSequence chunk) {
+                Objects.requireNonNull(chunk, "Chunk must not be null");
+                return stream.feed(chunk, 0, chunk.length());
+            }
+            @Override
+            public boolean isMatched() {
+                return stream.isMatched();
+            }
+            @Override
+            public void reset() {
+                stream.reset();
+            }
+        };
+    }
+
+    /*
+     * Get the unanchored automaton for the pattern, as used for streaming and for locating spans, compiling it on
+     * first use; returns null if the pattern can not be converted (it contains a lone surrogate, or it is too large
+     * for the linear engine), in which case the caller falls back to the backtracking search.
+     */
+    private LinearRegex searchRegex() {
+        LinearRegex regex = streamRegex;
+        if (regex == null) {
+            LinearRegex.Node node = toNode(false);
+            if (node == null)
+                return null;
+            try {
+                streamRegex = regex = LinearRegex.compile(Collections.singletonList(node), false);
+            }
+            catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return regex;
+    }
+
+    /*
+     * Convert the pattern to a syntax tree for the linear regular expression engine (anchored at both ends of the
+     * target), so that it may be combined with other automata.  A surrogate pair in the pattern becomes a single code
+     * point; returns null if the pattern contains a lone surrogate character, which the engine (which works on code
+     * points) would not treat in the same way.
+     */
+    LinearRegex.Node toNode() {
+        return toNode(true);
+    }
+
+    /*
+     * Convert the pattern to a syntax tree, optionally without the anchors (for an unanchored search).
+     */
+    private LinearRegex.Node toNode(boolean anchored) {
+        List<LinearRegex.Node> nodes = new ArrayList<>();
+        if (anchored)
+            nodes.add(new LinearRegex.AssertNode(LinearRegex.BEGIN));
+        for (int i = 0, n = tokens.length; i < n; i++) {
+            int token = tokens[i];
+            if (token == SINGLE)
+                nodes.add(new LinearRegex.CharNode(LinearRegex.CharSet.ANY));
+            else if (token == MULTI)
+                nodes.add(new LinearRegex.RepeatNode(new LinearRegex.CharNode(LinearRegex.CharSet.ANY), 0, -1));
+            else if (token <= CLASS_BASE)
+                nodes.add(new LinearRegex.CharNode(classes[CLASS_BASE - token].toCharSet()));
+            else if (Character.isHighSurrogate((char)token) && i + 1 < n && tokens[i + 1] >= 0 &&
+                    Character.isLowSurrogate((char)tokens[i + 1]))
+                nodes.add(new LinearRegex.CharNode(LinearRegex.CharSet.of(Character.toCodePoint((char)token,
+                        (char)tokens[++i]))));
+            else if (Character.isSurrogate((char)token))
+                return null;
+            else
+                nodes.add(new LinearRegex.CharNode(LinearRegex.CharSet.of(token)));
+        }
+        if (anchored)
+            nodes.add(new LinearRegex.AssertNode(LinearRegex.END_INPUT));
+        return new LinearRegex.ConcatNode(nodes);
+    }
+
+    /**
+     * Get the range of strings that can be matched: strings starting with the literal characters (if any) preceding the
+     * first wildcard or character class.
+     *
+     * @return      the {@link KeyRange}
+     */
+    @Override
+    public KeyRange keyRange() {
+        StringBuilder sb = new StringBuilder();
+        for (int token : tokens) {
+            if (token < 0)
+                return KeyRange.prefix(sb.toString());
+            sb.append((char)token);
+        }
+        return KeyRange.exact(sb.toString());
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        long result = Footprint.object(5 * Footprint.REFERENCE + 3 * 2 + 1 + 8) + Footprint.string(pattern) +
+                Footprint.array(tokens.length, 4) + Footprint.array(classes.length, Footprint.REFERENCE);
+        for (CharClass charClass : classes)
+            result += Footprint.object(2 * Footprint.REFERENCE + 1) + Footprint.array(4, 8) +
+                    Footprint.array(charClass.ranges.length, 4);
+        if (masks != null)
+            result += masks.estimatedRetainedBytes();
+        LinearRegex regex = streamRegex;
+        return regex != null ? result + regex.estimatedRetainedBytes() : result;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
@@ -105,7 +435,8 @@ public class WildcardMatcher implements StringMatcher {
             return false;
         WildcardMatcher other = (WildcardMatcher)obj;
         return pattern.equals(other.pattern) && singleMatchChar == other.singleMatchChar &&
-                multiMatchChar == other.multiMatchChar;
+                multiMatchChar == other.multiMatchChar && extended == other.extended &&
+                escapeChar == other.escapeChar;
     }
 
     @Override
@@ -113,4 +444,98 @@ public class WildcardMatcher implements StringMatcher {
         return pattern.hashCode() ^ singleMatchChar ^ multiMatchChar;
     }
 
+    /**
+     * A character class, compiled into a bitset for the Latin-1 characters and a table of ranges for other characters.
+     */
+    private static class CharClass {
+
+        private final long[] latin1 = new long[4];
+        private int[] ranges = new int[0];
+        private boolean negated;
+
+        int parse(String pattern, int index, char escapeChar) {
+            int patternLength = pattern.length();
+            int i = index;
+            if (i < patternLength && (pattern.charAt(i) == '!' || pattern.charAt(i) == '^')) {
+                negated = true;
+                i++;
+            }
+            boolean first = true;
+            while (true) {
+                if (i >= patternLength)
+                    throw new IllegalArgumentException("Unterminated character class in pattern");
+                int lo = pattern.codePointAt(i);
+                if (lo == ']' && !first)
+                    return i + 1;
+                first = false;
+                i += Character.charCount(lo);
+                if (lo == escapeChar) {
+                    if (i >= patternLength)
+                        throw new IllegalArgumentException("Escape character at end of pattern");
+                    lo = pattern.codePointAt(i);
+                    i += Character.charCount(lo);
+                }
+                int hi = lo;
+                if (i + 1 < patternLength && pattern.charAt(i) == '-' && pattern.charAt(i + 1) != ']') {
+                    hi = pattern.codePointAt(++i);
+                    i += Character.charCount(hi);
+                    if (hi == escapeChar) {
+                        if (i >= patternLength)
+                            throw new IllegalArgumentException("Escape character at end of pattern");
+                        hi = pattern.codePointAt(i);
+                        i += Character.charCount(hi);
+                    }
+                    if (hi < lo)
+                        throw new IllegalArgumentException("Invalid range in character class");
+                }
+                addRange(lo, hi);
+            }
+        }
+
+        private void addRange(int lo, int hi) {
+            for (int c = lo, stopper = Math.min(hi, 0xFF); c <= stopper; c++)
+                latin1[c >>> 6] |= 1L << c;
+            if (hi > 0xFF) {
+                int n = ranges.length;
+                ranges = Arrays.copyOf(ranges, n + 2);
+                ranges[n] = Math.max(lo, 0x100);
+                ranges[n + 1] = hi;
+            }
+        }
+
+        LinearRegex.CharSet toCharSet() {
+            List<int[]> list = new ArrayList<>();
+            int c = 0;
+            while (c <= 0xFF) {
+                if ((latin1[c >>> 6] & (1L << c)) != 0) {
+                    int lo = c;
+                    while (c < 0xFF && (latin1[(c + 1) >>> 6] & (1L << (c + 1))) != 0)
+                        c++;
+                    list.add(new int[] { lo, c });
+                }
+                c++;
+            }
+            for (int i = 0, n = ranges.length; i < n; i += 2)
+                list.add(new int[] { ranges[i], ranges[i + 1] });
+            LinearRegex.CharSet set = LinearRegex.CharSet.of(list);
+            return negated ? set.complement() : set;
+        }
+
+        boolean contains(int codePoint) {
+            boolean result = false;
+            if (codePoint <= 0xFF)
+                result = (latin1[codePoint >>> 6] & (1L << codePoint)) != 0;
+            else {
+                for (int i = 0, n = ranges.length; i < n; i += 2) {
+                    if (codePoint >= ranges[i] && codePoint <= ranges[i + 1]) {
+                        result = true;
+                        break;
+                    }
+                }
+            }
+            return result != negated;
+        }
+
+    }
+
 }
@@ -0,0 +1,82 @@
+/*
+ * @(#) Wildcard.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies a wildcard pattern (as used by {@link io.jstuff.text.WildcardMatcher WildcardMatcher}) from which
+ * {@link io.jstuff.text.processor.MatcherProcessor MatcherProcessor} generates a specialised
+ * {@link io.jstuff.text.StringMatcher StringMatcher} class at build time.  The annotation is placed on a field (usually
+ * the field that holds an instance of the generated class):
+ * <pre>
+ *     &#64;Wildcard("File*.txt")
+ *     static final StringMatcher TEXT_FILES = new TextFilesMatcher();
+ * </pre>
+ * The generated class is in the same package as the class containing the field, and its name is derived from the name
+ * of the field (unless {@link #className()} is specified).
+ *
+ * @author  Peter Wall
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Wildcard {
+
+    /**
+     * The wildcard pattern.
+     *
+     * @return      the pattern
+     */
+    String value();
+
+    /**
+     * The character used to represent a single character wildcard match in the pattern.
+     *
+     * @return      the single character wildcard
+     */
+    char singleMatchChar() default '?';
+
+    /**
+     * The character used to represent a multi-character wildcard match in the pattern.
+     *
+     * @return      the multi-character wildcard
+     */
+    char multiMatchChar() default '*';
+
+    /**
+     * The simple name of the generated class; if not specified, the name of the field is converted to camel case, and
+     * {@code Matcher} is appended (so that {@code TEXT_FILES} or {@code textFiles} becomes {@code TextFilesMatcher}).
+     *
+     * @return      the class name
+     */
+    String className() default "";
+
+}
@@ -0,0 +1,479 @@
+/*
+ * @(#) MatcherGenerator.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.jstuff.text.PerfectHashMatcher;
+
+/**
+ * Generates the source of specialised {@link io.jstuff.text.StringMatcher StringMatcher} classes, for
+ * {@link MatcherProcessor}.  Comparisons with literal characters are unrolled (up to a limit on the length of each
+ * string), and sets of strings are looked up using the hash table of a {@link PerfectHashMatcher} computed at build
+ * time.
+ *
+ * @author  Peter Wall
+ */
+final class MatcherGenerator {
+
+    static final int maxStrings = 2000;
+    static final int maxUnrolledLength = 32;
+    static final int maxUnrolledSet = 256;
+
+    private static final int SINGLE = -1;
+
+    private final StringBuilder sb = new StringBuilder();
+    private final Set<String> imports = new LinkedHashSet<>();
+
+    private MatcherGenerator() {
+    }
+
+    /**
+     * Generate a class matching a wildcard pattern (as {@link io.jstuff.text.WildcardMatcher WildcardMatcher} does).
+     *
+     * @param   packageName     the package name (empty for the unnamed package)
+     * @param   className       the simple name of the class
+     * @param   origin          a description of the origin of the class, for the class comment
+     * @param   pattern         the wildcard pattern
+     * @param   singleMatchChar the single character wildcard
+     * @param   multiMatchChar  the multi-character wildcard
+     * @return                  the source of the class
+     */
+    static String wildcard(String packageName, String className, String origin, String pattern, char singleMatchChar,
+            char multiMatchChar) {
+        // split the pattern into the segments separated by multi-character wildcards
+        List<List<Integer>> segments = new ArrayList<>();
+        List<Integer> segment = new ArrayList<>();
+        for (int i = 0, n = pattern.length(); i < n; i++) {
+            char ch = pattern.charAt(i);
+            if (ch == singleMatchChar)
+                segment.add(SINGLE);
+            else if (ch == multiMatchChar) {
+                if (i == 0 || pattern.charAt(i - 1) != multiMatchChar) {
+                    segments.add(segment);
+                    segment = new ArrayList<>();
+                }
+            }
+            else
+                segment.add((int)ch);
+        }
+        segments.add(segment);
+        MatcherGenerator generator = new MatcherGenerator();
+        generator.imports.add("io.jstuff.text.KeyRange");
+        generator.imports.add("io.jstuff.text.StringMatcher");
+        generator.imports.add("java.util.Objects");
+        generator.wildcardBody(className, "the wildcard pattern " + javaString(pattern), origin, segments);
+        return generator.source(packageName);
+    }
+
+    /**
+     * Generate a class matching any of a set of strings (as {@link PerfectHashMatcher} does).
+     *
+     * @param   packageName     the package name (empty for the unnamed package)
+     * @param   className       the simple name of the class
+     * @param   origin          a description of the origin of the class, for the class comment
+     * @param   strings         the strings
+     * @return                  the source of the class
+     * @throws  IllegalArgumentException    if there are too many strings
+     */
+    static String anyOf(String packageName, String className, String origin, List<String> strings) {
+        Set<String> set = new LinkedHashSet<>(strings);
+        if (set.size() > maxStrings)
+            throw new IllegalArgumentException("Too many strings for generated matcher (maximum " + maxStrings +
+                    "); use PerfectHashMatcher or CompiledSetMatcher");
+        MatcherGenerator generator = new MatcherGenerator();
+        generator.imports.add("io.jstuff.text.KeyRange");
+        generator.imports.add("io.jstuff.text.StringMatcher");
+        generator.imports.add("java.util.Objects");
+        if (!set.isEmpty())
+            generator.imports.add("io.jstuff.text.PerfectHashMatcher");
+        generator.anyOfBody(className, set.size() + (set.size() == 1 ? " string" : " strings"), origin,
+                new PerfectHashMatcher(set));
+        return generator.source(packageName);
+    }
+
+    private String source(String packageName) {
+        StringBuilder result = new StringBuilder();
+        if (!packageName.isEmpty())
+            result.append("package ").append(packageName).append(";\n\n");
+        List<String> sorted = new ArrayList<>(imports);
+        Collections.sort(sorted);
+        for (String name : sorted)
+            result.append("import ").append(name).append(";\n");
+        return result.append('\n').append(sb).toString();
+    }
+
+    private void classStart(String className, String description, String origin) {
+        line(0, "/**");
+        line(0, " * Matcher for " + comment(description) + ".");
+        line(0, " * Generated by {@code MatcherProcessor} from " + comment(origin) + " - do not edit.");
+        line(0, " */");
+        line(0, "public final class " + className + " implements StringMatcher {");
+        line(0, "");
+    }
+
+    private void matchesWhole() {
+        line(1, "@Override");
+        line(1, "public boolean matches(CharSequence target) {");
+        line(2, "Objects.requireNonNull(target, \"Target must not be null\");");
+        line(2, "return matches(target, 0, target.length());");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void keyRange() {
+        line(1, "@Override");
+        line(1, "public KeyRange keyRange() {");
+        line(2, "return KEY_RANGE;");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void wildcardBody(String className, String description, String origin, List<List<Integer>> segments) {
+        classStart(className, description, origin);
+        int last = segments.size() - 1;
+        StringBuilder prefix = new StringBuilder();
+        boolean exact = last == 0;
+        for (int token : segments.get(0)) {
+            if (token == SINGLE) {
+                exact = false;
+                break;
+            }
+            prefix.append((char)token);
+        }
+        String keyRange = exact ? "KeyRange.exact(" + javaString(prefix) + ")" :
+                prefix.length() > 0 ? "KeyRange.prefix(" + javaString(prefix) + ")" : "KeyRange.ALL";
+        line(1, "private static final KeyRange KEY_RANGE = " + keyRange + ";");
+        line(0, "");
+        matchesWhole();
+        line(1, "@Override");
+        line(1, "public boolean matches(CharSequence target, int start, int end) {");
+        line(2, "StringMatcher.checkRegion(target, start, end);");
+        List<Integer> first = segments.get(0);
+        if (last == 0)
+            line(2, first.isEmpty() ? "return start == end;" : "return segment0(target, start, end) == end;");
+        else {
+            if (first.isEmpty())
+                line(2, "int i = start;");
+            else {
+                line(2, "int i = segment0(target, start, end);");
+                line(2, "if (i < 0)");
+                line(3, "return false;");
+            }
+            // each segment between multi-character wildcards is matched at the first index at which it can match
+            for (int k = 1; k < last; k++) {
+                line(2, "while (true) {");
+                line(3, "if (i >= end)");
+                line(4, "return false;");
+                line(3, "int next = segment" + k + "(target, i, end);");
+                line(3, "if (next >= 0) {");
+                line(4, "i = next;");
+                line(4, "break;");
+                line(3, "}");
+                line(3, "i++;");
+                line(2, "}");
+            }
+            // the last segment must match at the end of the target
+            List<Integer> lastSegment = segments.get(last);
+            if (lastSegment.isEmpty())
+                line(2, "return true;");
+            else if (!lastSegment.contains(SINGLE)) {
+                int length = lastSegment.size();
+                line(2, "return end - i >= " + length + " && segment" + last + "(target, end - " + length +
+                        ", end) >= 0;");
+            }
+            else {
+                line(2, "for (int j = i; j < end; j++)");
+                line(3, "if (segment" + last + "(target, j, end) == end)");
+                line(4, "return true;");
+                line(2, "return false;");
+            }
+        }
+        line(1, "}");
+        line(0, "");
+        keyRange();
+        boolean single = false;
+        for (int k = 0; k <= last; k++) {
+            List<Integer> segment = segments.get(k);
+            if (!segment.isEmpty()) {
+                segment(k, segment);
+                single |= segment.contains(SINGLE);
+            }
+        }
+        if (single) {
+            line(1, "private static int single(CharSequence target, int index, int end) {");
+            line(2, "// a single character wildcard matches a surrogate pair as a single character");
+            line(2, "if (Character.isHighSurrogate(target.charAt(index)) && index + 1 < end &&");
+            line(4, "Character.isLowSurrogate(target.charAt(index + 1)))");
+            line(3, "return index + 2;");
+            line(2, "return index + 1;");
+            line(1, "}");
+            line(0, "");
+        }
+        line(0, "}");
+    }
+
+    /*
+     * Generate a function to match a segment of the pattern (containing no multi-character wildcards) at a given
+     * index, returning the index following the match or -1.
+     */
+    private void segment(int k, List<Integer> segment) {
+        line(1, "private static int segment" + k + "(CharSequence target, int index, int end) {");
+        line(2, "int i = index;");
+        int n = segment.size();
+        int j = 0;
+        while (j < n) {
+            if (segment.get(j) == SINGLE) {
+                line(2, "if (i >= end)");
+                line(3, "return -1;");
+                line(2, "i = single(target, i, end);");
+                j++;
+                continue;
+            }
+            StringBuilder literal = new StringBuilder();
+            while (j < n && segment.get(j) != SINGLE)
+                literal.append((char)(int)segment.get(j++));
+            int length = literal.length();
+            List<String> conditions = new ArrayList<>();
+            conditions.add("end - i < " + length);
+            if (length > maxUnrolledLength)
+                conditions.add("!StringMatcher.compareCS(target, i, " + javaString(literal) + ", 0, " + length + ")");
+            else {
+                for (int m = 0; m < length; m++)
+                    conditions.add("target.charAt(" + (m == 0 ? "i" : "i + " + m) + ") != " +
+                            javaChar(literal.charAt(m)));
+            }
+            condition(2, conditions, " ||");
+            line(3, "return -1;");
+            line(2, "i += " + length + ";");
+        }
+        line(2, "return i;");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void anyOfBody(String className, String description, String origin, PerfectHashMatcher table) {
+        classStart(className, description, origin);
+        List<String> keys = table.getKeys();
+        int n = keys.size();
+        if (n == 0) {
+            line(1, "private static final KeyRange KEY_RANGE = KeyRange.EMPTY;");
+            line(0, "");
+            matchesWhole();
+            line(1, "@Override");
+            line(1, "public boolean matches(CharSequence target, int start, int end) {");
+            line(2, "StringMatcher.checkRegion(target, start, end);");
+            line(2, "return false;");
+            line(1, "}");
+            line(0, "");
+            keyRange();
+            line(0, "}");
+            return;
+        }
+        int[] seeds = table.getSeeds();
+        String min = keys.get(0);
+        String max = min;
+        int minLength = Integer.MAX_VALUE;
+        int maxLength = 0;
+        int totalLength = 0;
+        for (String key : keys) {
+            if (key.compareTo(min) < 0)
+                min = key;
+            if (key.compareTo(max) > 0)
+                max = key;
+            minLength = Math.min(minLength, key.length());
+            maxLength = Math.max(maxLength, key.length());
+            totalLength += key.length();
+        }
+        // small sets are compared in a switch on the slot; larger sets use a table of the strings
+        boolean unrolled = n <= maxUnrolledSet && totalLength <= maxUnrolledSet * 4;
+        intArray("SEEDS", seeds);
+        if (!unrolled)
+            stringArray("KEYS", keys);
+        line(1, "private static final KeyRange KEY_RANGE = KeyRange.exact(" + javaString(min) +
+                ").span(KeyRange.exact(" + javaString(max) + "));");
+        line(0, "");
+        matchesWhole();
+        line(1, "@Override");
+        line(1, "public boolean matches(CharSequence target, int start, int end) {");
+        line(2, "StringMatcher.checkRegion(target, start, end);");
+        line(2, "int length = end - start;");
+        line(2, minLength == maxLength ? "if (length != " + minLength + ")" :
+                "if (length < " + minLength + " || length > " + maxLength + ")");
+        line(3, "return false;");
+        line(2, "int seed = SEEDS[Math.floorMod(PerfectHashMatcher.hash(target, start, end, 0), " + seeds.length +
+                ")];");
+        line(2, "if (seed == 0)");
+        line(3, "return false;");
+        String slot = "seed < 0 ? -seed - 1 : Math.floorMod(PerfectHashMatcher.hash(target, start, end, seed), " + n +
+                ")";
+        if (unrolled) {
+            line(2, "switch (" + slot + ") {");
+            for (int i = 0; i < n; i++) {
+                String key = keys.get(i);
+                int length = key.length();
+                line(3, "case " + i + ":");
+                List<String> conditions = new ArrayList<>();
+                if (minLength != maxLength || length == 0)
+                    conditions.add("length == " + length);
+                if (length > maxUnrolledLength)
+                    conditions.add("StringMatcher.compareCS(target, start, " + javaString(key) + ", 0, " + length +
+                            ")");
+                else {
+                    for (int m = 0; m < length; m++)
+                        conditions.add("target.charAt(" + (m == 0 ? "start" : "start + " + m) + ") == " +
+                                javaChar(key.charAt(m)));
+                }
+                condition(4, conditions, " &&", "return ", ";");
+            }
+            line(3, "default:");
+            line(4, "return false;");
+            line(2, "}");
+        }
+        else {
+            line(2, "String key = KEYS[" + slot + "];");
+            line(2, "return key.length() == length && StringMatcher.compareCS(target, start, key, 0, length);");
+        }
+        line(1, "}");
+        line(0, "");
+        keyRange();
+        line(0, "}");
+    }
+
+    private void intArray(String name, int[] values) {
+        line(1, "private static final int[] " + name + " = {");
+        StringBuilder row = new StringBuilder();
+        for (int i = 0, n = values.length; i < n; i++) {
+            String item = values[i] + (i < n - 1 ? "," : "");
+            if (row.length() > 0 && row.length() + item.length() > 100) {
+                line(3, row.toString());
+                row.setLength(0);
+            }
+            row.append(row.length() > 0 ? " " : "").append(item);
+        }
+        line(3, row.toString());
+        line(1, "};");
+        line(0, "");
+    }
+
+    private void stringArray(String name, List<String> values) {
+        line(1, "private static final String[] " + name + " = {");
+        for (int i = 0, n = values.size(); i < n; i++)
+            line(3, javaString(values.get(i)) + (i < n - 1 ? "," : ""));
+        line(1, "};");
+        line(0, "");
+    }
+
+    private void condition(int indent, List<String> conditions, String operator) {
+        condition(indent, conditions, operator, "if (", ")");
+    }
+
+    /*
+     * Output a condition with one operand per line (if there is more than one).
+     */
+    private void condition(int indent, List<String> conditions, String operator, String before, String after) {
+        for (int i = 0, n = conditions.size(); i < n; i++) {
+            String text = conditions.get(i) + (i < n - 1 ? operator : after);
+            line(i == 0 ? indent : indent + 2, i == 0 ? before + text : text);
+        }
+    }
+
+    private void line(int indent, String text) {
+        if (!text.isEmpty())
+            for (int i = 0; i < indent; i++)
+                sb.append("    ");
+        sb.append(text).append('\n');
+    }
+
+    /**
+     * Convert a string to a Java string literal.
+     *
+     * @param   cs      the string
+     * @return          the literal
+     */
+    static String javaString(CharSequence cs) {
+        StringBuilder result = new StringBuilder("\"");
+        for (int i = 0, n = cs.length(); i < n; i++) {
+            char ch = cs.charAt(i);
+            if (ch == '\\' && i + 1 < n && cs.charAt(i + 1) > 0x7F)
+                result.append("\\134"); // a backslash escape followed by a Unicode escape is misread by the compiler
+            else
+                escape(result, ch, '"');
+        }
+        return result.append('"').toString();
+    }
+
+    /**
+     * Convert a character to a Java character literal.
+     *
+     * @param   ch      the character
+     * @return          the literal
+     */
+    static String javaChar(char ch) {
+        return escape(new StringBuilder("'"), ch, '\'').append('\'').toString();
+    }
+
+    /*
+     * Append a character to a literal, escaped if necessary.  Unicode escapes are not used for control characters,
+     * since the compiler would translate them before recognising the literal.
+     */
+    private static StringBuilder escape(StringBuilder sb, char ch, char quote) {
+        switch (ch) {
+            case '\b':
+                return sb.append("\\b");
+            case '\t':
+                return sb.append("\\t");
+            case '\n':
+                return sb.append("\\n");
+            case '\f':
+                return sb.append("\\f");
+            case '\r':
+                return sb.append("\\r");
+            case '\\':
+                return sb.append("\\\\");
+        }
+        if (ch == quote)
+            return sb.append('\\').append(ch);
+        if (ch < ' ' || ch == 0x7F)
+            return sb.append(String.format("\\%03o", (int)ch));
+        if (ch > 0x7F)
+            return sb.append(String.format("\\u%04X", (int)ch));
+        return sb.append(ch);
+    }
+
+    /*
+     * Make a string safe for inclusion in a comment.
+     */
+    private static String comment(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("*/", "*&#47;")
+                .replace("@", "&#64;");
+    }
+
+}
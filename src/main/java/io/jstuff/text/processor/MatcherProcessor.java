@@ -0,0 +1,147 @@
+/*
+ * @(#) MatcherProcessor.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+import io.jstuff.text.annotation.AnyOf;
+import io.jstuff.text.annotation.Wildcard;
+
+/**
+ * An annotation processor that generates specialised {@link io.jstuff.text.StringMatcher StringMatcher} classes at
+ * build time from fields annotated with {@link Wildcard} or {@link AnyOf}.  The generated classes have no runtime
+ * set-up cost: comparisons with the literal characters of a pattern are unrolled, and a set of strings is looked up in
+ * a perfect hash table (see {@link io.jstuff.text.PerfectHashMatcher PerfectHashMatcher}) computed by the processor.
+ *
+ * <p>The processor is not registered as a service, so it must be named explicitly, for example by
+ * {@code javac -processor io.jstuff.text.processor.MatcherProcessor}, or in the {@code annotationProcessors}
+ * configuration of the Maven compiler plugin.</p>
+ *
+ * @author  Peter Wall
+ */
+@SupportedAnnotationTypes({ "io.jstuff.text.annotation.Wildcard", "io.jstuff.text.annotation.AnyOf" })
+public class MatcherProcessor extends AbstractProcessor {
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Wildcard.class)) {
+            Wildcard wildcard = element.getAnnotation(Wildcard.class);
+            String className = className(element, wildcard.className());
+            if (className != null)
+                generate(element, className, MatcherGenerator.wildcard(packageName(element), className,
+                        origin(element, "Wildcard"), wildcard.value(), wildcard.singleMatchChar(),
+                        wildcard.multiMatchChar()));
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(AnyOf.class)) {
+            AnyOf anyOf = element.getAnnotation(AnyOf.class);
+            String className = className(element, anyOf.className());
+            if (className != null) {
+                try {
+                    generate(element, className, MatcherGenerator.anyOf(packageName(element), className,
+                            origin(element, "AnyOf"), Arrays.asList(anyOf.value())));
+                }
+                catch (IllegalArgumentException e) {
+                    error(element, e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(Element element, String className, String source) {
+        String packageName = packageName(element);
+        String qualifiedName = packageName.isEmpty() ? className : packageName + '.' + className;
+        if (!generated.add(qualifiedName)) {
+            error(element, "Duplicate generated matcher class: " + qualifiedName);
+            return;
+        }
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, element).openWriter()) {
+            writer.write(source);
+        }
+        catch (IOException e) {
+            error(element, "Error writing generated matcher class " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /*
+     * Get the name of the class to be generated (validated), or derive it from the name of the field.
+     */
+    private String className(Element element, String specified) {
+        String className = specified;
+        if (className.isEmpty()) {
+            String name = element.getSimpleName().toString();
+            StringBuilder sb = new StringBuilder();
+            boolean upperCase = name.equals(name.toUpperCase(Locale.ROOT));
+            for (String part : name.split("_")) {
+                if (!part.isEmpty()) {
+                    sb.append(Character.toUpperCase(part.charAt(0)));
+                    sb.append(upperCase ? part.substring(1).toLowerCase(Locale.ROOT) : part.substring(1));
+                }
+            }
+            className = sb.append("Matcher").toString();
+        }
+        if (!SourceVersion.isIdentifier(className) || SourceVersion.isKeyword(className)) {
+            error(element, "Invalid generated matcher class name: " + className);
+            return null;
+        }
+        return className;
+    }
+
+    private String packageName(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    }
+
+    private static String origin(Element element, String annotation) {
+        Element enclosing = element.getEnclosingElement();
+        String owner = enclosing instanceof TypeElement ? ((TypeElement)enclosing).getQualifiedName() + "." : "";
+        return "@" + annotation + " on " + owner + element.getSimpleName();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
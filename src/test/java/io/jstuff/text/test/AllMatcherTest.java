@@ -0,0 +1,76 @@
+/*
+ * @(#) AllMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.AllMatcher;
+import io.jstuff.text.MatchBudget;
+import io.jstuff.text.MatchReport;
+import io.jstuff.text.MatchResult;
+import io.jstuff.text.StringMatcher;
+
+public class AllMatcherTest {
+
+    @Test
+    public void shouldMatchOnlyIfAllMatch() {
+        StringMatcher matcher = new AllMatcher(new StringMatcher[] { StringMatcher.startsWith("File"),
+                StringMatcher.endsWith(".txt") });
+        assertTrue(matcher.matches("File1.txt"));
+        assertFalse(matcher.matches("File1.doc"));
+        assertFalse(matcher.matches("Text.txt"));
+        assertTrue(matcher.matches("[File1.txt]", 1, 10));
+        assertFalse(matcher.matches("[File1.txt]", 0, 10));
+    }
+
+    @Test
+    public void shouldStopAtFirstFailure() {
+        StringMatcher matcher = new AllMatcher(new StringMatcher[] { StringMatcher.startsWith("File"),
+                StringMatcher.endsWith(".txt") });
+        MatchReport report = matcher.explain("Text.txt");
+        assertFalse(report.isMatched());
+        assertEquals(1, report.getChildren().size());
+        assertEquals(MatchResult.MATCH, matcher.matches("File1.txt", MatchBudget.steps(100)));
+        assertEquals(MatchResult.BUDGET_EXCEEDED, matcher.matches("File1.txt", MatchBudget.steps(5)));
+    }
+
+    @Test
+    public void shouldCompareStructurally() {
+        StringMatcher matcher1 = new AllMatcher(new StringMatcher[] { StringMatcher.contains("a"),
+                StringMatcher.contains("b") });
+        StringMatcher matcher2 = new AllMatcher(new StringMatcher[] { StringMatcher.contains("a"),
+                StringMatcher.contains("b") });
+        StringMatcher matcher3 = StringMatcher.alternate(StringMatcher.contains("a"), StringMatcher.contains("b"));
+        assertEquals(matcher1, matcher2);
+        assertEquals(matcher1.hashCode(), matcher2.hashCode());
+        assertNotEquals(matcher1, matcher3);
+    }
+
+}
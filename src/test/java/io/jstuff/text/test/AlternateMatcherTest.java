@@ -25,13 +25,26 @@
 
 package io.jstuff.text.test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import io.jstuff.text.AlternateMatcher;
+import io.jstuff.text.CompiledSetMatcher;
+import io.jstuff.text.ContainsMatcher;
+import io.jstuff.text.EndsWithMatcher;
+import io.jstuff.text.MatchBudget;
+import io.jstuff.text.MatchResult;
 import io.jstuff.text.SimpleMatcher;
+import io.jstuff.text.StartsWithMatcher;
 import io.jstuff.text.StringMatcher;
+import io.jstuff.text.WildcardMatcher;
 
 public class AlternateMatcherTest {
 
@@ -44,4 +57,119 @@ public class AlternateMatcherTest {
         assertFalse(matcher.matches("Harry"));
     }
 
+    @Test
+    public void shouldMatchRegion() {
+        StringMatcher[] matchers = new StringMatcher[] { new SimpleMatcher("Fred"), new SimpleMatcher("Joe") };
+        StringMatcher matcher = new AlternateMatcher(matchers);
+        assertTrue(matcher.matches("Fred and Joe", 0, 4));
+        assertTrue(matcher.matches("Fred and Joe", 9, 12));
+        assertFalse(matcher.matches("Fred and Joe", 5, 8));
+    }
+
+    @Test
+    public void shouldFindLeftmostLongestSpan() {
+        StringMatcher[] matchers = new StringMatcher[] { new ContainsMatcher("Joe"), new ContainsMatcher("Fred"),
+                new ContainsMatcher("Freddy") };
+        StringMatcher matcher = new AlternateMatcher(matchers);
+        assertEquals(4, matcher.find("Joe Freddy", 1));
+        assertEquals(10, matcher.matchEnd("Joe Freddy", 4));
+        StringBuilder sb = new StringBuilder();
+        assertEquals(2, matcher.findAll("Joe Freddy", (start, end) -> {
+            sb.append(start).append('-').append(end).append(';');
+            return true;
+        }));
+        assertEquals("0-3;4-10;", sb.toString());
+    }
+
+    @Test
+    public void shouldLocateStringAlternativesTogether() {
+        StringMatcher[] matchers = new StringMatcher[] { new SimpleMatcher("cat"), new ContainsMatcher("dog"),
+                new ContainsMatcher("doghouse"), new StartsWithMatcher("bird"), new StartsWithMatcher("fish"),
+                new WildcardMatcher("c?w") };
+        StringMatcher matcher = new AlternateMatcher(matchers);
+        String target = "a cow, a doghouse, a bird and a cat";
+        assertEquals(2, matcher.find(target, 0));
+        assertEquals(5, matcher.matchEnd(target, 2));
+        assertEquals(9, matcher.find(target, 3));
+        assertEquals(17, matcher.matchEnd(target, 9));
+        assertEquals(21, matcher.find(target, 10));
+        assertEquals(target.length(), matcher.matchEnd(target, 21));
+        assertEquals(-1, matcher.find("a cat", 3));
+        StringMatcher suffixes = new AlternateMatcher(new StringMatcher[] { new EndsWithMatcher("end"),
+                new EndsWithMatcher("the end") });
+        assertEquals(4, suffixes.find("the end", 4)); // any position before "end" starts a span to the end
+        assertEquals(7, suffixes.matchEnd("the end", 0));
+        assertEquals(-1, suffixes.find("the end", 5));
+        assertEquals(-1, suffixes.find("the enD", 0));
+    }
+
+    @Test
+    public void shouldShareBudgetBetweenAlternatives() {
+        StringMatcher matcher = StringMatcher.alternate(new WildcardMatcher("*a*a*a*a*b"), new SimpleMatcher("aaaa"));
+        assertEquals(MatchResult.MATCH, matcher.matches("aaaa", MatchBudget.steps(1000)));
+        assertEquals(MatchResult.NO_MATCH, matcher.matches("xyz", MatchBudget.steps(1000)));
+        assertEquals(MatchResult.BUDGET_EXCEEDED, matcher.matches("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaa",
+                MatchBudget.steps(1000)));
+    }
+
+    @Test
+    public void shouldCompactSimpleAlternatives() {
+        StringMatcher[] matchers = new StringMatcher[] { new SimpleMatcher("Fred"), new SimpleMatcher("Joe"),
+                new SimpleMatcher("Harry"), new StartsWithMatcher("Al"), new WildcardMatcher("B*b") };
+        AlternateMatcher matcher = new AlternateMatcher(matchers);
+        StringMatcher compact = matcher.compact();
+        assertTrue(compact instanceof AlternateMatcher);
+        List<StringMatcher> components = ((AlternateMatcher)compact).getMatchers();
+        assertEquals(3, components.size());
+        assertTrue(components.contains(new StartsWithMatcher("Al")));
+        assertTrue(components.contains(new WildcardMatcher("B*b")));
+        for (String name : new String[] { "Fred", "Joe", "Harry", "Alice", "Bob", "Tom", "Fre", "Freddy", "" }) {
+            assertEquals(matcher.matches(name), compact.matches(name));
+            assertEquals(matcher.matches("[" + name + "]", 1, name.length() + 1),
+                    compact.matches("[" + name + "]", 1, name.length() + 1));
+        }
+    }
+
+    @Test
+    public void shouldCompactToSingleCompiledSet() {
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            strings.add("entry-" + i);
+        AlternateMatcher matcher = StringMatcher.alternate(strings);
+        StringMatcher compact = matcher.compact();
+        assertTrue(compact instanceof CompiledSetMatcher);
+        assertTrue(((CompiledSetMatcher)compact).isLatin1());
+        assertTrue(compact.matches("entry-999"));
+        assertFalse(compact.matches("entry-1000"));
+        assertTrue(compact.estimatedRetainedBytes() * 5 < matcher.estimatedRetainedBytes());
+    }
+
+    @Test
+    public void shouldCompactNonLatin1Strings() {
+        StringMatcher compact = StringMatcher.alternate("caf\u00E9", "\u0394elta").compact();
+        assertTrue(compact instanceof CompiledSetMatcher);
+        assertFalse(((CompiledSetMatcher)compact).isLatin1());
+        assertTrue(compact.matches("caf\u00E9"));
+        assertTrue(compact.matches("\u0394elta"));
+        assertFalse(compact.matches("cafe"));
+    }
+
+    @Test
+    public void shouldNotCompactWhenNothingToCombine() {
+        AlternateMatcher matcher = new AlternateMatcher(new StringMatcher[] { new SimpleMatcher("Fred"),
+                new StartsWithMatcher("Joe"), new WildcardMatcher("B*b") });
+        assertSame(matcher, matcher.compact());
+        assertNotSame(matcher, StringMatcher.alternate("Fred", "Joe").compact());
+    }
+
+    @Test
+    public void shouldEstimateRetainedBytes() {
+        AlternateMatcher matcher = StringMatcher.alternate("Fred", "Joe");
+        long expected = new SimpleMatcher("Fred").estimatedRetainedBytes() +
+                new SimpleMatcher("Joe").estimatedRetainedBytes();
+        assertTrue(matcher.estimatedRetainedBytes() > expected);
+        assertTrue(StringMatcher.alternate("Fred", "Joe", "Harry").estimatedRetainedBytes() >
+                matcher.estimatedRetainedBytes());
+    }
+
 }
@@ -0,0 +1,112 @@
+/*
+ * @(#) BloomFilterMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.BloomFilterMatcher;
+import io.jstuff.text.ContainsAnyMatcher;
+import io.jstuff.text.PerfectHashMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class BloomFilterMatcherTest {
+
+    @Test
+    public void shouldMatchExactStrings() {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            list.add("entry" + i);
+        BloomFilterMatcher matcher = StringMatcher.alternate(list, 0.01);
+        assertTrue(matcher.matches("entry0"));
+        assertTrue(matcher.matches("entry999"));
+        assertFalse(matcher.matches("entry1000"));
+        assertFalse(matcher.matches("entry"));
+        int passed = 0;
+        for (int i = 1000; i < 11000; i++)
+            if (matcher.mightMatch("entry" + i, 0, ("entry" + i).length()))
+                passed++;
+        assertTrue(passed < 300);
+        assertEquals(matcher.getBitCount() / 64, matcher.getMemoryBytes() / 8, 1);
+        assertEquals(0.01, matcher.getExpectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    public void shouldMatchContainedStrings() {
+        BloomFilterMatcher matcher = BloomFilterMatcher.contains(Arrays.asList("secret", "password", "token"), 0.001);
+        assertTrue(matcher.matches("my password is"));
+        assertTrue(matcher.matches("tokens"));
+        assertFalse(matcher.matches("nothing to see here"));
+        assertFalse(matcher.matches("toke"));
+        assertEquals(3, matcher.find("my password is", 0));
+    }
+
+    @Test
+    public void shouldDelegateToSetMatchers() {
+        List<String> list = Arrays.asList("alpha", "beta", "gamma");
+        BloomFilterMatcher exact = BloomFilterMatcher.exact(list, 0.01);
+        assertTrue(exact.getMatcher() instanceof PerfectHashMatcher);
+        assertEquals(2, exact.find("xxalphabetaxx", 0));
+        assertEquals(7, exact.find("xxalphabetaxx", 3));
+        assertEquals(11, exact.matchEnd("xxalphabetaxx", 7));
+        BloomFilterMatcher contains = BloomFilterMatcher.contains(list, 0.01);
+        assertTrue(contains.getMatcher() instanceof ContainsAnyMatcher);
+        assertEquals(2, contains.find("xxalphabetaxx", 0));
+        assertEquals(7, contains.matchEnd("xxalphabetaxx", 2));
+    }
+
+    @Test
+    public void shouldNotLetShortStringsDisableFilter() {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            list.add("keyword" + i);
+        list.add("#");
+        BloomFilterMatcher matcher = BloomFilterMatcher.contains(list, 0.01);
+        assertTrue(matcher.matches("a #hashtag"));
+        assertTrue(matcher.matches("the keyword42 here"));
+        assertFalse(matcher.matches("nothing to see here"));
+        int passed = 0;
+        for (int i = 0; i < 1000; i++)
+            if (matcher.mightMatch("quick keys " + i, 0, ("quick keys " + i).length()))
+                passed++;
+        assertTrue(passed < 100);
+        assertTrue(matcher.mightMatch("#", 0, 1));
+        assertTrue(BloomFilterMatcher.contains(Arrays.asList("", "abc"), 0.01).matches("xyz"));
+    }
+
+    @Test
+    public void shouldThrowExceptionOnInvalidFalsePositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> StringMatcher.alternate(Arrays.asList("a"), 1.0));
+    }
+
+}
@@ -44,4 +44,11 @@ public class CaseInsensitiveMatcherTest {
         assertFalse(matcher.matches("Freddy"));
     }
 
+    @Test
+    public void shouldMatchRegion() {
+        StringMatcher matcher = new CaseInsensitiveMatcher("Fred");
+        assertTrue(matcher.matches("Mr FRED Smith", 3, 7));
+        assertFalse(matcher.matches("Mr FRED Smith", 3, 8));
+    }
+
 }
@@ -0,0 +1,176 @@
+/*
+ * @(#) CompiledSetMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.CompiledSetMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class CompiledSetMatcherTest {
+
+    private static final List<String> strings = Arrays.asList("Fred", "Freddy", "Joe", "Frank", "Al");
+
+    @Test
+    public void shouldMatchExactSet() {
+        StringMatcher matcher = CompiledSetMatcher.of(CompiledSetMatcher.Type.EXACT, strings);
+        assertTrue(matcher.matches("Fred"));
+        assertTrue(matcher.matches("Freddy"));
+        assertTrue(matcher.matches("Al"));
+        assertFalse(matcher.matches("Fre"));
+        assertFalse(matcher.matches("Fredd"));
+        assertFalse(matcher.matches("Alan"));
+        assertFalse(matcher.matches(""));
+        assertTrue(matcher.matches("Mr Fred Smith", 3, 7));
+    }
+
+    @Test
+    public void shouldMatchPrefixSet() {
+        StringMatcher matcher = CompiledSetMatcher.of(CompiledSetMatcher.Type.PREFIX, strings);
+        assertTrue(matcher.matches("Fred"));
+        assertTrue(matcher.matches("Fredericka"));
+        assertTrue(matcher.matches("Alan"));
+        assertFalse(matcher.matches("Fr"));
+        assertFalse(matcher.matches("Mr Fred"));
+    }
+
+    @Test
+    public void shouldMatchSuffixSet() {
+        StringMatcher matcher = CompiledSetMatcher.of(CompiledSetMatcher.Type.SUFFIX, strings);
+        assertTrue(matcher.matches("Fred"));
+        assertTrue(matcher.matches("Mr Fred"));
+        assertTrue(matcher.matches("Big Al"));
+        assertFalse(matcher.matches("Fredericka"));
+        assertFalse(matcher.matches("red"));
+    }
+
+    @Test
+    public void shouldMatchContainsSet() {
+        StringMatcher matcher = CompiledSetMatcher.of(CompiledSetMatcher.Type.CONTAINS, strings);
+        assertTrue(matcher.matches("Mr Freddy Smith"));
+        assertTrue(matcher.matches("Big Al's"));
+        assertFalse(matcher.matches("Mr Fre Smith"));
+        assertEquals(3, matcher.find("Mr Freddy Smith", 0));
+        assertEquals(9, matcher.matchEnd("Mr Freddy Smith", 3));
+    }
+
+    @Test
+    public void shouldMatchWildcardSet() {
+        StringMatcher matcher = CompiledSetMatcher.of(CompiledSetMatcher.Type.WILDCARD,
+                Arrays.asList("File*.txt", "Data??.csv", "*.md"));
+        assertTrue(matcher.matches("File.txt"));
+        assertTrue(matcher.matches("File123.txt"));
+        assertTrue(matcher.matches("Data01.csv"));
+        assertTrue(matcher.matches("README.md"));
+        assertFalse(matcher.matches("Data1.csv"));
+        assertFalse(matcher.matches("File1.txt.bak"));
+    }
+
+    @Test
+    public void shouldWriteAndLoadMappedFile() throws IOException {
+        Path path = Files.createTempFile("compiled-set", ".bin");
+        try {
+            CompiledSetMatcher.write(CompiledSetMatcher.Type.EXACT, strings, path);
+            CompiledSetMatcher matcher = CompiledSetMatcher.load(path);
+            assertEquals(CompiledSetMatcher.Type.EXACT, matcher.getType());
+            assertEquals(5, matcher.getCount());
+            assertTrue(matcher.matches("Frank"));
+            assertFalse(matcher.matches("Franky"));
+            assertEquals(CompiledSetMatcher.of(CompiledSetMatcher.Type.EXACT, strings), matcher);
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionOnInvalidBuffer() {
+        assertThrows(IllegalArgumentException.class, () -> new CompiledSetMatcher(java.nio.ByteBuffer.allocate(40)));
+    }
+
+    @Test
+    public void shouldRejectCorruptEntryCount() throws IOException {
+        Path path = Files.createTempFile("compiled-set", ".bin");
+        try {
+            CompiledSetMatcher.write(CompiledSetMatcher.Type.EXACT, strings, path);
+            byte[] bytes = Files.readAllBytes(path);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.putInt(16, 0x40000000); // offset table size would overflow an int
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> new CompiledSetMatcher(ByteBuffer.wrap(bytes)));
+            assertEquals("Compiled set is truncated", e.getMessage());
+            buffer.putInt(16, -1);
+            e = assertThrows(IllegalArgumentException.class, () -> new CompiledSetMatcher(ByteBuffer.wrap(bytes)));
+            assertEquals("Invalid compiled set count: -1", e.getMessage());
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void shouldStoreLatin1EntriesOffHeap() {
+        CompiledSetMatcher matcher = CompiledSetMatcher.ofDirect(CompiledSetMatcher.Type.EXACT,
+                Arrays.asList("caf\u00E9", "na\u00EFve", "plain"));
+        assertTrue(matcher.isLatin1());
+        assertTrue(matcher.isOffHeap());
+        assertTrue(matcher.matches("caf\u00E9"));
+        assertTrue(matcher.matches(new StringBuilder("plain")));
+        assertFalse(matcher.matches("cafe"));
+        assertFalse(matcher.matches("caf\u0100"));
+    }
+
+    @Test
+    public void shouldStoreUTF16EntriesOffHeap() {
+        CompiledSetMatcher matcher = CompiledSetMatcher.ofDirect(CompiledSetMatcher.Type.EXACT,
+                Arrays.asList("\u03B1\u03B2\u03B3", "abc"));
+        assertFalse(matcher.isLatin1());
+        assertTrue(matcher.isOffHeap());
+        assertTrue(matcher.matches("\u03B1\u03B2\u03B3"));
+        assertTrue(matcher.matches("abc"));
+        assertFalse(matcher.matches("\u03B1\u03B2"));
+    }
+
+    @Test
+    public void shouldFindSuffixSpanAtEndOfTarget() {
+        CompiledSetMatcher matcher = CompiledSetMatcher.of(CompiledSetMatcher.Type.SUFFIX, Arrays.asList("ed", "oe"));
+        assertEquals(11, matcher.matchEnd("Fred or Joe", 8));
+        assertEquals(-1, matcher.matchEnd("Fred or Jo", 0));
+        assertEquals(-1, matcher.find("Fred or Jo", 0));
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * @(#) ConcurrentMatcherSetTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.ConcurrentMatcherSet;
+import io.jstuff.text.StringMatcher;
+
+public class ConcurrentMatcherSetTest {
+
+    @Test
+    public void shouldAddAndRemoveMatchers() {
+        ConcurrentMatcherSet set = new ConcurrentMatcherSet();
+        assertFalse(set.matches("Fred"));
+        assertTrue(set.add(StringMatcher.simple("Fred")));
+        assertTrue(set.add(StringMatcher.wildcard("Jo?")));
+        assertFalse(set.add(StringMatcher.simple("Fred")));
+        assertEquals(2, set.size());
+        assertTrue(set.matches("Fred"));
+        assertTrue(set.matches("Joe"));
+        assertFalse(set.matches("Harry"));
+        assertTrue(set.contains(StringMatcher.simple("Fred")));
+        assertTrue(set.remove(StringMatcher.simple("Fred")));
+        assertFalse(set.remove(StringMatcher.simple("Fred")));
+        assertFalse(set.matches("Fred"));
+        assertTrue(set.matches("Joe"));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void shouldNotAffectSnapshotOnUpdate() {
+        ConcurrentMatcherSet set = new ConcurrentMatcherSet();
+        set.add(StringMatcher.simple("Fred"));
+        StringMatcher snapshot = set.snapshot();
+        set.add(StringMatcher.simple("Joe"));
+        set.remove(StringMatcher.simple("Fred"));
+        assertTrue(snapshot.matches("Fred"));
+        assertFalse(snapshot.matches("Joe"));
+        assertFalse(set.matches("Fred"));
+        assertTrue(set.matches("Joe"));
+    }
+
+    @Test
+    public void shouldHandleHashCollisions() {
+        ConcurrentMatcherSet set = new ConcurrentMatcherSet();
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertTrue(set.add(StringMatcher.simple("Aa")));
+        assertTrue(set.add(StringMatcher.simple("BB")));
+        assertTrue(set.matches("Aa"));
+        assertTrue(set.matches("BB"));
+        assertTrue(set.remove(StringMatcher.simple("Aa")));
+        assertFalse(set.matches("Aa"));
+        assertTrue(set.matches("BB"));
+        for (int i = 0; i < 100000; i++)
+            set.add(StringMatcher.simple("entry" + i));
+        for (int i = 0; i < 100000; i += 3)
+            set.remove(StringMatcher.simple("entry" + i));
+        assertEquals(66667, set.size());
+        assertFalse(set.contains(StringMatcher.simple("entry99999")));
+        assertTrue(set.contains(StringMatcher.simple("entry99998")));
+        assertTrue(set.matches("BB"));
+    }
+
+    @Test
+    public void shouldAllowUpdatesWhileMatching() throws InterruptedException {
+        ConcurrentMatcherSet set = new ConcurrentMatcherSet();
+        set.add(StringMatcher.simple("constant"));
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 100000; i++)
+                if (!set.matches("constant"))
+                    failed.set(true);
+        });
+        reader.start();
+        for (int i = 0; i < 10000; i++) {
+            set.add(StringMatcher.simple("entry" + i));
+            if (i % 2 == 0)
+                set.remove(StringMatcher.simple("entry" + i));
+        }
+        reader.join();
+        assertFalse(failed.get());
+        assertEquals(5001, set.size());
+        assertTrue(set.matches("entry9999"));
+        assertFalse(set.matches("entry9998"));
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * @(#) ConstantMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.ConstantMatcher;
+
+public class ConstantMatcherTest {
+
+    @Test
+    public void shouldReturnConstantResult() {
+        assertTrue(ConstantMatcher.TRUE.matches("anything"));
+        assertTrue(ConstantMatcher.TRUE.matches(""));
+        assertFalse(ConstantMatcher.FALSE.matches("anything"));
+        assertEquals(2, ConstantMatcher.TRUE.find("anything", 2));
+        assertEquals(-1, ConstantMatcher.FALSE.find("anything", 2));
+        assertEquals(8, ConstantMatcher.TRUE.matchEnd("anything", 2));
+        assertSame(ConstantMatcher.TRUE, ConstantMatcher.of(true));
+        assertSame(ConstantMatcher.FALSE, ConstantMatcher.of(false));
+    }
+
+}
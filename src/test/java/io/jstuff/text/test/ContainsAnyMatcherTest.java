@@ -0,0 +1,85 @@
+/*
+ * @(#) ContainsAnyMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.ContainsAnyMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class ContainsAnyMatcherTest {
+
+    @Test
+    public void shouldMatchAnyOfSetOfStrings() {
+        ContainsAnyMatcher matcher = StringMatcher.containsAny("he", "she", "his", "hers");
+        assertTrue(matcher.matches("ushers"));
+        assertTrue(matcher.matches("this"));
+        assertFalse(matcher.matches("hxsx"));
+        assertFalse(matcher.matches(""));
+        assertTrue(matcher.matches("ushers", 1, 4));
+        assertFalse(matcher.matches("ushers", 3, 6));
+        assertEquals(Arrays.asList("he", "she", "his", "hers"), matcher.getStrings());
+    }
+
+    @Test
+    public void shouldFindLeftmostLongestSpans() {
+        ContainsAnyMatcher matcher = StringMatcher.containsAny("bcd", "abcdef", "cd");
+        assertEquals(1, matcher.find("xabcdefg", 0));
+        assertEquals(2, matcher.find("xabcdeg", 0));
+        assertEquals(3, matcher.find("xabcdeg", 3));
+        assertEquals(2, matcher.find("xabcdeg", 2));
+        assertEquals(-1, matcher.find("xabcdeg", 4));
+        assertEquals(7, matcher.matchEnd("xabcdefg", 1));
+        assertEquals(5, matcher.matchEnd("xabcdeg", 2));
+        assertEquals(-1, matcher.matchEnd("xabcdeg", 1));
+        StringBuilder sb = new StringBuilder();
+        StringMatcher.containsAny("cat", "dog").findAll("cat and dog and catdog", (start, end) -> {
+            sb.append(start).append('-').append(end).append(';');
+            return true;
+        });
+        assertEquals("0-3;8-11;16-19;19-22;", sb.toString());
+    }
+
+    @Test
+    public void shouldMatchEverythingWithEmptyString() {
+        ContainsAnyMatcher matcher = StringMatcher.containsAny("abc", "");
+        assertTrue(matcher.matches("xyz"));
+        assertEquals(2, matcher.find("xyz", 2));
+        assertFalse(StringMatcher.containsAny().matches("xyz"));
+    }
+
+    @Test
+    public void shouldCompareAsSet() {
+        assertEquals(StringMatcher.containsAny("a", "b"), StringMatcher.containsAny("b", "a", "b"));
+        assertEquals(StringMatcher.containsAny("a", "b").hashCode(), StringMatcher.containsAny("b", "a").hashCode());
+    }
+
+}
@@ -26,6 +26,7 @@
 package io.jstuff.text.test;
 
 import org.junit.Test;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -57,4 +58,46 @@ public class ContainsMatcherTest {
         assertFalse(matcher.matches("9999999999"));
     }
 
+    @Test
+    public void shouldMatchRegion() {
+        StringMatcher matcher = new ContainsMatcher("Fred");
+        assertTrue(matcher.matches("Mr Freddy Smith", 2, 9));
+        assertFalse(matcher.matches("Mr Freddy Smith", 4, 9));
+        assertFalse(matcher.matches("Mr Freddy Smith", 0, 6));
+    }
+
+    @Test
+    public void shouldFindOccurrences() {
+        StringMatcher matcher = new ContainsMatcher("ab");
+        assertEquals(2, matcher.find("xxabxab", 0));
+        assertEquals(5, matcher.find("xxabxab", 3));
+        assertEquals(-1, matcher.find("xxabxab", 6));
+        assertEquals(4, matcher.matchEnd("xxabxab", 2));
+        assertEquals(-1, matcher.matchEnd("xxabxab", 3));
+        StringBuilder sb = new StringBuilder();
+        assertEquals(2, matcher.findAll("xxabxab", (start, end) -> {
+            sb.append(start).append('-').append(end).append(';');
+            return true;
+        }));
+        assertEquals("2-4;5-7;", sb.toString());
+    }
+
+    @Test
+    public void shouldFindRepetitiveAndLongStrings() {
+        ContainsMatcher matcher = new ContainsMatcher("aaab");
+        assertEquals(5, matcher.find("aaaaaaaab", 0));
+        assertEquals(-1, matcher.find("aaaaaaaab", 6));
+        assertTrue(matcher.matches("aaaaaaaab"));
+        assertFalse(matcher.matches("aaaaaaaa"));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 64; i++)
+            sb.append((char)('A' + i % 26));
+        String needle = sb.toString();
+        ContainsMatcher longMatcher = new ContainsMatcher(needle);
+        assertEquals(3, longMatcher.find("xyz" + needle + "xyz", 0));
+        assertFalse(longMatcher.matches("xyz" + needle.substring(1) + "xyz"));
+        ContainsMatcher longerMatcher = new ContainsMatcher(needle + '!');
+        assertTrue(longerMatcher.matches("xyz" + needle + "!xyz"));
+    }
+
 }
@@ -43,4 +43,12 @@ public class EndsWithMatcherTest {
         assertTrue(matcher.matches("Mr Fred"));
     }
 
+    @Test
+    public void shouldMatchRegion() {
+        StringMatcher matcher = new EndsWithMatcher("Fred");
+        assertTrue(matcher.matches("Mr Fred Smith", 0, 7));
+        assertFalse(matcher.matches("Mr Fred Smith", 0, 8));
+        assertFalse(matcher.matches("Mr Fred Smith", 5, 7));
+    }
+
 }
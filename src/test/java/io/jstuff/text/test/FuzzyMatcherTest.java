@@ -0,0 +1,122 @@
+/*
+ * @(#) FuzzyMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.FuzzyMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class FuzzyMatcherTest {
+
+    @Test
+    public void shouldMatchWithinEditDistance() {
+        StringMatcher matcher = new FuzzyMatcher("ABC-1234", 1);
+        assertTrue(matcher.matches("ABC-1234"));
+        assertTrue(matcher.matches("ABC-1235"));
+        assertTrue(matcher.matches("ABC1234"));
+        assertTrue(matcher.matches("ABCD-1234"));
+        assertFalse(matcher.matches("ABD-1243"));
+        assertFalse(matcher.matches("ABC"));
+        assertTrue(matcher.matches("xABC1234x", 1, 8));
+    }
+
+    @Test
+    public void shouldComputeEditDistance() {
+        FuzzyMatcher matcher = StringMatcher.fuzzy("kitten", 2);
+        assertEquals(3, matcher.distance("sitting"));
+        assertEquals(0, matcher.distance("kitten"));
+        assertEquals(6, matcher.distance(""));
+        assertFalse(matcher.matches("sitting"));
+        assertTrue(new FuzzyMatcher("kitten", 3).matches("sitting"));
+    }
+
+    @Test
+    public void shouldMatchSubstringWithinEditDistance() {
+        FuzzyMatcher matcher = new FuzzyMatcher("widget", 1, FuzzyMatcher.Mode.CONTAINS);
+        assertTrue(matcher.matches("a blue widget"));
+        assertTrue(matcher.matches("a blue widgit for sale"));
+        assertTrue(matcher.matches("a blue wdget"));
+        assertFalse(matcher.matches("a blue gadget"));
+        assertEquals(2, matcher.distance("a blue gadget"));
+    }
+
+    @Test
+    public void shouldMatchLongPattern() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            sb.append((char)('a' + i % 26));
+        String pattern = sb.toString();
+        FuzzyMatcher matcher = new FuzzyMatcher(pattern, 2);
+        sb.setCharAt(10, '*');
+        sb.deleteCharAt(50);
+        assertTrue(matcher.matches(sb));
+        assertEquals(2, matcher.distance(sb));
+        sb.setCharAt(80, '*');
+        assertFalse(matcher.matches(sb));
+        FuzzyMatcher containsMatcher = new FuzzyMatcher(pattern, 2, FuzzyMatcher.Mode.CONTAINS);
+        assertTrue(containsMatcher.matches("xxx" + pattern.substring(0, 99) + "yyy"));
+    }
+
+    @Test
+    public void shouldLocateSubstringWithinEditDistance() {
+        FuzzyMatcher matcher = new FuzzyMatcher("widget", 1, FuzzyMatcher.Mode.CONTAINS);
+        String target = "a blue widgit and a red wdget";
+        assertEquals(7, matcher.find(target, 0));
+        assertEquals(13, matcher.matchEnd(target, 7));
+        assertEquals(24, matcher.find(target, 8));
+        assertEquals(29, matcher.matchEnd(target, 24));
+        assertEquals(-1, matcher.matchEnd(target, 0));
+        assertEquals(2, matcher.findAll(target, (start, end) -> true));
+        assertEquals(0, new FuzzyMatcher("widget", 1).find("widgets", 0));
+        assertEquals(7, new FuzzyMatcher("widget", 1).matchEnd("widgets", 0));
+    }
+
+    @Test
+    public void shouldNotSearchEachIndexOfLongTarget() {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100000)
+            sb.append("the quick brown fox jumps over the lazy dog ");
+        FuzzyMatcher matcher = new FuzzyMatcher("widget", 1, FuzzyMatcher.Mode.CONTAINS);
+        assertEquals(-1, matcher.find(sb, 0));
+        assertEquals(0, matcher.findAll(sb, (start, end) -> true));
+        sb.append("wigdet");
+        assertEquals(-1, matcher.find(sb, 0));
+        sb.append(" widet");
+        assertEquals(sb.length() - 5, matcher.find(sb, 0));
+        assertEquals(sb.length(), matcher.matchEnd(sb, sb.length() - 5));
+    }
+
+    @Test
+    public void shouldRejectNegativeDistance() {
+        assertThrows(IllegalArgumentException.class, () -> new FuzzyMatcher("abc", -1));
+    }
+
+}
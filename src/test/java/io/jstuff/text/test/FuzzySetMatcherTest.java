@@ -0,0 +1,88 @@
+/*
+ * @(#) FuzzySetMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.FuzzySetMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class FuzzySetMatcherTest {
+
+    private static final List<String> codes = Arrays.asList("AB-100", "AB-101", "AB-200", "CD-100", "CD-1000", "XY-9");
+
+    @Test
+    public void shouldMatchAnyStringWithinEditDistance() {
+        StringMatcher matcher = new FuzzySetMatcher(codes, 1);
+        assertTrue(matcher.matches("AB-100"));
+        assertTrue(matcher.matches("AB100"));
+        assertTrue(matcher.matches("XY-99"));
+        assertFalse(matcher.matches("EF-100"));
+        assertFalse(matcher.matches(""));
+        assertTrue(matcher.matches("[CD-10]", 1, 6));
+    }
+
+    @Test
+    public void shouldLookUpAllStringsWithinEditDistance() {
+        FuzzySetMatcher matcher = StringMatcher.fuzzySet(codes, 1);
+        assertEquals(6, matcher.getCount());
+        assertEquals(Arrays.asList("AB-100", "AB-101"), matcher.lookup("AB-10"));
+        assertEquals(Arrays.asList("CD-100", "CD-1000"), matcher.lookup("CD-100"));
+        assertEquals(Arrays.asList("AB-100", "AB-101", "AB-200", "CD-100"),
+                new FuzzySetMatcher(codes, 2).lookup("XB-100"));
+        assertEquals(Collections.emptyList(), matcher.lookup("ZZZ"));
+    }
+
+    @Test
+    public void shouldHandleEmptySet() {
+        FuzzySetMatcher matcher = new FuzzySetMatcher(Collections.emptyList(), 2);
+        assertFalse(matcher.matches("abc"));
+        assertEquals(Collections.emptyList(), matcher.lookup("abc"));
+    }
+
+    @Test
+    public void shouldHandleLongStrings() {
+        char[] chars = new char[20000];
+        Arrays.fill(chars, 'a');
+        String entry = new String(chars);
+        chars[10000] = 'b';
+        String target = new String(chars);
+        FuzzySetMatcher matcher = new FuzzySetMatcher(Arrays.asList(entry, "abc"), 1);
+        assertTrue(matcher.matches(target));
+        assertEquals(Collections.singletonList(entry), matcher.lookup(target));
+        assertTrue(matcher.matches(entry.substring(1)));
+        assertFalse(matcher.matches(entry.substring(2)));
+        assertFalse(matcher.matches(target.substring(1)));
+    }
+
+}
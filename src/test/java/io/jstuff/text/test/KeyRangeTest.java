@@ -0,0 +1,103 @@
+/*
+ * @(#) KeyRangeTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.KeyRange;
+import io.jstuff.text.PatternMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class KeyRangeTest {
+
+    private static final List<String> sorted = Arrays.asList("apple", "apricot", "banana", "blackberry", "blueberry",
+            "cherry", "date");
+
+    @Test
+    public void shouldCreatePrefixRange() {
+        KeyRange keyRange = KeyRange.prefix("bl");
+        assertEquals("bl", keyRange.getLower());
+        assertEquals("bm", keyRange.getUpper());
+        assertTrue(keyRange.contains("blue"));
+        assertFalse(keyRange.contains("bm"));
+        assertEquals("b", KeyRange.prefix("a\uFFFF").getUpper());
+        assertNull(KeyRange.prefix("\uFFFF").getUpper());
+        assertTrue(KeyRange.prefix("").isAll());
+    }
+
+    @Test
+    public void shouldCombineRanges() {
+        assertTrue(KeyRange.exact("abc").intersect(KeyRange.exact("abd")).isEmpty());
+        assertEquals(KeyRange.exact("abc"), KeyRange.prefix("ab").intersect(KeyRange.exact("abc")));
+        assertEquals(new KeyRange("ab", "ae"), KeyRange.prefix("ab").span(KeyRange.prefix("ad")));
+        assertEquals(KeyRange.prefix("ab"), KeyRange.EMPTY.span(KeyRange.prefix("ab")));
+        assertTrue(KeyRange.ALL.span(KeyRange.prefix("ab")).isAll());
+    }
+
+    @Test
+    public void shouldReportMatcherKeyRanges() {
+        assertEquals(KeyRange.prefix("bl"), StringMatcher.startsWith("bl").keyRange());
+        assertEquals(KeyRange.exact("date"), StringMatcher.simple("date").keyRange());
+        assertEquals(KeyRange.prefix("ap"), StringMatcher.wildcard("ap*t").keyRange());
+        assertEquals(KeyRange.exact("date"), StringMatcher.wildcard("date").keyRange());
+        assertEquals(KeyRange.prefix("ch"), new PatternMatcher(Pattern.compile("^ch[a-z]+")).keyRange());
+        assertTrue(new PatternMatcher(Pattern.compile("ch[a-z]+")).keyRange().isAll());
+        assertTrue(StringMatcher.contains("an").keyRange().isAll());
+        assertEquals(new KeyRange("apple", "bm"),
+                StringMatcher.alternate(StringMatcher.simple("apple"), StringMatcher.startsWith("bl")).keyRange());
+    }
+
+    @Test
+    public void shouldScanSortedList() {
+        assertEquals(Arrays.asList("blackberry", "blueberry"), StringMatcher.startsWith("bl").scanSorted(sorted));
+        assertEquals(Collections.singletonList("apricot"), StringMatcher.wildcard("ap*t").scanSorted(sorted));
+        assertEquals(Collections.singletonList("date"), StringMatcher.simple("date").scanSorted(sorted));
+        assertEquals(Arrays.asList("blackberry", "blueberry"), StringMatcher.wildcard("b*y").scanSorted(sorted));
+        assertEquals(Arrays.asList("apple", "apricot", "banana", "blackberry", "date"),
+                StringMatcher.contains("a").scanSorted(sorted));
+    }
+
+    @Test
+    public void shouldScanNavigableSet() {
+        TreeSet<String> set = new TreeSet<>(sorted);
+        assertEquals(Arrays.asList("blackberry", "blueberry"), StringMatcher.startsWith("bl").scanSorted(set));
+        assertEquals(Collections.singletonList("cherry"),
+                new PatternMatcher(Pattern.compile("^ch.*y$")).scanSorted(set));
+        assertEquals(Collections.emptyList(),
+                StringMatcher.and(StringMatcher.startsWith("a"), StringMatcher.startsWith("b")).scanSorted(set));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * @(#) MatchBudgetTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.BudgetExceededException;
+import io.jstuff.text.MatchBudget;
+import io.jstuff.text.MatchResult;
+import io.jstuff.text.StringMatcher;
+
+public class MatchBudgetTest {
+
+    @Test
+    public void shouldCountStepsAndThrowWhenExceeded() {
+        MatchBudget budget = MatchBudget.steps(3);
+        budget.step();
+        budget.step();
+        budget.step();
+        assertEquals(3, budget.getSteps());
+        assertFalse(budget.isExceeded());
+        BudgetExceededException e = assertThrows(BudgetExceededException.class, budget::step);
+        assertEquals("Step limit exceeded", e.getMessage());
+        assertTrue(budget.isExceeded());
+    }
+
+    @Test
+    public void shouldStopWhenCancelled() {
+        MatchBudget budget = MatchBudget.unlimited();
+        budget.cancel();
+        assertTrue(budget.isCancelled());
+        BudgetExceededException e = assertThrows(BudgetExceededException.class, () -> {
+            for (int i = 0; i < MatchBudget.checkInterval; i++)
+                budget.step();
+        });
+        assertEquals("Match cancelled", e.getMessage());
+    }
+
+    @Test
+    public void shouldStopWhenDeadlinePassed() {
+        MatchBudget budget = MatchBudget.timeout(Duration.ZERO);
+        BudgetExceededException e = assertThrows(BudgetExceededException.class, () -> budget.step(1));
+        assertEquals("Deadline exceeded", e.getMessage());
+    }
+
+    @Test
+    public void shouldApplyBudgetToDefaultImplementation() {
+        StringMatcher matcher = StringMatcher.simple("abc");
+        assertEquals(MatchResult.MATCH, matcher.matches("abc", MatchBudget.steps(100)));
+        assertEquals(MatchResult.NO_MATCH, matcher.matches("abd", MatchBudget.steps(100)));
+        StringMatcher lambda = target -> target.charAt(0) == 'a' && target.charAt(1) == 'b';
+        assertEquals(MatchResult.MATCH, lambda.matches("abc", MatchBudget.steps(2)));
+        assertEquals(MatchResult.BUDGET_EXCEEDED, lambda.matches("abc", MatchBudget.steps(1)));
+    }
+
+    @Test
+    public void shouldInterruptBacktrackingRegex() {
+        StringMatcher matcher = StringMatcher.pattern(Pattern.compile("^(.*a){12}$"));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40; i++)
+            sb.append('a');
+        assertEquals(MatchResult.MATCH, matcher.matches(sb, MatchBudget.steps(100000)));
+        sb.append('!');
+        assertEquals(MatchResult.BUDGET_EXCEEDED, matcher.matches(sb, MatchBudget.steps(100000)));
+    }
+
+    @Test
+    public void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> MatchBudget.steps(-1));
+        assertThrows(IllegalArgumentException.class, () -> MatchBudget.timeout(Duration.ofSeconds(-1)));
+        assertThrows(NullPointerException.class, () -> StringMatcher.simple("a").matches("a", (MatchBudget)null));
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * @(#) MatchReportTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.MatchReport;
+import io.jstuff.text.StringMatcher;
+
+public class MatchReportTest {
+
+    @Test
+    public void shouldReportSimpleMatch() {
+        StringMatcher matcher = StringMatcher.simple("abc");
+        MatchReport report = matcher.explain("abc");
+        assertSame(matcher, report.getMatcher());
+        assertTrue(report.isMatched());
+        assertEquals(3, report.getCharsExamined());
+        assertTrue(report.getElapsedNanos() >= 0);
+        assertTrue(report.getChildren().isEmpty());
+        assertEquals("SimpleMatcher: MATCH (3 chars, ", report.toString().substring(0, 31));
+    }
+
+    @Test
+    public void shouldReportEachAlternativeEvaluated() {
+        StringMatcher first = StringMatcher.simple("abc");
+        StringMatcher second = StringMatcher.endsWith(".txt");
+        StringMatcher third = StringMatcher.contains("x");
+        StringMatcher matcher = StringMatcher.alternate(first, second, third);
+        MatchReport report = matcher.explain("file.txt");
+        assertTrue(report.isMatched());
+        List<MatchReport> children = report.getChildren();
+        assertEquals(2, children.size());
+        assertSame(first, children.get(0).getMatcher());
+        assertFalse(children.get(0).isMatched());
+        assertSame(second, children.get(1).getMatcher());
+        assertTrue(children.get(1).isMatched());
+        assertEquals(4, children.get(1).getCharsExamined());
+        assertEquals(children.get(0).getCharsExamined() + 4, report.getCharsExamined());
+        String[] lines = report.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("AlternateMatcher: MATCH ("));
+        assertTrue(lines[1].startsWith("  SimpleMatcher: NO_MATCH ("));
+        assertTrue(lines[2].startsWith("  EndsWithMatcher: MATCH (4 chars, "));
+    }
+
+    @Test
+    public void shouldReportNestedAlternatives() {
+        StringMatcher inner = StringMatcher.alternate("a", "b");
+        StringMatcher matcher = StringMatcher.alternate(inner, StringMatcher.contains("z"));
+        MatchReport report = matcher.explain("xyz");
+        assertTrue(report.isMatched());
+        assertEquals(2, report.getChildren().size());
+        MatchReport innerReport = report.getChildren().get(0);
+        assertFalse(innerReport.isMatched());
+        assertEquals(2, innerReport.getChildren().size());
+    }
+
+}
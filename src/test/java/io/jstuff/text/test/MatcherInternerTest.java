@@ -0,0 +1,92 @@
+/*
+ * @(#) MatcherInternerTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import io.jstuff.text.MatcherInterner;
+import io.jstuff.text.PatternMatcher;
+import io.jstuff.text.StringMatcher;
+import io.jstuff.text.WildcardMatcher;
+
+public class MatcherInternerTest {
+
+    @Test
+    public void shouldReturnSharedInstance() {
+        MatcherInterner interner = new MatcherInterner(10);
+        WildcardMatcher matcher1 = interner.intern(StringMatcher.wildcard("File*.txt"));
+        WildcardMatcher matcher2 = interner.intern(StringMatcher.wildcard("File*.txt"));
+        WildcardMatcher matcher3 = interner.intern(StringMatcher.wildcard("File*.doc"));
+        assertSame(matcher1, matcher2);
+        assertNotSame(matcher1, matcher3);
+        assertEquals(2, interner.size());
+        assertEquals(1, interner.getHits());
+        assertEquals(2, interner.getMisses());
+        assertEquals(1.0 / 3, interner.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void shouldInternPatternsAndAlternates() {
+        MatcherInterner interner = new MatcherInterner(10, true);
+        PatternMatcher pattern1 = interner.intern(new PatternMatcher(Pattern.compile("[a-z]+[0-9]")));
+        PatternMatcher pattern2 = interner.intern(new PatternMatcher(Pattern.compile("[a-z]+[0-9]")));
+        PatternMatcher pattern3 = interner.intern(new PatternMatcher(Pattern.compile("[a-z]+[0-9]",
+                Pattern.CASE_INSENSITIVE)));
+        assertSame(pattern1, pattern2);
+        assertNotSame(pattern1, pattern3);
+        StringMatcher alternate1 = interner.intern(StringMatcher.alternate("abc", "def"));
+        StringMatcher alternate2 = interner.intern(StringMatcher.alternate("abc", "def"));
+        assertSame(alternate1, alternate2);
+    }
+
+    @Test
+    public void shouldLimitSizeAndDiscardLeastRecentlyUsed() {
+        MatcherInterner interner = new MatcherInterner(2);
+        StringMatcher a = interner.intern(StringMatcher.simple("a"));
+        interner.intern(StringMatcher.simple("b"));
+        assertSame(a, interner.intern(StringMatcher.simple("a")));
+        interner.intern(StringMatcher.simple("c"));
+        assertEquals(2, interner.size());
+        assertSame(a, interner.intern(StringMatcher.simple("a")));
+        interner.resetStatistics();
+        interner.intern(StringMatcher.simple("b"));
+        assertEquals(1, interner.getMisses());
+        interner.clear();
+        assertEquals(0, interner.size());
+    }
+
+    @Test
+    public void shouldRejectInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new MatcherInterner(0));
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * @(#) MatcherProcessorTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.KeyRange;
+import io.jstuff.text.PerfectHashMatcher;
+import io.jstuff.text.StringMatcher;
+import io.jstuff.text.WildcardMatcher;
+import io.jstuff.text.processor.MatcherProcessor;
+
+public class MatcherProcessorTest {
+
+    private static final String RULES = "package com.example;\n" +
+            "import io.jstuff.text.StringMatcher;\n" +
+            "import io.jstuff.text.annotation.AnyOf;\n" +
+            "import io.jstuff.text.annotation.Wildcard;\n" +
+            "public class Rules {\n" +
+            "    @Wildcard(\"File*.t?t\")\n" +
+            "    public static final StringMatcher TEXT_FILES = new TextFilesMatcher();\n" +
+            "    @Wildcard(value = \"%x%\", multiMatchChar = '%', className = \"XMatcher\")\n" +
+            "    public static final StringMatcher X = new XMatcher();\n" +
+            "    @AnyOf({ \"CON\", \"PRN\", \"AUX\", \"NUL\", \"COM1\", \"LPT1\" })\n" +
+            "    public static final StringMatcher reservedNames = new ReservedNamesMatcher();\n" +
+            "    @AnyOf({})\n" +
+            "    public static final StringMatcher NONE = new NoneMatcher();\n" +
+            "}\n";
+
+    @Test
+    public void shouldGenerateWildcardMatcher() throws Exception {
+        Path dir = Files.createTempDirectory("generated");
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(dir, "Rules", RULES);
+        assertTrue(errors.toString(), errors.isEmpty());
+        try (URLClassLoader classLoader = classLoader(dir)) {
+            StringMatcher matcher = instance(classLoader, "com.example.TextFilesMatcher");
+            WildcardMatcher expected = new WildcardMatcher("File*.t?t");
+            for (String target : Arrays.asList("File.txt", "File1.txt", "File1.tst", "File.tt", "file.txt", "File",
+                    "File.txt.txt", "File.t\uD83D\uDE00t", ""))
+                assertEquals(target, expected.matches(target), matcher.matches(target));
+            assertTrue(matcher.matches("[File1.txt]", 1, 10));
+            assertFalse(matcher.matches("[File1.txt]", 1, 9));
+            assertEquals(KeyRange.prefix("File"), matcher.keyRange());
+            StringMatcher x = instance(classLoader, "com.example.XMatcher");
+            assertTrue(x.matches("axb"));
+            assertTrue(x.matches("x"));
+            assertFalse(x.matches("ab"));
+        }
+    }
+
+    @Test
+    public void shouldGenerateAnyOfMatcher() throws Exception {
+        Path dir = Files.createTempDirectory("generated");
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(dir, "Rules", RULES);
+        assertTrue(errors.toString(), errors.isEmpty());
+        try (URLClassLoader classLoader = classLoader(dir)) {
+            StringMatcher matcher = instance(classLoader, "com.example.ReservedNamesMatcher");
+            for (String name : Arrays.asList("CON", "PRN", "AUX", "NUL", "COM1", "LPT1"))
+                assertTrue(name, matcher.matches(name));
+            for (String name : Arrays.asList("CO", "CONX", "COM2", "con", "", "LPT"))
+                assertFalse(name, matcher.matches(name));
+            assertTrue(matcher.matches("(AUX)", 1, 4));
+            assertTrue(matcher.keyRange().contains("LPT1"));
+            assertFalse(matcher.keyRange().contains("ZZZ"));
+            StringMatcher none = instance(classLoader, "com.example.NoneMatcher");
+            assertFalse(none.matches(""));
+            assertFalse(none.matches("CON"));
+        }
+    }
+
+    @Test
+    public void shouldUsePerfectHashFunction() {
+        PerfectHashMatcher matcher = new PerfectHashMatcher(Arrays.asList("alpha", "beta", "gamma"));
+        List<String> keys = matcher.getKeys();
+        int[] seeds = matcher.getSeeds();
+        for (String key : Arrays.asList("alpha", "beta", "gamma")) {
+            int seed = seeds[Math.floorMod(PerfectHashMatcher.hash(key, 0, key.length(), 0), seeds.length)];
+            int slot = seed < 0 ? -seed - 1 : Math.floorMod(PerfectHashMatcher.hash(key, 0, key.length(), seed), 3);
+            assertEquals(key, keys.get(slot));
+        }
+    }
+
+    @Test
+    public void shouldReportInvalidClassName() throws Exception {
+        Path dir = Files.createTempDirectory("generated");
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(dir, "Bad", "package com.example;\n" +
+                "import io.jstuff.text.annotation.Wildcard;\n" +
+                "public class Bad {\n" +
+                "    @Wildcard(value = \"*.txt\", className = \"not valid\")\n" +
+                "    static final String PATTERN = \"*.txt\";\n" +
+                "}\n");
+        assertEquals(1, errors.size());
+        assertEquals("Invalid generated matcher class name: not valid", errors.get(0).getMessage(null));
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(Path dir, String className, String source)
+            throws IOException {
+        Path sourceFile = dir.resolve(className + ".java");
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(sourceFile.toFile());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-d", dir.toString(), "-cp", System.getProperty("java.class.path")), null, units);
+            task.setProcessors(Collections.singletonList(new MatcherProcessor()));
+            task.call();
+        }
+        List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                errors.add(diagnostic);
+        return errors;
+    }
+
+    private static URLClassLoader classLoader(Path dir) throws IOException {
+        return new URLClassLoader(new URL[] { dir.toUri().toURL() }, MatcherProcessorTest.class.getClassLoader());
+    }
+
+    private static StringMatcher instance(ClassLoader classLoader, String className) throws Exception {
+        return (StringMatcher)classLoader.loadClass(className).getDeclaredConstructor().newInstance();
+    }
+
+}
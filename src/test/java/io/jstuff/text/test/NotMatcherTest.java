@@ -0,0 +1,65 @@
+/*
+ * @(#) NotMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.MatchBudget;
+import io.jstuff.text.MatchResult;
+import io.jstuff.text.NotMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class NotMatcherTest {
+
+    @Test
+    public void shouldNegateMatcher() {
+        StringMatcher matcher = new NotMatcher(StringMatcher.contains("tmp"));
+        assertTrue(matcher.matches("file.txt"));
+        assertFalse(matcher.matches("file.tmp"));
+        assertTrue(matcher.matches("file.tmp", 0, 6));
+        assertTrue(matcher.explain("file.txt").isMatched());
+        assertEquals(1, matcher.explain("file.txt").getChildren().size());
+    }
+
+    @Test
+    public void shouldNegateBudgetedResult() {
+        StringMatcher matcher = new NotMatcher(StringMatcher.contains("tmp"));
+        assertEquals(MatchResult.MATCH, matcher.matches("file.txt", MatchBudget.steps(100)));
+        assertEquals(MatchResult.NO_MATCH, matcher.matches("file.tmp", MatchBudget.steps(100)));
+        assertEquals(MatchResult.BUDGET_EXCEEDED, matcher.matches("file.tmp", MatchBudget.steps(2)));
+    }
+
+    @Test
+    public void shouldCompareStructurally() {
+        assertEquals(new NotMatcher(StringMatcher.simple("a")), new NotMatcher(StringMatcher.simple("a")));
+        assertEquals(new NotMatcher(StringMatcher.simple("a")).hashCode(),
+                new NotMatcher(StringMatcher.simple("a")).hashCode());
+    }
+
+}
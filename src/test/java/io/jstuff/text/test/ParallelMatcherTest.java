@@ -0,0 +1,142 @@
+/*
+ * @(#) ParallelMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.AlternateMatcher;
+import io.jstuff.text.MatchBudget;
+import io.jstuff.text.MatchResult;
+import io.jstuff.text.ParallelMatcher;
+import io.jstuff.text.PatternMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class ParallelMatcherTest {
+
+    private static StringMatcher[] patterns(int count) {
+        StringMatcher[] matchers = new StringMatcher[count];
+        for (int i = 0; i < count; i++)
+            matchers[i] = new PatternMatcher(Pattern.compile("rule-" + i + "\\b"));
+        return matchers;
+    }
+
+    @Test
+    public void shouldMatchAnyOfManyMatchers() {
+        ParallelMatcher matcher = new ParallelMatcher(patterns(1000));
+        assertTrue(matcher.matches("this payload triggers rule-567 only"));
+        assertTrue(matcher.matches("rule-0"));
+        assertTrue(matcher.matches("rule-999"));
+        assertFalse(matcher.matches("rule-1000"));
+        assertFalse(matcher.matches("nothing here"));
+        assertTrue(matcher.matches("[rule-5]", 1, 7));
+        assertFalse(matcher.matches("[rule-5]", 2, 7));
+    }
+
+    @Test
+    public void shouldCollectAllMatches() {
+        ParallelMatcher matcher = new ParallelMatcher(patterns(1000), ForkJoinPool.commonPool(), 10);
+        BitSet expected = new BitSet();
+        expected.set(3);
+        expected.set(30);
+        expected.set(300);
+        assertEquals(expected, matcher.matchAll("rule-3 rule-30 rule-300 rule-3000"));
+        assertTrue(matcher.matchAll("no rules").isEmpty());
+        BitSet region = new BitSet();
+        region.set(30);
+        assertEquals(region, matcher.matchAll("rule-3 rule-30 rule-300", 7, 14));
+    }
+
+    @Test
+    public void shouldFindSpansAsAlternateMatcherDoes() {
+        StringMatcher[] matchers = patterns(200);
+        ParallelMatcher matcher = new ParallelMatcher(matchers, ForkJoinPool.commonPool(), 7);
+        AlternateMatcher alternate = new AlternateMatcher(matchers);
+        String text = "first rule-42 then rule-7 and rule-150";
+        for (int i = 0; i <= text.length(); i++) {
+            assertEquals(alternate.find(text, i), matcher.find(text, i));
+            assertEquals(alternate.matchEnd(text, i), matcher.matchEnd(text, i));
+        }
+    }
+
+    @Test
+    public void shouldStopRemainingShardsAfterMatch() {
+        AtomicInteger evaluated = new AtomicInteger();
+        StringMatcher[] matchers = new StringMatcher[1000];
+        matchers[0] = target -> {
+            evaluated.incrementAndGet();
+            return true;
+        };
+        for (int i = 1; i < matchers.length; i++) {
+            matchers[i] = target -> {
+                evaluated.incrementAndGet();
+                return false;
+            };
+        }
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertTrue(new ParallelMatcher(matchers, pool, 1).matches("anything"));
+            assertTrue(evaluated.get() < 500);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReturnBudgetExceededWhenCancelled() {
+        ParallelMatcher matcher = new ParallelMatcher(patterns(100), ForkJoinPool.commonPool(), 10);
+        MatchBudget budget = MatchBudget.unlimited();
+        assertSame(MatchResult.MATCH, matcher.matches("rule-50", budget));
+        assertSame(MatchResult.NO_MATCH, matcher.matches("rule-500", budget));
+        budget.cancel();
+        assertSame(MatchResult.BUDGET_EXCEEDED, matcher.matches("rule-50", budget));
+    }
+
+    @Test
+    public void shouldEvaluateSmallListInCallingThread() {
+        Thread thread = Thread.currentThread();
+        StringMatcher matcher = new ParallelMatcher(new StringMatcher[] { target -> Thread.currentThread() == thread },
+                ForkJoinPool.commonPool(), 4);
+        assertTrue(matcher.matches("x"));
+    }
+
+    @Test
+    public void shouldRejectInvalidShardSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelMatcher(patterns(10), ForkJoinPool.commonPool(), 0));
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * @(#) PathGlobMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import io.jstuff.text.PathGlobMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class PathGlobMatcherTest {
+
+    @Test
+    public void shouldMatchSegments() {
+        PathGlobMatcher matcher = new PathGlobMatcher("src/*/File?.java");
+        assertTrue(matcher.matches("src/main/File1.java"));
+        assertTrue(matcher.matches("src/test/FileA.java"));
+        assertFalse(matcher.matches("src/main/java/File1.java"));
+        assertFalse(matcher.matches("src/File1.java"));
+    }
+
+    @Test
+    public void shouldMatchGlobStar() {
+        PathGlobMatcher matcher = new PathGlobMatcher("src/**/*.java");
+        assertTrue(matcher.matches("src/File.java"));
+        assertTrue(matcher.matches("src/main/File.java"));
+        assertTrue(matcher.matches("src/main/java/io/File.java"));
+        assertFalse(matcher.matches("lib/main/File.java"));
+        assertFalse(matcher.matches("src/main/File.class"));
+        PathGlobMatcher trailing = new PathGlobMatcher("build/**");
+        assertTrue(trailing.matches("build/a/b/c"));
+        assertFalse(trailing.matches("src/a"));
+    }
+
+    @Test
+    public void shouldReportWhetherDirectoryCouldContainMatch() {
+        PathGlobMatcher matcher = new PathGlobMatcher("src/*/java/**/*.java");
+        assertTrue(matcher.couldMatchUnder(""));
+        assertTrue(matcher.couldMatchUnder("src"));
+        assertTrue(matcher.couldMatchUnder("src/main"));
+        assertTrue(matcher.couldMatchUnder("src/main/java/io"));
+        assertFalse(matcher.couldMatchUnder("lib"));
+        assertFalse(matcher.couldMatchUnder("src/main/resources"));
+        PathGlobMatcher fixed = new PathGlobMatcher("docs/*.md");
+        assertTrue(fixed.couldMatchUnder("docs/"));
+        assertFalse(fixed.couldMatchUnder("docs/images"));
+    }
+
+    @Test
+    public void shouldWalkDirectoryTree() throws IOException {
+        Path root = Files.createTempDirectory("glob");
+        try {
+            Files.createDirectories(root.resolve("src/main/java/io"));
+            Files.createDirectories(root.resolve("src/main/resources"));
+            Files.createDirectories(root.resolve("target/classes"));
+            Files.createFile(root.resolve("src/main/java/io/A.java"));
+            Files.createFile(root.resolve("src/main/java/B.java"));
+            Files.createFile(root.resolve("src/main/resources/C.java"));
+            Files.createFile(root.resolve("target/classes/D.java"));
+            PathGlobMatcher matcher = new PathGlobMatcher("src/*/java/**/*.java");
+            List<String> found = new ArrayList<>();
+            matcher.walk(root, path -> found.add(path.getFileName().toString()));
+            Collections.sort(found);
+            assertEquals("[A.java, B.java]", found.toString());
+            List<String> parallelFound = Collections.synchronizedList(new ArrayList<>());
+            matcher.parallelWalk(root, path -> parallelFound.add(path.getFileName().toString()));
+            Collections.sort(parallelFound);
+            assertEquals("[A.java, B.java]", parallelFound.toString());
+        }
+        finally {
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotFollowSymbolicLinkCycles() throws IOException {
+        Path root = Files.createTempDirectory("glob");
+        try {
+            Files.createDirectories(root.resolve("d/e"));
+            Files.createFile(root.resolve("d/e/f.txt"));
+            try {
+                Files.createSymbolicLink(root.resolve("d/e/loop"), root.resolve("d"));
+            }
+            catch (UnsupportedOperationException | IOException e) {
+                assumeTrue("Symbolic links not supported", false);
+            }
+            PathGlobMatcher matcher = new PathGlobMatcher("**/*.txt");
+            List<String> found = new ArrayList<>();
+            matcher.walk(root, path -> found.add(root.relativize(path).toString()));
+            List<String> parallelFound = Collections.synchronizedList(new ArrayList<>());
+            matcher.parallelWalk(root, path -> parallelFound.add(root.relativize(path).toString()));
+            assertEquals(1, found.size());
+            assertEquals(found, parallelFound);
+        }
+        finally {
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void shouldEstimateRetainedBytesWithGlobstar() {
+        PathGlobMatcher globstar = new PathGlobMatcher("src/**/*.java");
+        PathGlobMatcher plain = new PathGlobMatcher("src/*/*.java");
+        assertTrue(globstar.estimatedRetainedBytes() > 0);
+        assertTrue(globstar.estimatedRetainedBytes() < plain.estimatedRetainedBytes());
+        assertTrue(StringMatcher.alternate(globstar, plain).estimatedRetainedBytes() >
+                globstar.estimatedRetainedBytes() + plain.estimatedRetainedBytes());
+        assertTrue(StringMatcher.plan(globstar, plain).estimatedRetainedBytes() > 0);
+    }
+
+}
@@ -28,7 +28,9 @@ package io.jstuff.text.test;
 import java.util.regex.Pattern;
 
 import org.junit.Test;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import io.jstuff.text.PatternMatcher;
@@ -45,4 +47,80 @@ public class PatternMatcherTest {
         assertFalse(matcher.matches("AFile999"));
     }
 
+    @Test
+    public void shouldMatchRegion() {
+        StringMatcher matcher = new PatternMatcher(Pattern.compile("^File[0-9]{1,3}$"));
+        assertTrue(matcher.matches("AFile999X", 1, 8));
+        assertFalse(matcher.matches("AFile999X", 0, 8));
+        assertFalse(matcher.matches("AFile999X", 1, 9));
+    }
+
+    @Test
+    public void shouldFindAllOccurrences() {
+        StringMatcher matcher = new PatternMatcher(Pattern.compile("[0-9]+"));
+        assertEquals(5, matcher.find("File 123 and 45", 0));
+        assertEquals(8, matcher.matchEnd("File 123 and 45", 5));
+        assertEquals(-1, matcher.matchEnd("File 123 and 45", 4));
+        StringBuilder sb = new StringBuilder();
+        assertEquals(2, matcher.findAll("File 123 and 45", (start, end) -> {
+            sb.append(start).append('-').append(end).append(';');
+            return true;
+        }));
+        assertEquals("5-8;13-15;", sb.toString());
+    }
+
+    @Test
+    public void shouldMatchUsingLinearEngine() {
+        PatternMatcher matcher = new PatternMatcher(Pattern.compile("^File[0-9]{1,3}$"), PatternMatcher.Engine.LINEAR);
+        assertTrue(matcher.isLinear());
+        assertTrue(matcher.matches("File1"));
+        assertTrue(matcher.matches("File999"));
+        assertTrue(matcher.matches("File999\n"));
+        assertFalse(matcher.matches("File999XXX"));
+        assertFalse(matcher.matches("AFile999"));
+        assertTrue(matcher.matches("AFile999X", 1, 8));
+        assertFalse(matcher.matches("AFile999X", 0, 8));
+    }
+
+    @Test
+    public void shouldFindLeftmostLongestUsingLinearEngine() {
+        StringMatcher matcher = StringMatcher.pattern(Pattern.compile("a|ab|(?:\\d+\\.)+"), PatternMatcher.Engine.LINEAR);
+        assertEquals(4, matcher.find("xxx ab 1.2.3.", 0));
+        assertEquals(6, matcher.matchEnd("xxx ab 1.2.3.", 4));
+        assertEquals(13, matcher.matchEnd("xxx ab 1.2.3.", 7));
+        assertEquals(-1, matcher.matchEnd("xxx ab 1.2.3.", 3));
+        StringBuilder sb = new StringBuilder();
+        assertEquals(2, matcher.findAll("xxx ab 1.2.3.", (start, end) -> {
+            sb.append(start).append('-').append(end).append(' ');
+            return true;
+        }));
+        assertEquals("4-6 7-13 ", sb.toString());
+    }
+
+    @Test
+    public void shouldMatchPathologicalPatternInLinearTime() {
+        StringMatcher matcher = new PatternMatcher(Pattern.compile("^(a+)+$"), PatternMatcher.Engine.LINEAR);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            sb.append('a');
+        assertTrue(matcher.matches(sb));
+        sb.append('!');
+        assertFalse(matcher.matches(sb));
+    }
+
+    @Test
+    public void shouldRejectUnsupportedConstructsForLinearEngine() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PatternMatcher(Pattern.compile("(a)\\1"), PatternMatcher.Engine.LINEAR));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PatternMatcher(Pattern.compile("a(?=b)"), PatternMatcher.Engine.LINEAR));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PatternMatcher(Pattern.compile("a", Pattern.CASE_INSENSITIVE), PatternMatcher.Engine.LINEAR));
+        PatternMatcher matcher = new PatternMatcher(Pattern.compile("(a)\\1"),
+                PatternMatcher.Engine.LINEAR_OR_BACKTRACKING);
+        assertFalse(matcher.isLinear());
+        assertTrue(matcher.matches("xaa"));
+        assertFalse(matcher.matches("xab"));
+    }
+
 }
@@ -0,0 +1,86 @@
+/*
+ * @(#) PerfectHashMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.PerfectHashMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class PerfectHashMatcherTest {
+
+    @Test
+    public void shouldMatchStaticSet() {
+        StringMatcher matcher = StringMatcher.perfectHash(Arrays.asList("Fred", "Joe", "Harry", "Joe"));
+        assertTrue(matcher.matches("Fred"));
+        assertTrue(matcher.matches("Joe"));
+        assertTrue(matcher.matches("Harry"));
+        assertFalse(matcher.matches("Fre"));
+        assertFalse(matcher.matches("Freddy"));
+        assertFalse(matcher.matches(""));
+        assertTrue(matcher.matches("Mr Fred Smith", 3, 7));
+        assertEquals(3, ((PerfectHashMatcher)matcher).getCount());
+    }
+
+    @Test
+    public void shouldFindLongestSpan() {
+        StringMatcher matcher = StringMatcher.perfectHash(Arrays.asList("Fred", "Freddy", "Joe"));
+        assertEquals(4, matcher.find("Hi, Freddy and Joe", 0));
+        assertEquals(10, matcher.matchEnd("Hi, Freddy and Joe", 4));
+        assertEquals(15, matcher.find("Hi, Freddy and Joe", 5));
+        assertEquals(-1, matcher.matchEnd("Hi, Freddy and Joe", 16));
+    }
+
+    @Test
+    public void shouldMatchLargeSet() {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 50000; i++)
+            list.add("key" + i);
+        PerfectHashMatcher matcher = new PerfectHashMatcher(list);
+        for (int i = 0; i < 50000; i++)
+            assertTrue(matcher.matches("key" + i));
+        for (int i = 50000; i < 60000; i++)
+            assertFalse(matcher.matches("key" + i));
+        Collections.reverse(list);
+        assertEquals(matcher, new PerfectHashMatcher(list));
+    }
+
+    @Test
+    public void shouldMatchEmptySet() {
+        StringMatcher matcher = new PerfectHashMatcher(Collections.emptyList());
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches("abc"));
+    }
+
+}
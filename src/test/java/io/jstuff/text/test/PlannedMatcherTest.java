@@ -0,0 +1,117 @@
+/*
+ * @(#) PlannedMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.PatternMatcher;
+import io.jstuff.text.PlannedMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class PlannedMatcherTest {
+
+    @Test
+    public void shouldMatchHeterogeneousRules() {
+        PlannedMatcher matcher = StringMatcher.plan(
+                StringMatcher.simple("README.md"),
+                StringMatcher.startsWith("/tmp/"),
+                StringMatcher.endsWith(".bak"),
+                StringMatcher.contains("secret"),
+                StringMatcher.wildcard("*.log"),
+                StringMatcher.wildcard("core.????"),
+                new PatternMatcher(Pattern.compile("^id-[0-9]+$"), PatternMatcher.Engine.LINEAR),
+                new PatternMatcher(Pattern.compile("(\\w)\\1{3}")),
+                target -> target.length() > 40);
+        assertTrue(matcher.matches("README.md"));
+        assertFalse(matcher.matches("README.mdx"));
+        assertTrue(matcher.matches("/tmp/file"));
+        assertTrue(matcher.matches("file.bak"));
+        assertTrue(matcher.matches("my-secret-file"));
+        assertTrue(matcher.matches("server.log"));
+        assertTrue(matcher.matches("core.1234"));
+        assertFalse(matcher.matches("core.12345"));
+        assertTrue(matcher.matches("id-42"));
+        assertTrue(matcher.matches("xaaaax"));
+        assertTrue(matcher.matches("this/is/a/very/long/path/name/to/some/file.txt"));
+        assertFalse(matcher.matches("src/main/java/Main.java"));
+        assertTrue(matcher.matches("[/tmp/x]", 1, 7));
+        assertFalse(matcher.matches("[/tmp/x]", 0, 7));
+        assertEquals("PlannedMatcher[exact=1, prefix=1, suffix=1, contains=1, automata=1 (3 patterns), other=2]",
+                matcher.toString());
+    }
+
+    @Test
+    public void shouldFlattenAndRemoveDuplicates() {
+        PlannedMatcher matcher = StringMatcher.plan(StringMatcher.alternate("abc", "def"),
+                StringMatcher.simple("abc"), StringMatcher.startsWith("x"));
+        assertEquals(3, matcher.getMatchers().size());
+        assertTrue(matcher.matches("def"));
+        assertTrue(matcher.matches("xyz"));
+        assertFalse(matcher.matches("abcd"));
+        assertFalse(StringMatcher.plan().matches("abc"));
+    }
+
+    @Test
+    public void shouldFindSpansAsAlternateMatcher() {
+        StringMatcher[] matchers = { StringMatcher.contains("cat"), StringMatcher.wildcard("d?g") };
+        PlannedMatcher matcher = StringMatcher.plan(matchers);
+        StringMatcher alternate = StringMatcher.alternate(matchers);
+        String text = "a dog and a cat";
+        assertEquals(alternate.find(text, 0), matcher.find(text, 0));
+        assertEquals(alternate.find(text, 5), matcher.find(text, 5));
+        assertEquals(alternate.matchEnd(text, 12), matcher.matchEnd(text, 12));
+    }
+
+    @Test
+    public void shouldCombineLargeNumberOfRules() {
+        List<StringMatcher> rules = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rules.add(StringMatcher.simple("exact" + i));
+            rules.add(StringMatcher.startsWith("/api/v" + i + '/'));
+            rules.add(StringMatcher.endsWith(".x" + i));
+            rules.add(StringMatcher.contains("token" + i + ';'));
+            rules.add(StringMatcher.wildcard("file" + i + ".*"));
+        }
+        PlannedMatcher matcher = StringMatcher.plan(rules.toArray(new StringMatcher[0]));
+        assertEquals("PlannedMatcher[exact=200, prefix=200, suffix=200, contains=200, automata=4 (200 patterns), " +
+                "other=0]", matcher.toString());
+        assertTrue(matcher.matches("exact199"));
+        assertTrue(matcher.matches("/api/v150/users"));
+        assertTrue(matcher.matches("archive.x77"));
+        assertTrue(matcher.matches("auth=token123;"));
+        assertTrue(matcher.matches("file42.txt"));
+        assertFalse(matcher.matches("file200.txt"));
+        assertFalse(matcher.matches("/api/v200/users"));
+    }
+
+}
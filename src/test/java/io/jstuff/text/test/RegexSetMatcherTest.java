@@ -0,0 +1,150 @@
+/*
+ * @(#) RegexSetMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.AlternateMatcher;
+import io.jstuff.text.PatternMatcher;
+import io.jstuff.text.RegexSetMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class RegexSetMatcherTest {
+
+    @Test
+    public void shouldExtractRequiredLiterals() {
+        RegexSetMatcher matcher = StringMatcher.regexSet("error: \\d+", "^(GET|POST) /admin", "colou?r",
+                "[Ee]xception in thread", "user-\\d+@example\\.com", "\\bword\\b", "a*");
+        assertEquals(Collections.singletonList("error: "), matcher.getLiterals(0));
+        assertEquals(Arrays.asList("GET /admin", "POST /admin"), matcher.getLiterals(1));
+        assertEquals(Arrays.asList("color", "colour"), matcher.getLiterals(2));
+        assertEquals(Arrays.asList("Exception in thread", "exception in thread"), matcher.getLiterals(3));
+        assertEquals(Collections.singletonList("@example.com"), matcher.getLiterals(4));
+        assertTrue(matcher.getLiterals(5).isEmpty()); // word boundaries are not understood by the parser
+        assertTrue(matcher.getLiterals(6).isEmpty()); // may match the empty string
+        assertEquals(2, matcher.getUnfilteredCount());
+    }
+
+    @Test
+    public void shouldMatchAsAlternateMatcherDoes() {
+        PatternMatcher[] matchers = new PatternMatcher[] {
+            new PatternMatcher(Pattern.compile("error: \\d+")),
+            new PatternMatcher(Pattern.compile("^(GET|POST) /admin")),
+            new PatternMatcher(Pattern.compile("colou?r")),
+            new PatternMatcher(Pattern.compile("x[0-9]{3}y")),
+            new PatternMatcher(Pattern.compile("end$"), PatternMatcher.Engine.LINEAR),
+        };
+        RegexSetMatcher matcher = new RegexSetMatcher(matchers);
+        AlternateMatcher alternate = new AlternateMatcher(matchers);
+        String[] targets = { "", "error: 42", "error: x", "GET /admin/users", "a GET /admin", "what colour?",
+                "x123y", "x12y", "the end", "the end.", "POST /admins error: 1" };
+        for (String target : targets) {
+            assertEquals(target, alternate.matches(target), matcher.matches(target));
+            for (int i = 0; i <= target.length(); i++) {
+                assertEquals(alternate.find(target, i), matcher.find(target, i));
+                assertEquals(alternate.matchEnd(target, i), matcher.matchEnd(target, i));
+            }
+        }
+        assertTrue(matcher.matches("[colour]", 1, 7));
+        assertFalse(matcher.matches("[colour]", 1, 6));
+    }
+
+    @Test
+    public void shouldReportAllMatchingRegexes() {
+        RegexSetMatcher matcher = StringMatcher.regexSet("abc", "b+c", "c\\d", "x|y", "^a");
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(1);
+        expected.set(4);
+        assertEquals(expected, matcher.matchAll("abcd"));
+        expected.clear();
+        expected.set(2);
+        expected.set(3);
+        assertEquals(expected, matcher.matchAll("zc5y"));
+        assertTrue(matcher.matchAll("zzz").isEmpty());
+        expected.clear();
+        expected.set(1);
+        assertEquals(expected, matcher.matchAll("abcd", 1, 4));
+    }
+
+    @Test
+    public void shouldExecuteOnlyRegexesWithLiteralsInTarget() {
+        String[] regexes = new String[1000];
+        for (int i = 0; i < regexes.length; i++)
+            regexes[i] = "rule" + i + "-[a-z]+";
+        RegexSetMatcher matcher = StringMatcher.regexSet(regexes);
+        assertTrue(matcher.matches("an event matching rule567-abc only"));
+        assertFalse(matcher.matches("an event matching no rules"));
+        assertFalse(matcher.matches("rule42-"));
+        assertEquals(3, matcher.getTargetCount());
+        // the literal of each rule includes the hyphen, so only rule 567 and rule 42 are executed
+        assertEquals(Collections.singletonList("rule42-"), matcher.getLiterals(42));
+        assertEquals(2, matcher.getExecutionCount());
+        matcher.resetStatistics();
+        assertEquals(0, matcher.getTargetCount());
+        assertEquals(0.0, matcher.getAverageExecutions(), 0.0);
+    }
+
+    @Test
+    public void shouldNotExecuteLiteralOnlyRegexes() {
+        RegexSetMatcher matcher = StringMatcher.regexSet("password", "pass(word|phrase)", "secret-\\d+");
+        assertTrue(matcher.matches("my passphrase is"));
+        assertEquals(0, matcher.getExecutionCount());
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(1);
+        assertEquals(expected, matcher.matchAll("password"));
+        assertEquals(0, matcher.getExecutionCount());
+        assertFalse(matcher.matches("secret-x"));
+        assertEquals(1, matcher.getExecutionCount());
+    }
+
+    @Test
+    public void shouldCompareEqual() {
+        RegexSetMatcher matcher = StringMatcher.regexSet("a+b", "c");
+        assertEquals(StringMatcher.regexSet("a+b", "c"), matcher);
+        assertEquals(StringMatcher.regexSet("a+b", "c").hashCode(), matcher.hashCode());
+        assertNotEquals(StringMatcher.regexSet("c", "a+b"), matcher);
+    }
+
+    @Test
+    public void shouldRejectNullRegex() {
+        NullPointerException npe = assertThrows(NullPointerException.class,
+                () -> StringMatcher.regexSet("abc", null));
+        assertEquals("Regex must not be null", npe.getMessage());
+    }
+
+}
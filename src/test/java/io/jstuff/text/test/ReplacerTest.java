@@ -0,0 +1,90 @@
+/*
+ * @(#) ReplacerTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import io.jstuff.text.Replacer;
+import io.jstuff.text.StringMatcher;
+
+public class ReplacerTest {
+
+    @Test
+    public void shouldReplaceAllStringsInOnePass() {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("secret", "[REDACTED]");
+        map.put("password", "********");
+        map.put("cat", "dog");
+        Replacer replacer = new Replacer(map);
+        assertEquals("user=fred ********=******** token=[REDACTED] dog", replacer.replace(
+                "user=fred password=password token=secret cat"));
+        assertEquals("nothing to see", replacer.replace("nothing to see"));
+        assertEquals("", replacer.replace(""));
+    }
+
+    @Test
+    public void shouldUseLeftmostLongestMatches() {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("abc", "1");
+        map.put("abcd", "2");
+        map.put("bcde", "3");
+        map.put("e", "4");
+        Replacer replacer = new Replacer(map);
+        assertEquals("x24", replacer.replace("xabcde"));
+        assertEquals("x1x3", replacer.replace("xabcxbcde"));
+    }
+
+    @Test
+    public void shouldAppendToStringBuilderAndAppendable() throws IOException {
+        Replacer replacer = new Replacer(Collections.singletonMap("4111111111111111", "XXXX"));
+        StringBuilder sb = new StringBuilder("log: ");
+        assertEquals(2, replacer.replace("card 4111111111111111, again 4111111111111111", sb));
+        assertEquals("log: card XXXX, again XXXX", sb.toString());
+        StringWriter writer = new StringWriter();
+        assertEquals(0, replacer.replace("no card", writer));
+        assertEquals("no card", writer.toString());
+    }
+
+    @Test
+    public void shouldReplaceSpansMatchedByMatcher() {
+        Replacer replacer = new Replacer(StringMatcher.wildcard("id=????"), "id=####");
+        assertEquals("a id=#### b id=####5 c", replacer.replace("a id=1234 b id=12345 c"));
+    }
+
+    @Test
+    public void shouldRejectEmptyString() {
+        assertThrows(IllegalArgumentException.class, () -> new Replacer(Collections.singletonMap("", "x")));
+    }
+
+}
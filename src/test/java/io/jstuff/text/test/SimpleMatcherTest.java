@@ -42,4 +42,12 @@ public class SimpleMatcherTest {
         assertFalse(matcher.matches("Freddy"));
     }
 
+    @Test
+    public void shouldMatchRegion() {
+        StringMatcher matcher = new SimpleMatcher("Fred");
+        assertTrue(matcher.matches("Mr Fred Smith", 3, 7));
+        assertFalse(matcher.matches("Mr Fred Smith", 3, 8));
+        assertFalse(matcher.matches("Mr Fred Smith", 2, 7));
+    }
+
 }
@@ -43,4 +43,12 @@ public class StartsWithMatcherTest {
         assertFalse(matcher.matches("Mr Fred"));
     }
 
+    @Test
+    public void shouldMatchRegion() {
+        StringMatcher matcher = new StartsWithMatcher("Fred");
+        assertTrue(matcher.matches("Mr Freddy Smith", 3, 9));
+        assertFalse(matcher.matches("Mr Freddy Smith", 2, 9));
+        assertFalse(matcher.matches("Mr Freddy Smith", 3, 6));
+    }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * @(#) StreamingMatcherTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.StreamingMatcher;
+import io.jstuff.text.StringMatcher;
+
+public class StreamingMatcherTest {
+
+    @Test
+    public void shouldFindContainedStringAcrossChunks() {
+        StreamingMatcher matcher = StringMatcher.contains("boundary").streaming();
+        assertFalse(matcher.feed("text before the bou"));
+        assertFalse(matcher.feed("nd"));
+        assertTrue(matcher.feed("ary and after"));
+        assertTrue(matcher.isMatched());
+        assertTrue(matcher.feed("more text"));
+        matcher.reset();
+        assertFalse(matcher.isMatched());
+        assertFalse(matcher.feed("ary"));
+    }
+
+    @Test
+    public void shouldFindLongContainedStringAcrossChunks() {
+        String longString = "0123456789abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        StreamingMatcher matcher = StringMatcher.contains(longString).streaming();
+        assertFalse(matcher.feed("xxx" + longString.substring(0, 40)));
+        assertTrue(matcher.feed(longString.substring(40) + "xxx"));
+    }
+
+    @Test
+    public void shouldFindAnyOfSetOfStringsAcrossChunks() {
+        StreamingMatcher matcher = StringMatcher.containsAny("ERROR", "FATAL").streaming();
+        assertFalse(matcher.feed("INFO starting\nWARN low memory\nFA"));
+        assertTrue(matcher.feed("TAL out of memory\n"));
+    }
+
+    @Test
+    public void shouldFindWildcardSpanAcrossChunks() {
+        StreamingMatcher matcher = StringMatcher.wildcard("id=??? status=*ok").streaming();
+        assertFalse(matcher.feed("request id=12"));
+        assertFalse(matcher.feed("3 status=pending; "));
+        assertTrue(matcher.feed("all ok"));
+        matcher.reset();
+        assertFalse(matcher.feed("id=1234 status=ok"));
+        assertThrows(UnsupportedOperationException.class, () -> StringMatcher.wildcard("\uD83D*").streaming());
+    }
+
+    @Test
+    public void shouldHandleSurrogatePairSplitAcrossChunks() {
+        StreamingMatcher matcher = StringMatcher.wildcard("a?b").streaming();
+        assertFalse(matcher.feed("xa\uD83D"));
+        assertTrue(matcher.feed("\uDE00b"));
+    }
+
+    @Test
+    public void shouldMatchWildcardWithSurrogatePairInPattern() {
+        StreamingMatcher matcher = StringMatcher.wildcard("x\uD83D\uDE00?").streaming();
+        assertFalse(matcher.feed("ax\uD83D"));
+        assertFalse(matcher.feed("\uDE00"));
+        assertTrue(matcher.feed("y"));
+        matcher.reset();
+        assertFalse(matcher.feed("x\uD83D\uDE01y"));
+        assertThrows(UnsupportedOperationException.class, () -> StringMatcher.wildcard("x\uDE00?").streaming());
+    }
+
+    @Test
+    public void shouldConsumeCharBuffer() {
+        StreamingMatcher matcher = StringMatcher.contains("needle").streaming();
+        CharBuffer buffer = CharBuffer.wrap("haystack with a needle in it");
+        buffer.limit(19);
+        assertFalse(matcher.feed(buffer));
+        assertEquals(19, buffer.position());
+        buffer.limit(buffer.capacity());
+        assertTrue(matcher.feed(buffer));
+        assertEquals(buffer.limit(), buffer.position());
+    }
+
+    @Test
+    public void shouldReadFromReader() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100000)
+            sb.append("lorem ipsum dolor sit amet ");
+        assertFalse(StringMatcher.contains("needle").streaming().feed(new StringReader(sb.toString())));
+        sb.append("needle");
+        assertTrue(StringMatcher.contains("needle").streaming().feed(new StringReader(sb.toString())));
+    }
+
+}
@@ -26,15 +26,24 @@
 package io.jstuff.text.test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import io.jstuff.text.AllMatcher;
+import io.jstuff.text.AlternateMatcher;
+import io.jstuff.text.CompiledSetMatcher;
+import io.jstuff.text.ConstantMatcher;
+import io.jstuff.text.NotMatcher;
+import io.jstuff.text.PatternMatcher;
 import io.jstuff.text.StringMatcher;
 
 public class StringMatcherTest {
@@ -162,4 +171,114 @@ public class StringMatcherTest {
         assertEquals("String must not be null", npe.getMessage());
     }
 
+    @Test
+    public void shouldMatchRegionUsingDefaultImplementation() {
+        StringMatcher matcher = (cs) -> cs.length() == 4;
+        assertTrue(matcher.matches("Mr Fred", 3, 7));
+        assertFalse(matcher.matches("Mr Fred", 2, 7));
+        assertThrows(IndexOutOfBoundsException.class, () -> matcher.matches("Mr Fred", 3, 8));
+    }
+
+    @Test
+    public void shouldFindSpansUsingDefaultImplementation() {
+        StringMatcher matcher = (cs) -> cs.length() == 2 && cs.charAt(0) == cs.charAt(1);
+        assertEquals(2, matcher.find("abccdd", 0));
+        assertEquals(4, matcher.matchEnd("abccdd", 2));
+        assertEquals(2, matcher.findAll("abccdd", (start, end) -> true));
+        assertEquals(1, matcher.findAll("abccdd", (start, end) -> false));
+    }
+
+    @Test
+    public void shouldFoldConstantsInBooleanCombinations() {
+        StringMatcher a = StringMatcher.contains("a");
+        assertSame(a, StringMatcher.and(a, ConstantMatcher.TRUE));
+        assertSame(ConstantMatcher.FALSE, StringMatcher.and(a, ConstantMatcher.FALSE));
+        assertSame(a, StringMatcher.or(a, ConstantMatcher.FALSE));
+        assertSame(ConstantMatcher.TRUE, StringMatcher.or(a, ConstantMatcher.TRUE));
+        assertSame(ConstantMatcher.TRUE, StringMatcher.and());
+        assertSame(ConstantMatcher.FALSE, StringMatcher.or());
+        assertSame(a, StringMatcher.and(a, StringMatcher.contains("a")));
+        assertSame(a, StringMatcher.not(StringMatcher.not(a)));
+        assertSame(ConstantMatcher.FALSE, StringMatcher.not(ConstantMatcher.TRUE));
+    }
+
+    @Test
+    public void shouldDetectContradictionsInBooleanCombinations() {
+        StringMatcher a = StringMatcher.contains("a");
+        assertSame(ConstantMatcher.FALSE, StringMatcher.and(a, StringMatcher.endsWith("x"), StringMatcher.not(a)));
+        assertSame(ConstantMatcher.TRUE, StringMatcher.or(StringMatcher.not(a), a));
+        assertSame(ConstantMatcher.FALSE, StringMatcher.and(StringMatcher.simple("abc"), StringMatcher.simple("abd")));
+    }
+
+    @Test
+    public void shouldFlattenAndOrderBooleanCombinations() {
+        StringMatcher contains = StringMatcher.contains("x");
+        StringMatcher simple = StringMatcher.simple("abc");
+        StringMatcher lambda = target -> target.length() > 2;
+        StringMatcher matcher = StringMatcher.or(lambda, StringMatcher.or(contains, simple));
+        assertTrue(matcher instanceof AlternateMatcher);
+        assertEquals(Arrays.asList(simple, contains, lambda), ((AlternateMatcher)matcher).getMatchers());
+        StringMatcher all = StringMatcher.and(lambda, StringMatcher.and(contains, StringMatcher.not(simple)));
+        assertTrue(all instanceof AllMatcher);
+        List<StringMatcher> operands = ((AllMatcher)all).getMatchers();
+        assertEquals(3, operands.size());
+        assertTrue(operands.get(0) instanceof NotMatcher);
+        assertSame(contains, operands.get(1));
+        assertSame(lambda, operands.get(2));
+        assertTrue(all.matches("xyz"));
+        assertFalse(all.matches("xy"));
+        assertEquals(all, StringMatcher.and(lambda, contains, StringMatcher.not(simple)));
+    }
+
+    @Test
+    public void shouldFuseAutomataInBooleanCombinations() {
+        StringMatcher pattern = new PatternMatcher(Pattern.compile("[0-9]{3}-[0-9]{4}"), PatternMatcher.Engine.LINEAR);
+        StringMatcher wildcard = StringMatcher.wildcard("*.log");
+        StringMatcher both = StringMatcher.and(pattern, wildcard, StringMatcher.startsWith("call"));
+        assertFalse(both instanceof AllMatcher);
+        assertTrue(both.matches("call-555-1234.log"));
+        assertFalse(both.matches("call-555-123.log"));
+        assertFalse(both.matches("call-555-1234.txt"));
+        assertFalse(both.matches("text-555-1234.log"));
+        assertEquals(both, StringMatcher.and(pattern, wildcard, StringMatcher.startsWith("call")));
+        StringMatcher either = StringMatcher.or(pattern, wildcard);
+        assertFalse(either instanceof AlternateMatcher);
+        assertTrue(either.matches("555-1234"));
+        assertTrue(either.matches("x.log"));
+        assertFalse(either.matches("x.txt"));
+        assertNotEquals(both, either);
+    }
+
+    @Test
+    public void shouldEstimateRetainedBytes() {
+        StringMatcher lambda = target -> target.length() == 3;
+        assertEquals(16, lambda.estimatedRetainedBytes());
+        assertEquals(0, ConstantMatcher.TRUE.estimatedRetainedBytes());
+        // SimpleMatcher (16) + String (24) + byte[3] (24)
+        assertEquals(64, StringMatcher.simple("abc").estimatedRetainedBytes());
+        // a UTF-16 string occupies two bytes per character
+        assertEquals(72, StringMatcher.simple("\u0394\u0394\u0394\u0394\u0394").estimatedRetainedBytes());
+        assertTrue(StringMatcher.simple("abcdefghijklmnopqrstuvwxyz").estimatedRetainedBytes() >
+                StringMatcher.simple("abc").estimatedRetainedBytes());
+        assertTrue(StringMatcher.not(StringMatcher.simple("abc")).estimatedRetainedBytes() >
+                StringMatcher.simple("abc").estimatedRetainedBytes());
+        // the character masks are sized to the distinct characters of the string
+        assertTrue(StringMatcher.contains("abc").estimatedRetainedBytes() >
+                StringMatcher.simple("abc").estimatedRetainedBytes());
+        assertTrue(StringMatcher.contains("abc").estimatedRetainedBytes() < 256);
+        assertTrue(StringMatcher.wildcard("a*c").estimatedRetainedBytes() >
+                StringMatcher.simple("a*c").estimatedRetainedBytes());
+        assertTrue(StringMatcher.pattern(Pattern.compile("a+b")).estimatedRetainedBytes() >
+                StringMatcher.simple("a+b").estimatedRetainedBytes());
+    }
+
+    @Test
+    public void shouldEstimateCompiledSetSizeOnHeapOnly() {
+        List<String> strings = Arrays.asList("alpha", "beta", "gamma");
+        CompiledSetMatcher heap = CompiledSetMatcher.of(CompiledSetMatcher.Type.EXACT, strings);
+        CompiledSetMatcher direct = CompiledSetMatcher.ofDirect(CompiledSetMatcher.Type.EXACT, strings);
+        // the heap form includes the 20-byte header, 4 offsets and 14 bytes of Latin-1 data
+        assertEquals(direct.estimatedRetainedBytes() + 72, heap.estimatedRetainedBytes());
+    }
+
 }
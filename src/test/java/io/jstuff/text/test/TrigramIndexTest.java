@@ -0,0 +1,93 @@
+/*
+ * @(#) TrigramIndexTest.java
+ *
+ * string-matcher  String matching functions
+ * Copyright (c) 2025 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+import io.jstuff.text.PatternMatcher;
+import io.jstuff.text.StringMatcher;
+import io.jstuff.text.TrigramIndex;
+
+public class TrigramIndexTest {
+
+    private static final TrigramIndex index = new TrigramIndex(Arrays.asList("README.md", "build.gradle", "pom.xml",
+            "src/main/java/Main.java", "src/test/java/MainTest.java", "docs/readme.txt", "CHANGELOG.md"));
+
+    @Test
+    public void shouldSearchUsingContainsMatcher() {
+        StringMatcher matcher = StringMatcher.contains("Main");
+        assertEquals(Arrays.asList("src/main/java/Main.java", "src/test/java/MainTest.java"), index.search(matcher));
+        assertEquals(2, index.countCandidates(matcher));
+        assertEquals(Collections.emptyList(), index.search(StringMatcher.contains("Nothing")));
+        assertEquals(0, index.countCandidates(StringMatcher.contains("Nothing")));
+    }
+
+    @Test
+    public void shouldSearchUsingPrefixSuffixAndWildcard() {
+        assertEquals(Arrays.asList("README.md", "CHANGELOG.md"), index.search(StringMatcher.endsWith(".md")));
+        assertEquals(2, index.countCandidates(StringMatcher.endsWith(".md")));
+        assertEquals(Arrays.asList("src/main/java/Main.java", "src/test/java/MainTest.java"),
+                index.search(StringMatcher.startsWith("src/")));
+        StringMatcher wildcard = StringMatcher.wildcard("src/*/java/*Test.java");
+        assertEquals(Collections.singletonList("src/test/java/MainTest.java"), index.search(wildcard));
+        assertEquals(1, index.countCandidates(wildcard));
+    }
+
+    @Test
+    public void shouldSearchUsingPatternsAndCombinations() {
+        StringMatcher pattern = new PatternMatcher(Pattern.compile("(READ|CHANGE)[A-Z]+\\.md"));
+        assertEquals(Arrays.asList("README.md", "CHANGELOG.md"), index.search(pattern));
+        assertEquals(2, index.countCandidates(pattern));
+        StringMatcher either = StringMatcher.alternate(StringMatcher.contains("pom"), StringMatcher.contains("gradle"));
+        assertEquals(Arrays.asList("build.gradle", "pom.xml"), index.search(either));
+        assertEquals(2, index.countCandidates(either));
+    }
+
+    @Test
+    public void shouldTestEveryEntryWhenNoTrigramsAvailable() {
+        StringMatcher matcher = StringMatcher.caseInsensitive("readme.md");
+        assertEquals(Collections.singletonList("README.md"), index.search(matcher));
+        assertEquals(index.size(), index.countCandidates(matcher));
+        assertEquals(index.size(), index.countCandidates(StringMatcher.wildcard("*.?d")));
+    }
+
+    @Test
+    public void shouldAllowIncrementalAdditions() {
+        TrigramIndex index = new TrigramIndex();
+        assertEquals(0, index.add("first.txt"));
+        assertEquals(1, index.add(new StringBuilder("second.txt")));
+        assertEquals(Arrays.asList("first.txt", "second.txt"), index.search(StringMatcher.endsWith(".txt")));
+        index.add("third.txt");
+        assertEquals(3, index.search(StringMatcher.endsWith(".txt")).size());
+        assertEquals("third.txt", index.get(2));
+    }
+
+}
@@ -31,6 +31,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import io.jstuff.text.MatchBudget;
+import io.jstuff.text.MatchResult;
+import io.jstuff.text.StringMatcher;
 import io.jstuff.text.WildcardMatcher;
 
 public class WildcardMatcherTest {
@@ -153,4 +156,140 @@ public class WildcardMatcherTest {
         assertEquals("Target must not be null", npe.getMessage());
     }
 
+    @Test
+    public void shouldMatchRegion() {
+        WildcardMatcher matcher = new WildcardMatcher("File*.txt");
+        assertTrue(matcher.matches("path/File1.txt;", 5, 14));
+        assertFalse(matcher.matches("path/File1.txt;", 5, 15));
+        assertFalse(matcher.matches("path/File1.txt;", 4, 14));
+    }
+
+    @Test
+    public void shouldThrowExceptionOnRegionOutOfBounds() {
+        WildcardMatcher matcher = new WildcardMatcher("test");
+        assertThrows(IndexOutOfBoundsException.class, () -> matcher.matches("test", 1, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> matcher.matches("test", 3, 2));
+    }
+
+    @Test
+    public void shouldFindLongestSpan() {
+        WildcardMatcher matcher = new WildcardMatcher("F?e*d");
+        assertEquals(3, matcher.find("Mr Fred and Freda", 0));
+        assertEquals(16, matcher.matchEnd("Mr Fred and Freda", 3));
+        assertEquals(12, matcher.find("Mr Fred and Freda", 4));
+        assertEquals(-1, matcher.find("Mr Fred and Freda", 13));
+    }
+
+    @Test
+    public void shouldMatchConsecutiveMultiCharacterWildcardsAgainstEmptyString() {
+        WildcardMatcher matcher = new WildcardMatcher("a**");
+        assertTrue(matcher.matches("a"));
+        assertTrue(matcher.matches("abc"));
+        assertTrue(new WildcardMatcher("**").matches(""));
+    }
+
+    @Test
+    public void shouldNotTreatBracketsAsClassesByDefault() {
+        WildcardMatcher matcher = new WildcardMatcher("log[0-9].txt");
+        assertFalse(matcher.isExtended());
+        assertTrue(matcher.matches("log[0-9].txt"));
+        assertFalse(matcher.matches("log1.txt"));
+    }
+
+    @Test
+    public void shouldMatchCharacterClasses() {
+        WildcardMatcher matcher = StringMatcher.glob("log[0-9].txt");
+        assertTrue(matcher.isExtended());
+        assertTrue(matcher.matches("log1.txt"));
+        assertTrue(matcher.matches("log9.txt"));
+        assertFalse(matcher.matches("logA.txt"));
+        assertFalse(matcher.matches("log10.txt"));
+        WildcardMatcher setMatcher = StringMatcher.glob("[abc]*");
+        assertTrue(setMatcher.matches("apple"));
+        assertTrue(setMatcher.matches("cherry"));
+        assertFalse(setMatcher.matches("date"));
+        WildcardMatcher special = StringMatcher.glob("[]-]x");
+        assertTrue(special.matches("]x"));
+        assertTrue(special.matches("-x"));
+        assertFalse(special.matches("ax"));
+    }
+
+    @Test
+    public void shouldMatchNegatedCharacterClasses() {
+        WildcardMatcher matcher = StringMatcher.glob("file[!x].dat");
+        assertTrue(matcher.matches("file1.dat"));
+        assertFalse(matcher.matches("filex.dat"));
+        WildcardMatcher caretMatcher = StringMatcher.glob("file[^a-m].dat");
+        assertTrue(caretMatcher.matches("filez.dat"));
+        assertFalse(caretMatcher.matches("fileb.dat"));
+    }
+
+    @Test
+    public void shouldMatchCharacterClassesOutsideLatin1() {
+        WildcardMatcher matcher = StringMatcher.glob("[\u03B1-\u03C9\uD83D\uDE00]!");
+        assertTrue(matcher.matches("\u03B2!"));
+        assertTrue(matcher.matches("\uD83D\uDE00!"));
+        assertFalse(matcher.matches("b!"));
+    }
+
+    @Test
+    public void shouldMatchEscapedCharacters() {
+        WildcardMatcher matcher = StringMatcher.glob("file\\*.dat");
+        assertTrue(matcher.matches("file*.dat"));
+        assertFalse(matcher.matches("file1.dat"));
+        WildcardMatcher customMatcher = StringMatcher.wildcard("100~%_", '_', '%', '~');
+        assertTrue(customMatcher.matches("100%!"));
+        assertFalse(customMatcher.matches("1000!"));
+    }
+
+    @Test
+    public void shouldThrowExceptionOnInvalidExtendedPattern() {
+        assertThrows(IllegalArgumentException.class, () -> StringMatcher.glob("log[0-9.txt"));
+        assertThrows(IllegalArgumentException.class, () -> StringMatcher.glob("log\\"));
+        assertThrows(IllegalArgumentException.class, () -> StringMatcher.glob("log[z-a]"));
+    }
+
+    @Test
+    public void shouldLimitWorkWithBudget() {
+        WildcardMatcher matcher = new WildcardMatcher("*a*a*a*a*a*a*b");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 60; i++)
+            sb.append('a');
+        MatchBudget budget = MatchBudget.steps(10000);
+        assertEquals(MatchResult.BUDGET_EXCEEDED, matcher.matches(sb, budget));
+        assertTrue(budget.isExceeded());
+        sb.append('b');
+        assertEquals(MatchResult.MATCH, matcher.matches(sb, MatchBudget.steps(10000)));
+        assertEquals(MatchResult.NO_MATCH, matcher.matches("xyz", MatchBudget.steps(10000)));
+    }
+
+    @Test
+    public void shouldFindPatternWithSingleCharacterWildcards() {
+        WildcardMatcher matcher = new WildcardMatcher("ab?d");
+        assertEquals(4, matcher.find("xabaabxd", 0));
+        assertEquals(3, matcher.find("xababcd", 2));
+        assertEquals(-1, matcher.find("xababcd", 4));
+        assertEquals(-1, matcher.find("abd", 0));
+        assertEquals(1, matcher.find("xab\uD83D\uDE00d", 0));
+        assertEquals(6, matcher.matchEnd("xab\uD83D\uDE00d", 1));
+    }
+
+    @Test
+    public void shouldLocateSpansWithManyMultiCharacterWildcardsInLinearTime() {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100000)
+            sb.append("abcd");
+        String target = sb.toString();
+        WildcardMatcher matcher = new WildcardMatcher("*a*b*c*d*e");
+        assertEquals(-1, matcher.find(target, 0));
+        assertEquals(-1, matcher.matchEnd(target, 0));
+        assertEquals(0, matcher.findAll(target, (start, end) -> true));
+        assertEquals(0, matcher.find(target + 'e', 0));
+        assertEquals(target.length() + 1, matcher.matchEnd(target + 'e', 0));
+        WildcardMatcher middle = new WildcardMatcher("b*c?a*e");
+        assertEquals(-1, middle.find(target, 7));
+        assertEquals(9, middle.find(target + "xe", 7));
+        assertEquals(target.length() + 2, middle.matchEnd(target + "xe", 9));
+    }
+
 }